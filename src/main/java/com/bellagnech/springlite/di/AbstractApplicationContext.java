@@ -0,0 +1,1000 @@
+package com.bellagnech.springlite.di;
+
+import com.bellagnech.springlite.di.scope.PooledScope;
+import com.bellagnech.springlite.di.scope.Scope;
+import com.bellagnech.springlite.di.scope.StripedScope;
+import com.bellagnech.springlite.di.scope.ThreadScope;
+import com.bellagnech.springlite.di.util.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Base class for ApplicationContext implementations.
+ * Holds the bean definitions and the singleton registry, and implements the
+ * bean lookup and refresh workflow shared by all configuration styles.
+ * Subclasses only decide how definitions are loaded and how a bean instance is built.
+ */
+public abstract class AbstractApplicationContext implements ApplicationContext, BeanDefinitionRegistry {
+    
+    /**
+     * Number of bean definitions from which bean classes are loaded in parallel.
+     */
+    private static final int PARALLEL_CLASS_LOADING_THRESHOLD = 256;
+    
+    protected final Logger logger = Logger.getLogger(getClass());
+    
+    // In registration order, which bean type lookups and getBeansOfType follow
+    protected final Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+    private final SingletonRegistry singletonRegistry = new SingletonRegistry();
+    private final Map<String, Scope> scopes = new ConcurrentHashMap<>(Map.of(
+            ThreadScope.SCOPE_NAME, new ThreadScope(),
+            StripedScope.SCOPE_NAME, new StripedScope(),
+            PooledScope.SCOPE_NAME, new PooledScope()));
+    private volatile BeanInstantiator beanInstantiator = new MethodHandleBeanInstantiator();
+    private volatile ClassLoader beanClassLoader = defaultClassLoader();
+    private volatile BeanTypeIndex beanTypeIndex;
+    private volatile BeanSlots beanSlots = BeanSlots.EMPTY;
+    private volatile boolean defaultLazyInit;
+    private volatile Executor bootstrapExecutor;
+    private volatile DependencyGraph dependencyGraph;
+    
+    // Slots of the beans whose dependencies were found free of cycles on refresh
+    private volatile BeanSlots checkedSlots = BeanSlots.EMPTY;
+    private volatile BootstrapReport bootstrapReport = BootstrapReport.EMPTY;
+    
+    @Override
+    public void refresh() throws Exception {
+        String contextName = getClass().getSimpleName();
+        logger.info("Refreshing {}", contextName);
+        
+        // Clear the singleton cache and the instances held by custom scopes
+        dependencyGraph = null;
+        checkedSlots = BeanSlots.EMPTY;
+        singletonRegistry.clear();
+        scopes.values().forEach(Scope::clear);
+        
+        // Load bean definitions from the configured sources
+        loadBeanDefinitions();
+        
+        // Validate bean definitions
+        validateBeanDefinitions();
+        
+        // Index bean names by every type they are assignable to
+        beanTypeIndex = BeanTypeIndex.build(beanDefinitionMap);
+        
+        // Assign the dense slots used by bean handles
+        beanSlots = BeanSlots.assign(beanDefinitionMap);
+        
+        // Let subclasses prepare lookup structures before beans are created
+        onRefresh();
+        
+        // Reject dependency cycles before any instance is created
+        validateDependencies();
+        
+        // Instantiate all singleton beans
+        preInstantiateSingletons();
+        
+        logger.info("{} refresh completed with {} bean definitions", contextName, beanDefinitionMap.size());
+        
+        // Load the classes of every bean and exit, for the JVM to record them
+        if (TrainingRun.isEnabled()) {
+            TrainingRun.complete(this);
+        }
+    }
+    
+    /**
+     * Load bean definitions from the sources configured for this context.
+     * 
+     * @throws Exception if the definitions cannot be loaded
+     */
+    protected abstract void loadBeanDefinitions() throws Exception;
+    
+    /**
+     * Template method invoked after the bean definitions were validated
+     * and before singletons are instantiated. Does nothing by default.
+     * 
+     * @throws Exception if the context cannot be prepared
+     */
+    protected void onRefresh() throws Exception {
+    }
+    
+    /**
+     * Validate bean definitions for correctness.
+     */
+    protected void validateBeanDefinitions() throws BeanCreationException {
+        logger.debug("Validating bean definitions");
+        
+        for (Map.Entry<String, BeanDefinition> entry : beanDefinitionMap.entrySet()) {
+            String beanName = entry.getKey();
+            BeanDefinition bd = entry.getValue();
+            
+            // Check required fields
+            if (bd.getClassName() == null || bd.getClassName().isEmpty()) {
+                throw new BeanCreationException(beanName, "Bean class name is required");
+            }
+            
+            // Check the scope is known
+            if (!bd.isSingleton() && !bd.isPrototype()) {
+                requireScope(beanName, bd);
+            }
+        }
+        
+        // Validate classes exist, loading each of them once
+        resolveBeanClasses();
+    }
+    
+    /**
+     * Resolve the class of every bean definition against the bean class loader.
+     * Classes are loaded without being initialized; with many definitions they
+     * are loaded in parallel on the common fork-join pool.
+     */
+    protected void resolveBeanClasses() throws BeanCreationException {
+        BeanDefinition[] definitions = beanDefinitionMap.values().toArray(new BeanDefinition[0]);
+        ClassLoader classLoader = getBeanClassLoader();
+        
+        if (definitions.length < PARALLEL_CLASS_LOADING_THRESHOLD) {
+            for (BeanDefinition bd : definitions) {
+                resolveBeanClass(bd, classLoader);
+            }
+            return;
+        }
+        
+        logger.debug("Resolving {} bean classes in parallel", definitions.length);
+        BeanCreationException[] failures = new BeanCreationException[definitions.length];
+        IntStream.range(0, definitions.length).parallel().forEach(i -> {
+            try {
+                resolveBeanClass(definitions[i], classLoader);
+            } catch (BeanCreationException e) {
+                failures[i] = e;
+            }
+        });
+        
+        for (BeanCreationException failure : failures) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+    
+    private static Class<?> resolveBeanClass(BeanDefinition bd, ClassLoader classLoader) throws BeanCreationException {
+        try {
+            return bd.resolveBeanClass(classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new BeanCreationException(bd.getId(),
+                "Bean class not found: " + bd.getClassName(), e);
+        }
+    }
+    
+    /**
+     * Return the index of bean names by assignable type.
+     * Built on refresh, and rebuilt on first use after definitions are registered.
+     * 
+     * @return the bean type index
+     * @throws BeanCreationException if the class of a new definition cannot be resolved
+     */
+    protected BeanTypeIndex getBeanTypeIndex() throws BeanCreationException {
+        BeanTypeIndex index = beanTypeIndex;
+        if (index == null) {
+            resolveBeanClasses();
+            index = BeanTypeIndex.build(beanDefinitionMap);
+            beanTypeIndex = index;
+        }
+        return index;
+    }
+    
+    /**
+     * Build the dependency graph of all beans from their injection metadata and
+     * reject any dependency cycle, so that beans created afterwards need no cycle
+     * bookkeeping. Lazy singletons are left out, so that refresh does not compute
+     * their injection plans. A cycle through one of them is detected when it is
+     * created: by the creation lock of the thread walking it, or by the singleton
+     * registry when threads creating its beans concurrently wait on each other.
+     * 
+     * @throws CircularDependencyException for the first cycle found
+     */
+    protected void validateDependencies() throws BeanCreationException {
+        DependencyGraph graph = DependencyGraph.build(beanDefinitionMap.keySet(), beanName -> {
+            BeanDefinition beanDefinition = beanDefinitionMap.get(beanName);
+            return beanDefinition.isSingleton() && isLazyInit(beanDefinition) 
+                    ? Collections.emptyList() : getDependencyNames(beanDefinition);
+        });
+        dependencyGraph = graph;
+        
+        List<List<String>> cycles = graph.findCycles();
+        for (List<String> cycle : cycles) {
+            logger.error("Circular reference detected: " + String.join(" -> ", cycle) + " -> " + cycle.get(0));
+        }
+        if (!cycles.isEmpty()) {
+            List<String> cycle = cycles.get(0);
+            throw new CircularDependencyException(cycle.get(0), new LinkedHashSet<>(cycle));
+        }
+        checkedSlots = beanSlots;
+    }
+    
+    /**
+     * Instantiate all singleton beans that are not lazy, dependencies first.
+     * Without a bootstrap executor, beans are created on the calling thread.
+     */
+    protected void preInstantiateSingletons() throws Exception {
+        logger.info("Instantiating singleton beans");
+        
+        DependencyGraph graph = dependencyGraph;
+        boolean[] eager = new boolean[graph.size()];
+        int lazyCount = 0;
+        for (int node = 0; node < graph.size(); node++) {
+            BeanDefinition beanDefinition = beanDefinitionMap.get(graph.getBeanName(node));
+            if (beanDefinition.isSingleton()) {
+                if (isLazyInit(beanDefinition)) {
+                    lazyCount++;
+                } else {
+                    eager[node] = true;
+                }
+            }
+        }
+        
+        Executor executor = bootstrapExecutor;
+        BootstrapStats stats = new BootstrapStats();
+        int[] sorted = graph.sortTopologically();
+        if (executor != null) {
+            new ParallelBootstrap(graph, eager, executor, stats).run(sorted);
+        } else {
+            for (int node : sorted) {
+                if (eager[node]) {
+                    stats.createSingleton(graph.getBeanName(node));
+                }
+            }
+        }
+        
+        bootstrapReport = stats.toReport(executor != null, graph.getCriticalPathLength(sorted));
+        logger.info("Instantiated singleton beans: {}", bootstrapReport);
+        if (lazyCount > 0) {
+            logger.info("Deferred creation of {} lazy singleton beans", lazyCount);
+        }
+    }
+    
+    /**
+     * Return the names of the beans that have to exist before the given bean can be
+     * created, used to detect dependency cycles and to order singleton instantiation
+     * on refresh. Dependencies that are only looked up later, through a {@link Provider}
+     * or {@link ObjectFactory}, are not included. A bean depending on beans that are
+     * not returned here is still created correctly, only with less parallelism.
+     * <p>
+     * Returns the bean references of the property values by default.
+     * 
+     * @param beanDefinition the bean definition
+     * @return the names of the beans the bean depends on
+     */
+    protected Collection<String> getDependencyNames(BeanDefinition beanDefinition) {
+        List<String> dependencyNames = new ArrayList<>();
+        for (PropertyValue propertyValue : beanDefinition.getPropertyValues()) {
+            if (propertyValue.isRef()) {
+                dependencyNames.add((String) propertyValue.getValue());
+            }
+        }
+        return dependencyNames;
+    }
+    
+    /**
+     * Check whether the given bean is created on first access rather than on refresh,
+     * from its own lazy-init flag or else from the default of this context.
+     * 
+     * @param beanDefinition the bean definition
+     * @return true if the bean is lazy
+     */
+    protected boolean isLazyInit(BeanDefinition beanDefinition) {
+        Boolean lazyInit = beanDefinition.getLazyInit();
+        return lazyInit != null ? lazyInit : defaultLazyInit;
+    }
+    
+    @Override
+    public Object getBean(String id) throws NoSuchBeanDefinitionException, BeanCreationException {
+        logger.debug("Getting bean with id: {}", id);
+        
+        // Check if bean definition exists
+        BeanDefinition beanDefinition;
+        try {
+            beanDefinition = getBeanDefinition(id);
+        } catch (NoSuchBeanDefinitionException e) {
+            logger.error("No bean definition found for: " + id);
+            throw e;
+        }
+        
+        return doGetBean(id, beanDefinition);
+    }
+    
+    /**
+     * Return the bean for the given definition, creating it if needed.
+     * 
+     * @param id the bean identifier
+     * @param beanDefinition the bean definition
+     * @return the bean instance
+     */
+    private Object doGetBean(String id, BeanDefinition beanDefinition) throws BeanCreationException {
+        // If bean is a prototype, always create a new instance
+        if (beanDefinition.isPrototype()) {
+            logger.debug("Creating new prototype instance for bean: {}", id);
+            return createPrototype(id, beanDefinition);
+        }
+        
+        // Let a custom scope decide which instance to return
+        if (!beanDefinition.isSingleton()) {
+            return getScopedBean(requireScope(id, beanDefinition), id, scopedFactory(id, beanDefinition));
+        }
+        
+        // For singleton beans, check if already instantiated (lock-free)
+        Object singleton = singletonRegistry.getSingleton(id);
+        if (singleton != null) {
+            logger.debug("Returning existing singleton instance for bean: {}", id);
+            return singleton;
+        }
+        
+        logger.debug("Creating singleton instance for bean: {}", id);
+        try {
+            if (singletonRegistry.isCurrentlyInCreation(id)) {
+                throw circularReference(id);
+            }
+            singleton = singletonRegistry.getSingleton(id, () -> createBean(beanDefinition));
+        } catch (Exception e) {
+            logger.error("Error creating singleton bean: " + id, e);
+            throw new BeanCreationException(id, "Error creating singleton bean", e);
+        }
+        beanSlots.putSingleton(id, singleton);
+        return singleton;
+    }
+    
+    private Scope requireScope(String id, BeanDefinition beanDefinition) throws BeanCreationException {
+        Scope scope = getRegisteredScope(beanDefinition.getScope());
+        if (scope == null) {
+            throw new BeanCreationException(id, "No scope registered for scope name '" + beanDefinition.getScope() + "'");
+        }
+        return scope;
+    }
+    
+    private Object getScopedBean(Scope scope, String id, ObjectFactory<Object> objectFactory) throws BeanCreationException {
+        try {
+            return scope.get(id, objectFactory);
+        } catch (NoSuchBeanDefinitionException e) {
+            throw new BeanCreationException(id, "Error creating scoped bean", e);
+        }
+    }
+    
+    /**
+     * Return the factory a custom scope uses to create an instance of the bean.
+     */
+    private ObjectFactory<Object> scopedFactory(String id, BeanDefinition beanDefinition) {
+        return () -> {
+            logger.debug("Creating new {} scoped instance for bean: {}", beanDefinition.getScope(), id);
+            try {
+                return createBean(beanDefinition);
+            } catch (Exception e) {
+                logger.error("Error creating " + beanDefinition.getScope() + " scoped bean: " + id, e);
+                throw new BeanCreationException(id, "Error creating " + beanDefinition.getScope() + " scoped bean", e);
+            }
+        };
+    }
+    
+    private Object createPrototype(String id, BeanDefinition beanDefinition) throws BeanCreationException {
+        try {
+            return createBean(beanDefinition);
+        } catch (Exception e) {
+            logger.error("Error creating prototype bean: " + id, e);
+            throw new BeanCreationException(id, "Error creating prototype bean", e);
+        }
+    }
+    
+    @Override
+    public <T> T getBean(String id, Class<T> requiredType) throws NoSuchBeanDefinitionException, BeanCreationException {
+        Object bean = getBean(id);
+        
+        if (requiredType != null && !requiredType.isInstance(bean)) {
+            throw new BeanCreationException(id,
+                "Bean is not of required type " + requiredType.getName() +
+                ", actual type is " + bean.getClass().getName());
+        }
+        
+        return requiredType.cast(bean);
+    }
+    
+    @Override
+    public <T> T getBean(Class<T> requiredType) throws NoSuchBeanDefinitionException, BeanCreationException {
+        List<String> candidates = getBeanTypeIndex().getCandidateNames(requiredType);
+        
+        if (candidates.size() == 1) {
+            return getBeanOfType(candidates.get(0), requiredType);
+        }
+        if (candidates.isEmpty()) {
+            throw new NoSuchBeanDefinitionException(requiredType);
+        }
+        throw new NoUniqueBeanDefinitionException(requiredType, candidates);
+    }
+    
+    @Override
+    public <T> ObjectProvider<T> getBeanProvider(Class<T> requiredType) {
+        return new BeanTypeProvider<>(requiredType);
+    }
+    
+    @Override
+    public <T> BeanHandle<T> handle(String id, Class<T> requiredType) throws NoSuchBeanDefinitionException, BeanCreationException {
+        BeanDefinition beanDefinition = getBeanDefinition(id);
+        Class<?> beanClass = resolveBeanClass(beanDefinition, getBeanClassLoader());
+        
+        if (!requiredType.isAssignableFrom(beanClass)) {
+            throw new BeanCreationException(id,
+                "Bean is not of required type " + requiredType.getName() +
+                ", actual type is " + beanClass.getName());
+        }
+        
+        return new SlotBeanHandle<>(id, requiredType);
+    }
+    
+    /**
+     * Resolve the bean references of the given plan to bean handles, so that
+     * injecting them needs no name lookup. References to beans that had no
+     * definition on the last refresh are left to be looked up by name.
+     * 
+     * @param plan the injection plan
+     * @return the plan with resolved bean references
+     */
+    protected InjectionPlan resolveBeanReferences(InjectionPlan plan) {
+        BeanSlots slots = beanSlots;
+        return plan.resolve(injectionPoint -> {
+            if (!injectionPoint.hasQualifier() || injectionPoint.hasTarget() || 
+                    slots.slotOf(injectionPoint.getQualifier()) < 0) {
+                return injectionPoint;
+            }
+            return injectionPoint.withTarget(new SlotBeanHandle<>(injectionPoint.getQualifier(), Object.class));
+        });
+    }
+    
+    /**
+     * Wrap the bean behind the given handle the way a {@code Provider<T>},
+     * {@code ObjectFactory<T>} or {@code Optional<T>} injection point expects it.
+     * Providers and object factories are bound to the handle and look the bean up
+     * on each call; optionals are resolved right away.
+     * 
+     * @param injectionPoint the wrapped injection point
+     * @param handle the handle of the matching bean, or null if there is none
+     * @return the value to inject
+     * @throws BeanCreationException if the bean of an optional could not be created
+     */
+    protected Object wrapDependency(InjectionPoint injectionPoint, BeanHandle<?> handle) throws BeanCreationException {
+        Class<?> beanType = injectionPoint.getDependencyType();
+        switch (injectionPoint.getWrapper()) {
+            case PROVIDER:
+                if (handle == null) {
+                    return (Provider<Object>) () -> {
+                        throw new IllegalStateException(new NoSuchBeanDefinitionException(beanType).getMessage());
+                    };
+                }
+                return (Provider<Object>) () -> {
+                    try {
+                        return handle.get();
+                    } catch (BeanCreationException e) {
+                        throw new IllegalStateException(e.getMessage(), e);
+                    }
+                };
+            case OBJECT_FACTORY:
+                if (handle == null) {
+                    return (ObjectFactory<Object>) () -> {
+                        throw new NoSuchBeanDefinitionException(beanType);
+                    };
+                }
+                return (ObjectFactory<Object>) handle::get;
+            case OPTIONAL:
+                return handle != null ? Optional.ofNullable(handle.get()) : Optional.empty();
+            default:
+                throw new IllegalArgumentException("Injection point is not wrapped: " + injectionPoint.getName());
+        }
+    }
+    
+    @Override
+    public <T> Map<String, T> getBeansOfType(Class<T> type) throws BeanCreationException {
+        List<String> candidates = getBeanTypeIndex().getCandidateNames(type);
+        if (candidates.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        
+        Map<String, T> beans = new LinkedHashMap<>();
+        for (String beanName : candidates) {
+            beans.put(beanName, getBeanOfType(beanName, type));
+        }
+        return Collections.unmodifiableMap(beans);
+    }
+    
+    /**
+     * Return a candidate found in the type index.
+     * Existing singletons are returned straight from the registry.
+     */
+    private <T> T getBeanOfType(String beanName, Class<T> type) throws BeanCreationException {
+        Object bean = singletonRegistry.getSingleton(beanName);
+        if (bean == null) {
+            bean = doGetBean(beanName, beanDefinitionMap.get(beanName));
+        }
+        return type.cast(bean);
+    }
+    
+    @Override
+    public boolean containsBean(String id) {
+        return containsBeanDefinition(id);
+    }
+    
+    /**
+     * Create a new bean instance from the given bean definition.
+     * 
+     * @param beanDefinition the bean definition
+     * @return the bean instance
+     */
+    protected Object createBean(BeanDefinition beanDefinition) throws Exception {
+        String beanId = beanDefinition.getId();
+        logger.debug("Creating bean: {}", beanId);
+        
+        // Singletons are guarded by their creation lock, and beans checked on refresh
+        // have no cycle: only the others are tracked on the current thread
+        boolean tracked = !beanDefinition.isSingleton() && !isDependencyChecked(beanDefinition);
+        if (tracked) {
+            try {
+                singletonRegistry.beforeCreation(beanId);
+            } catch (CircularDependencyException e) {
+                logger.error("Circular reference detected for bean: " + beanId);
+                throw e;
+            }
+        }
+        
+        try {
+            // Resolved on refresh, unless the definition was registered afterwards
+            Class<?> beanClass = resolveBeanClass(beanDefinition, getBeanClassLoader());
+            
+            Object beanInstance = doCreateBean(beanDefinition, beanClass);
+            logger.debug("Injected dependencies for bean: {}", beanId);
+            
+            return beanInstance;
+        } finally {
+            if (tracked) {
+                singletonRegistry.afterCreation(beanId);
+            }
+        }
+    }
+    
+    /**
+     * Instantiate the bean and inject its dependencies.
+     * 
+     * @param beanDefinition the bean definition
+     * @param beanClass the resolved bean class
+     * @return the fully injected bean instance
+     * @throws Exception if the bean cannot be created
+     */
+    protected abstract Object doCreateBean(BeanDefinition beanDefinition, Class<?> beanClass) throws Exception;
+    
+    /**
+     * Check whether the dependencies of the given bean definition were found free
+     * of cycles on the last refresh, i.e. it has not been registered or replaced since.
+     */
+    private boolean isDependencyChecked(BeanDefinition beanDefinition) {
+        BeanSlots slots = checkedSlots;
+        int slot = slots.slotOf(beanDefinition.getId());
+        return slot >= 0 && slots.getBeanDefinition(slot) == beanDefinition;
+    }
+    
+    /**
+     * Create the exception for a singleton requested again while the current thread
+     * is creating it, reporting the cycle found in the dependency graph if any.
+     */
+    private CircularDependencyException circularReference(String beanId) {
+        DependencyGraph graph = dependencyGraph;
+        List<String> cycle = graph != null ? graph.findCycle(beanId) : Collections.emptyList();
+        logger.error("Circular reference detected for bean: " + beanId);
+        return new CircularDependencyException(beanId, cycle.isEmpty() ? Set.of(beanId) : new LinkedHashSet<>(cycle));
+    }
+    
+    /**
+     * Set the strategy used to bind constructors, fields and setters of bean classes.
+     * Injection plans are rebuilt with the new strategy on the next {@link #refresh()}.
+     * 
+     * @param beanInstantiator the instantiation strategy
+     */
+    public void setBeanInstantiator(BeanInstantiator beanInstantiator) {
+        this.beanInstantiator = beanInstantiator;
+    }
+    
+    public BeanInstantiator getBeanInstantiator() {
+        return beanInstantiator;
+    }
+    
+    /**
+     * Set whether singletons without an explicit lazy-init flag are created on
+     * first access instead of on refresh. Startup then only pays for the beans
+     * that are eager or actually used. Takes effect on the next {@link #refresh()}.
+     * 
+     * @param defaultLazyInit true to create singletons lazily by default
+     */
+    public void setDefaultLazyInit(boolean defaultLazyInit) {
+        this.defaultLazyInit = defaultLazyInit;
+    }
+    
+    public boolean isDefaultLazyInit() {
+        return defaultLazyInit;
+    }
+    
+    /**
+     * Set the executor used to instantiate singletons on refresh. Beans that do
+     * not depend on each other are then created concurrently, each one as soon as
+     * its dependencies exist; a {@code ForkJoinPool} or a virtual thread per task
+     * executor both work. By default singletons are created one after another
+     * on the refreshing thread, in dependency order. Takes effect on the next
+     * {@link #refresh()}.
+     * 
+     * @param bootstrapExecutor the executor, or null to create singletons on the calling thread
+     */
+    public void setBootstrapExecutor(Executor bootstrapExecutor) {
+        this.bootstrapExecutor = bootstrapExecutor;
+    }
+    
+    public Executor getBootstrapExecutor() {
+        return bootstrapExecutor;
+    }
+    
+    /**
+     * Return how the singletons of the last refresh were instantiated.
+     * 
+     * @return the report, empty before the first refresh
+     */
+    public BootstrapReport getBootstrapReport() {
+        return bootstrapReport;
+    }
+    
+    /**
+     * Register a custom scope under the given name, replacing any scope registered under it.
+     * The "thread", "striped" and "pooled" scopes are registered by default.
+     * 
+     * @param scopeName the name bean definitions refer to
+     * @param scope the scope implementation
+     * @throws IllegalArgumentException if the name is one of the built-in "singleton" and "prototype" scopes
+     */
+    public void registerScope(String scopeName, Scope scope) {
+        if (BeanDefinition.SCOPE_SINGLETON.equals(scopeName) || BeanDefinition.SCOPE_PROTOTYPE.equals(scopeName)) {
+            throw new IllegalArgumentException("Cannot replace the built-in '" + scopeName + "' scope");
+        }
+        logger.debug("Registering scope: {}", scopeName);
+        scopes.put(scopeName, scope);
+    }
+    
+    /**
+     * Return the custom scope registered under the given name.
+     * 
+     * @param scopeName the scope name
+     * @return the scope, or null if none is registered under that name
+     */
+    public Scope getRegisteredScope(String scopeName) {
+        return scopeName != null ? scopes.get(scopeName) : null;
+    }
+    
+    public Set<String> getRegisteredScopeNames() {
+        return Set.copyOf(scopes.keySet());
+    }
+    
+    /**
+     * Set the class loader used to load bean classes.
+     * Takes effect for definitions loaded by the next {@link #refresh()}; contexts are
+     * usually created without refreshing, configured, then refreshed explicitly.
+     * 
+     * @param beanClassLoader the class loader, or null for the default class loader
+     */
+    public void setBeanClassLoader(ClassLoader beanClassLoader) {
+        this.beanClassLoader = beanClassLoader != null ? beanClassLoader : defaultClassLoader();
+    }
+    
+    public ClassLoader getBeanClassLoader() {
+        return beanClassLoader;
+    }
+    
+    private static ClassLoader defaultClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : AbstractApplicationContext.class.getClassLoader();
+    }
+    
+    /**
+     * ObjectProvider resolving the candidates of a type from the type index on each call,
+     * so it stays valid across refreshes.
+     */
+    private final class BeanTypeProvider<T> implements ObjectProvider<T> {
+        
+        private final Class<T> type;
+        
+        BeanTypeProvider(Class<T> type) {
+            this.type = type;
+        }
+        
+        @Override
+        public T getObject() throws NoSuchBeanDefinitionException, BeanCreationException {
+            return getBean(type);
+        }
+        
+        @Override
+        public T getIfAvailable() throws NoUniqueBeanDefinitionException, BeanCreationException {
+            List<String> candidates = getBeanTypeIndex().getCandidateNames(type);
+            if (candidates.size() > 1) {
+                throw new NoUniqueBeanDefinitionException(type, candidates);
+            }
+            return candidates.isEmpty() ? null : getBeanOfType(candidates.get(0), type);
+        }
+        
+        @Override
+        public T getIfUnique() throws BeanCreationException {
+            List<String> candidates = getBeanTypeIndex().getCandidateNames(type);
+            return candidates.size() == 1 ? getBeanOfType(candidates.get(0), type) : null;
+        }
+    }
+    
+    /**
+     * BeanHandle bound to the slot of its bean in the current slot table.
+     * The binding is renewed when the context is refreshed.
+     */
+    private final class SlotBeanHandle<T> implements BeanHandle<T> {
+        
+        private final String beanName;
+        private final Class<T> beanType;
+        private volatile SlotBinding binding = SlotBinding.UNBOUND;
+        
+        SlotBeanHandle(String beanName, Class<T> beanType) {
+            this.beanName = beanName;
+            this.beanType = beanType;
+        }
+        
+        @Override
+        public T get() throws BeanCreationException {
+            SlotBinding binding = this.binding;
+            if (binding.slots != beanSlots) {
+                binding = bind();
+            }
+            
+            if (binding.prototype) {
+                return beanType.cast(createPrototype(beanName, binding.beanDefinition));
+            }
+            if (binding.scope != null) {
+                return beanType.cast(getScopedBean(binding.scope, beanName, binding.scopedFactory));
+            }
+            
+            Object singleton = binding.slot >= 0 ? binding.slots.getSingleton(binding.slot) : null;
+            if (singleton == null) {
+                singleton = doGetBean(beanName, binding.beanDefinition);
+            }
+            return beanType.cast(singleton);
+        }
+        
+        private SlotBinding bind() throws BeanCreationException {
+            BeanSlots slots = beanSlots;
+            int slot = slots.slotOf(beanName);
+            
+            // Beans registered since the last refresh have no slot yet
+            BeanDefinition beanDefinition = slot >= 0 ? slots.getBeanDefinition(slot) : beanDefinitionMap.get(beanName);
+            if (beanDefinition == null) {
+                throw new BeanCreationException(beanName, "Bean definition no longer exists");
+            }
+            
+            SlotBinding binding;
+            if (beanDefinition.isSingleton() || beanDefinition.isPrototype()) {
+                binding = new SlotBinding(slots, slot, beanDefinition, null, null);
+            } else {
+                binding = new SlotBinding(slots, slot, beanDefinition, 
+                        requireScope(beanName, beanDefinition), scopedFactory(beanName, beanDefinition));
+            }
+            this.binding = binding;
+            return binding;
+        }
+        
+        @Override
+        public String getBeanName() {
+            return beanName;
+        }
+        
+        @Override
+        public String toString() {
+            return "BeanHandle{" + beanName + "}";
+        }
+    }
+    
+    /**
+     * Slot of a bean in a slot table, along with its definition and, for beans
+     * in a custom scope, the scope and the factory it creates instances with.
+     */
+    private static final class SlotBinding {
+        
+        static final SlotBinding UNBOUND = new SlotBinding(null, -1, null, null, null);
+        
+        final BeanSlots slots;
+        final int slot;
+        final BeanDefinition beanDefinition;
+        final boolean prototype;
+        final Scope scope;
+        final ObjectFactory<Object> scopedFactory;
+        
+        SlotBinding(BeanSlots slots, int slot, BeanDefinition beanDefinition, 
+                    Scope scope, ObjectFactory<Object> scopedFactory) {
+            this.slots = slots;
+            this.slot = slot;
+            this.beanDefinition = beanDefinition;
+            this.prototype = beanDefinition != null && beanDefinition.isPrototype();
+            this.scope = scope;
+            this.scopedFactory = scopedFactory;
+        }
+    }
+    
+    // BeanDefinitionRegistry implementation
+    
+    @Override
+    public void registerBeanDefinition(BeanDefinition beanDefinition) throws BeanCreationException {
+        String beanId = beanDefinition.getId();
+        if (beanId == null || beanId.isEmpty()) {
+            throw new BeanCreationException(beanId, "Bean ID cannot be null or empty");
+        }
+        
+        if (containsBeanDefinition(beanId)) {
+            logger.warn("Overriding bean definition for bean '" + beanId + "'");
+        }
+        
+        logger.debug("Registering bean definition: {}", beanId);
+        beanDefinitionMap.put(beanId, beanDefinition);
+        beanTypeIndex = null;
+    }
+    
+    @Override
+    public BeanDefinition getBeanDefinition(String beanId) throws NoSuchBeanDefinitionException {
+        BeanDefinition bd = beanDefinitionMap.get(beanId);
+        if (bd == null) {
+            throw new NoSuchBeanDefinitionException(beanId);
+        }
+        return bd;
+    }
+    
+    @Override
+    public boolean containsBeanDefinition(String beanId) {
+        return beanDefinitionMap.containsKey(beanId);
+    }
+    
+    @Override
+    public String[] getBeanDefinitionNames() {
+        return beanDefinitionMap.keySet().toArray(new String[0]);
+    }
+    
+    @Override
+    public Map<String, BeanDefinition> getBeanDefinitions() {
+        return Map.copyOf(beanDefinitionMap);
+    }
+    
+    /**
+     * Creates eager singletons and collects the figures of the {@link BootstrapReport}.
+     */
+    private final class BootstrapStats {
+        
+        private final long startTime = System.nanoTime();
+        private final AtomicInteger beanCount = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+        private final LongAdder totalCreationNanos = new LongAdder();
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        
+        void createSingleton(String beanName) throws NoSuchBeanDefinitionException, BeanCreationException {
+            maxConcurrency.accumulateAndGet(active.incrementAndGet(), Math::max);
+            threads.add(Thread.currentThread());
+            long creationStart = System.nanoTime();
+            try {
+                getBean(beanName);
+                beanCount.incrementAndGet();
+            } catch (BeanCreationException e) {
+                logger.error("Error creating singleton bean '" + beanName + "'", e);
+                throw e;
+            } finally {
+                totalCreationNanos.add(System.nanoTime() - creationStart);
+                active.decrementAndGet();
+            }
+        }
+        
+        BootstrapReport toReport(boolean parallel, int criticalPathLength) {
+            return new BootstrapReport(parallel, beanCount.get(), criticalPathLength,
+                    maxConcurrency.get(), threads.size(), System.nanoTime() - startTime, totalCreationNanos.sum());
+        }
+    }
+    
+    /**
+     * Instantiates singletons on an executor in dependency order: a bean is
+     * submitted once the last of its dependencies has been created.
+     * Beans that are not eager singletons are passed through without being
+     * created, so that the beans behind them still wait for their dependencies.
+     */
+    private final class ParallelBootstrap {
+        
+        private final DependencyGraph graph;
+        private final boolean[] eager;
+        private final Executor executor;
+        private final BootstrapStats stats;
+        private final AtomicIntegerArray pendingDependencies;
+        
+        // Submitted tasks not yet finished, plus one held by the submitting thread
+        private final AtomicInteger running = new AtomicInteger(1);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        
+        ParallelBootstrap(DependencyGraph graph, boolean[] eager, Executor executor, BootstrapStats stats) {
+            this.graph = graph;
+            this.eager = eager;
+            this.executor = executor;
+            this.stats = stats;
+            this.pendingDependencies = new AtomicIntegerArray(graph.size());
+        }
+        
+        void run(int[] sorted) throws Exception {
+            for (int node : sorted) {
+                pendingDependencies.set(node, graph.getDependencies(node).length);
+            }
+            for (int node : sorted) {
+                if (graph.getDependencies(node).length == 0) {
+                    submit(node);
+                }
+            }
+            finish();
+            done.await();
+            
+            Throwable t = failure.get();
+            if (t instanceof Exception) {
+                throw (Exception) t;
+            }
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+        }
+        
+        private void submit(int node) {
+            running.incrementAndGet();
+            try {
+                executor.execute(() -> instantiate(node));
+            } catch (RejectedExecutionException e) {
+                failure.compareAndSet(null, e);
+                finish();
+            }
+        }
+        
+        private void instantiate(int node) {
+            try {
+                // Stop scheduling new beans once one has failed
+                if (failure.get() != null) {
+                    return;
+                }
+                if (eager[node]) {
+                    stats.createSingleton(graph.getBeanName(node));
+                }
+                for (int dependent : graph.getDependents(node)) {
+                    if (pendingDependencies.decrementAndGet(dependent) == 0) {
+                        submit(dependent);
+                    }
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                finish();
+            }
+        }
+        
+        private void finish() {
+            if (running.decrementAndGet() == 0) {
+                done.countDown();
+            }
+        }
+    }
+}
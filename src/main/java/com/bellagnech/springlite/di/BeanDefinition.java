@@ -6,12 +6,19 @@ import java.util.List;
 /**
  * A bean definition describes the metadata of a bean.
  * It contains details like the bean class name, id, and scope.
+ * Once resolved, the definition also carries the loaded bean class, so the
+ * class is looked up only once for the lifetime of the definition.
  */
 public class BeanDefinition {
     
+    public static final String SCOPE_SINGLETON = "singleton";
+    public static final String SCOPE_PROTOTYPE = "prototype";
+    
     private String id;
     private String className;
-    private String scope = "singleton"; // Default scope
+    private volatile Class<?> beanClass;
+    private String scope = SCOPE_SINGLETON; // Default scope
+    private Boolean lazyInit; // Null to follow the default of the context
     private List<PropertyValue> propertyValues = new ArrayList<>();
     
     public BeanDefinition() {
@@ -42,6 +49,52 @@ public class BeanDefinition {
     
     public void setClassName(String className) {
         this.className = className;
+        Class<?> resolved = this.beanClass;
+        if (resolved != null && !resolved.getName().equals(className)) {
+            this.beanClass = null;
+        }
+    }
+    
+    /**
+     * Get the resolved bean class.
+     * 
+     * @return the bean class, or null if it has not been resolved yet
+     */
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+    
+    /**
+     * Set the bean class, for readers that have already loaded it.
+     * Also sets the class name to the name of the given class.
+     * 
+     * @param beanClass the bean class
+     */
+    public void setBeanClass(Class<?> beanClass) {
+        this.beanClass = beanClass;
+        this.className = beanClass.getName();
+    }
+    
+    public boolean hasBeanClass() {
+        return beanClass != null;
+    }
+    
+    /**
+     * Resolve the bean class against the given class loader, unless it is already resolved.
+     * The class is loaded without being initialized, so static initializers only
+     * run when the first instance is created.
+     * 
+     * @param classLoader the class loader to load the bean class with
+     * @return the resolved bean class
+     * @throws ClassNotFoundException if the class cannot be found
+     */
+    public Class<?> resolveBeanClass(ClassLoader classLoader) throws ClassNotFoundException {
+        Class<?> resolved = this.beanClass;
+        if (resolved == null) {
+            resolved = Class.forName(className, false, classLoader);
+            this.beanClass = resolved;
+        }
+        return resolved;
     }
     
     public String getScope() {
@@ -52,6 +105,32 @@ public class BeanDefinition {
         this.scope = scope;
     }
     
+    public boolean isSingleton() {
+        return SCOPE_SINGLETON.equals(scope);
+    }
+    
+    public boolean isPrototype() {
+        return SCOPE_PROTOTYPE.equals(scope);
+    }
+    
+    /**
+     * Get the lazy-init flag of this bean.
+     * 
+     * @return true or false if set explicitly, or null to follow the default of the context
+     */
+    public Boolean getLazyInit() {
+        return lazyInit;
+    }
+    
+    /**
+     * Set whether this singleton is created on first access instead of on refresh.
+     * 
+     * @param lazyInit the lazy-init flag, or null to follow the default of the context
+     */
+    public void setLazyInit(Boolean lazyInit) {
+        this.lazyInit = lazyInit;
+    }
+    
     /**
      * Add a property value to this bean definition.
      * 
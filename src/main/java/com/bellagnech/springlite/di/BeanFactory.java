@@ -1,5 +1,7 @@
 package com.bellagnech.springlite.di;
 
+import java.util.Map;
+
 /**
  * Interface for accessing beans managed by a container.
  * The basic client view of a bean container.
@@ -28,6 +30,51 @@ public interface BeanFactory {
      */
     <T> T getBean(String id, Class<T> requiredType) throws NoSuchBeanDefinitionException, BeanCreationException;
     
+    /**
+     * Return the only bean assignable to the specified type.
+     * 
+     * @param <T> the bean type
+     * @param requiredType the type the bean must match, can be an interface or superclass
+     * @return the bean instance
+     * @throws NoSuchBeanDefinitionException if no bean of the type is defined
+     * @throws NoUniqueBeanDefinitionException if more than one bean of the type is defined
+     * @throws BeanCreationException if the bean could not be created
+     */
+    <T> T getBean(Class<T> requiredType) throws NoSuchBeanDefinitionException, BeanCreationException;
+    
+    /**
+     * Return a provider for the beans of the specified type, allowing lazy
+     * lookups and lookups that tolerate missing or ambiguous beans.
+     * 
+     * @param <T> the bean type
+     * @param requiredType the type the beans must match
+     * @return the bean provider
+     */
+    <T> ObjectProvider<T> getBeanProvider(Class<T> requiredType);
+    
+    /**
+     * Return a handle to the bean registered with the given id. The id is resolved
+     * once, so that getting the bean through the handle needs no name lookup.
+     * 
+     * @param <T> the bean type
+     * @param id the bean identifier
+     * @param requiredType the type the bean must match
+     * @return the bean handle
+     * @throws NoSuchBeanDefinitionException if no bean definition is found
+     * @throws BeanCreationException if the bean class is not of the required type
+     */
+    <T> BeanHandle<T> handle(String id, Class<T> requiredType) throws NoSuchBeanDefinitionException, BeanCreationException;
+    
+    /**
+     * Return all beans assignable to the specified type, creating them if needed.
+     * 
+     * @param <T> the bean type
+     * @param type the type the beans must match
+     * @return the beans by bean id, in definition order, empty if there is none
+     * @throws BeanCreationException if one of the beans could not be created
+     */
+    <T> Map<String, T> getBeansOfType(Class<T> type) throws BeanCreationException;
+    
     /**
      * Check if a bean with the given id exists.
      * 
@@ -0,0 +1,32 @@
+package com.bellagnech.springlite.di;
+
+/**
+ * Pre-resolved reference to a bean, for callers that look up the same bean repeatedly.
+ * The bean name is resolved to a slot once, when the handle is obtained:
+ * getting a singleton afterwards is a single array read, and getting a
+ * prototype calls its factory directly, without any name lookup.
+ * <p>
+ * Handles stay valid across refreshes of their context; the first call after
+ * a refresh resolves the bean name again.
+ * 
+ * @param <T> the bean type
+ * @see BeanFactory#handle(String, Class)
+ */
+public interface BeanHandle<T> {
+    
+    /**
+     * Return the bean instance, creating it if needed.
+     * 
+     * @return the bean instance
+     * @throws BeanCreationException if the bean could not be created,
+     *         or is no longer defined after a refresh
+     */
+    T get() throws BeanCreationException;
+    
+    /**
+     * Return the name of the referenced bean.
+     * 
+     * @return the bean name
+     */
+    String getBeanName();
+}
@@ -0,0 +1,59 @@
+package com.bellagnech.springlite.di;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Strategy used to bind constructors, fields and setter methods of bean classes
+ * into invokers. Binding happens once, when the injection plan of a bean is computed;
+ * creating an instance afterwards only calls the bound invokers.
+ * 
+ * @see MethodHandleBeanInstantiator
+ * @see ReflectiveBeanInstantiator
+ */
+public interface BeanInstantiator {
+    
+    /**
+     * Invoker creating a new instance through a bound constructor.
+     */
+    @FunctionalInterface
+    interface ConstructorInvoker {
+        Object newInstance(Object[] arguments) throws Exception;
+    }
+    
+    /**
+     * Invoker injecting a value into a bean through a bound field or setter method.
+     */
+    @FunctionalInterface
+    interface MemberInjector {
+        void inject(Object bean, Object value) throws Exception;
+    }
+    
+    /**
+     * Bind the given constructor.
+     * 
+     * @param constructor the constructor, already made accessible
+     * @return the invoker calling the constructor
+     * @throws Exception if the constructor cannot be bound
+     */
+    ConstructorInvoker bindConstructor(Constructor<?> constructor) throws Exception;
+    
+    /**
+     * Bind the given field for writing.
+     * 
+     * @param field the field, already made accessible
+     * @return the injector writing the field
+     * @throws Exception if the field cannot be bound
+     */
+    MemberInjector bindField(Field field) throws Exception;
+    
+    /**
+     * Bind the given single-argument method.
+     * 
+     * @param method the method, already made accessible
+     * @return the injector invoking the method
+     * @throws Exception if the method cannot be bound
+     */
+    MemberInjector bindMethod(Method method) throws Exception;
+}
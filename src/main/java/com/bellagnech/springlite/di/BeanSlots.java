@@ -0,0 +1,89 @@
+package com.bellagnech.springlite.di;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Dense integer slots assigned to the bean definitions on refresh.
+ * Each slot holds the definition of a bean and, once created, its singleton
+ * instance, so that {@link BeanHandle}s read singletons from an array
+ * instead of hashing the bean name. A new table is created on every refresh.
+ */
+final class BeanSlots {
+    
+    static final BeanSlots EMPTY = new BeanSlots(new String[0], new BeanDefinition[0]);
+    
+    private final String[] beanNames;
+    private final BeanDefinition[] beanDefinitions;
+    private final Map<String, Integer> slotsByName;
+    private final AtomicReferenceArray<Object> singletons;
+    
+    private BeanSlots(String[] beanNames, BeanDefinition[] beanDefinitions) {
+        this.beanNames = beanNames;
+        this.beanDefinitions = beanDefinitions;
+        this.slotsByName = new HashMap<>();
+        for (int slot = 0; slot < beanNames.length; slot++) {
+            slotsByName.put(beanNames[slot], slot);
+        }
+        this.singletons = new AtomicReferenceArray<>(beanNames.length);
+    }
+    
+    /**
+     * Assign a slot to every given bean definition, in iteration order.
+     * 
+     * @param beanDefinitions the bean definitions by bean name
+     * @return the slot table
+     */
+    static BeanSlots assign(Map<String, BeanDefinition> beanDefinitions) {
+        String[] beanNames = new String[beanDefinitions.size()];
+        BeanDefinition[] definitions = new BeanDefinition[beanNames.length];
+        int slot = 0;
+        for (Map.Entry<String, BeanDefinition> entry : beanDefinitions.entrySet()) {
+            beanNames[slot] = entry.getKey();
+            definitions[slot] = entry.getValue();
+            slot++;
+        }
+        return new BeanSlots(beanNames, definitions);
+    }
+    
+    /**
+     * Return the slot of the given bean.
+     * 
+     * @param beanName the bean name
+     * @return the slot, or -1 if the bean had no definition on refresh
+     */
+    int slotOf(String beanName) {
+        Integer slot = slotsByName.get(beanName);
+        return slot != null ? slot : -1;
+    }
+    
+    String getBeanName(int slot) {
+        return beanNames[slot];
+    }
+    
+    BeanDefinition getBeanDefinition(int slot) {
+        return beanDefinitions[slot];
+    }
+    
+    Object getSingleton(int slot) {
+        return singletons.get(slot);
+    }
+    
+    /**
+     * Publish a created singleton into the slot of its bean, if it has one.
+     * 
+     * @param beanName the bean name
+     * @param singleton the singleton instance
+     */
+    void putSingleton(String beanName, Object singleton) {
+        int slot = slotOf(beanName);
+        if (slot >= 0) {
+            singletons.set(slot, singleton);
+        }
+    }
+    
+    int size() {
+        return beanNames.length;
+    }
+}
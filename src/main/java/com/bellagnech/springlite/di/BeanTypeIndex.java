@@ -0,0 +1,99 @@
+package com.bellagnech.springlite.di;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of bean names by assignable type, built once per refresh.
+ * Every superclass and every super-interface of a bean class maps to the bean,
+ * so finding the candidates for a type is a single hash lookup.
+ * The index is complete: a type that is absent has no candidates, which makes
+ * negative lookups as cheap as positive ones.
+ */
+public final class BeanTypeIndex {
+    
+    private final Map<Class<?>, List<String>> candidatesByType;
+    
+    private BeanTypeIndex(Map<Class<?>, List<String>> candidatesByType) {
+        this.candidatesByType = candidatesByType;
+    }
+    
+    /**
+     * Build an index over the given bean definitions, whose classes must be resolved.
+     * Candidates of each type keep the iteration order of the definitions.
+     * 
+     * @param beanDefinitions the bean definitions by bean name
+     * @return the type index
+     */
+    public static BeanTypeIndex build(Map<String, BeanDefinition> beanDefinitions) {
+        Map<Class<?>, List<String>> collected = new HashMap<>();
+        
+        for (Map.Entry<String, BeanDefinition> entry : beanDefinitions.entrySet()) {
+            Class<?> beanClass = entry.getValue().getBeanClass();
+            if (beanClass == null) {
+                continue;
+            }
+            for (Class<?> type : assignableTypes(beanClass)) {
+                collected.computeIfAbsent(type, t -> new ArrayList<>(1)).add(entry.getKey());
+            }
+        }
+        
+        collected.replaceAll((type, beanNames) -> List.copyOf(beanNames));
+        return new BeanTypeIndex(collected);
+    }
+    
+    /**
+     * Return the names of all beans assignable to the given type.
+     * 
+     * @param type the required type
+     * @return the immutable list of candidate bean names, empty if there is none
+     */
+    public List<String> getCandidateNames(Class<?> type) {
+        List<String> candidates = candidatesByType.get(type);
+        return candidates != null ? candidates : Collections.emptyList();
+    }
+    
+    /**
+     * Check whether more than one bean is assignable to the given type.
+     * 
+     * @param type the required type
+     * @return true if autowiring by this type needs a qualifier or a matching name
+     */
+    public boolean isAmbiguous(Class<?> type) {
+        return getCandidateNames(type).size() > 1;
+    }
+    
+    /**
+     * Return the number of indexed types.
+     * 
+     * @return the number of types with at least one candidate
+     */
+    public int size() {
+        return candidatesByType.size();
+    }
+    
+    /**
+     * Collect the class itself, all its superclasses and all interfaces they implement.
+     */
+    private static Set<Class<?>> assignableTypes(Class<?> beanClass) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (Class<?> current = beanClass; current != null; current = current.getSuperclass()) {
+            types.add(current);
+            addInterfaces(current, types);
+        }
+        return types;
+    }
+    
+    private static void addInterfaces(Class<?> type, Set<Class<?>> types) {
+        for (Class<?> interfaceClass : type.getInterfaces()) {
+            if (types.add(interfaceClass)) {
+                addInterfaces(interfaceClass, types);
+            }
+        }
+    }
+}
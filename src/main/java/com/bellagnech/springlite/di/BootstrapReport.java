@@ -0,0 +1,104 @@
+package com.bellagnech.springlite.di;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary of the eager singleton instantiation of the last refresh:
+ * how many beans were created, how long it took, and how much of that
+ * work ran in parallel.
+ * 
+ * @see AbstractApplicationContext#setBootstrapExecutor(java.util.concurrent.Executor)
+ */
+public final class BootstrapReport {
+    
+    static final BootstrapReport EMPTY = new BootstrapReport(false, 0, 0, 0, 0, 0, 0);
+    
+    private final boolean parallel;
+    private final int beanCount;
+    private final int criticalPathLength;
+    private final int maxConcurrency;
+    private final int threadCount;
+    private final long elapsedNanos;
+    private final long totalCreationNanos;
+    
+    BootstrapReport(boolean parallel, int beanCount, int criticalPathLength,
+                    int maxConcurrency, int threadCount, long elapsedNanos, long totalCreationNanos) {
+        this.parallel = parallel;
+        this.beanCount = beanCount;
+        this.criticalPathLength = criticalPathLength;
+        this.maxConcurrency = maxConcurrency;
+        this.threadCount = threadCount;
+        this.elapsedNanos = elapsedNanos;
+        this.totalCreationNanos = totalCreationNanos;
+    }
+    
+    /**
+     * Check whether singletons were created on a bootstrap executor.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+    
+    /**
+     * Get the number of singletons instantiated on refresh.
+     */
+    public int getBeanCount() {
+        return beanCount;
+    }
+    
+    /**
+     * Get the number of beans on the longest dependency chain, the lower bound
+     * of sequential creation steps whatever the number of threads.
+     */
+    public int getCriticalPathLength() {
+        return criticalPathLength;
+    }
+    
+    /**
+     * Get the highest number of singletons observed in creation at the same time.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+    
+    /**
+     * Get the number of distinct threads that created singletons.
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+    
+    public long getElapsedTime(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Get the sum of the creation times of all singletons.
+     */
+    public long getTotalCreationTime(TimeUnit unit) {
+        return unit.convert(totalCreationNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Get the achieved parallelism: the total creation time divided by the
+     * elapsed time. 1.0 means no speed-up over creating beans one by one.
+     * 
+     * @return the parallelism, 0 if no singleton was created
+     */
+    public double getParallelism() {
+        return elapsedNanos > 0 ? (double) totalCreationNanos / elapsedNanos : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "BootstrapReport{" +
+                "parallel=" + parallel +
+                ", beanCount=" + beanCount +
+                ", criticalPathLength=" + criticalPathLength +
+                ", maxConcurrency=" + maxConcurrency +
+                ", threadCount=" + threadCount +
+                ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+                ", parallelism=" + String.format("%.2f", getParallelism()) +
+                '}';
+    }
+}
@@ -0,0 +1,319 @@
+package com.bellagnech.springlite.di;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+/**
+ * Creation-time dependencies between the beans of a context, built on refresh
+ * from injection plans and XML references. Nodes are addressed by a dense index;
+ * an edge from a bean to one of its dependencies means the dependency has to
+ * exist before the bean can be created, so a cycle can never be instantiated.
+ */
+final class DependencyGraph {
+    
+    private final String[] beanNames;
+    private final Map<String, Integer> indexByName;
+    private final int[][] dependencies;
+    private final int[][] dependents;
+    
+    private DependencyGraph(String[] beanNames, Map<String, Integer> indexByName, 
+                            int[][] dependencies, int[][] dependents) {
+        this.beanNames = beanNames;
+        this.indexByName = indexByName;
+        this.dependencies = dependencies;
+        this.dependents = dependents;
+    }
+    
+    /**
+     * Build the graph of the given beans. Dependencies on beans that are not
+     * part of the graph are ignored.
+     * 
+     * @param beanNames the bean names
+     * @param dependencyResolver returns the names of the beans a bean depends on
+     * @return the dependency graph
+     */
+    static DependencyGraph build(Collection<String> beanNames, 
+                                 Function<String, Collection<String>> dependencyResolver) {
+        String[] names = beanNames.toArray(new String[0]);
+        Map<String, Integer> indexByName = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            indexByName.put(names[i], i);
+        }
+        
+        int[][] dependencies = new int[names.length][];
+        List<List<Integer>> dependentLists = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            dependentLists.add(new ArrayList<>());
+        }
+        for (int i = 0; i < names.length; i++) {
+            Set<Integer> targets = new LinkedHashSet<>();
+            for (String dependency : dependencyResolver.apply(names[i])) {
+                Integer target = indexByName.get(dependency);
+                if (target != null) {
+                    targets.add(target);
+                }
+            }
+            dependencies[i] = toArray(targets);
+            for (int target : dependencies[i]) {
+                dependentLists.get(target).add(i);
+            }
+        }
+        
+        int[][] dependents = new int[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            dependents[i] = toArray(dependentLists.get(i));
+        }
+        return new DependencyGraph(names, indexByName, dependencies, dependents);
+    }
+    
+    private static int[] toArray(Collection<Integer> values) {
+        int[] array = new int[values.size()];
+        int i = 0;
+        for (int value : values) {
+            array[i++] = value;
+        }
+        return array;
+    }
+    
+    int size() {
+        return beanNames.length;
+    }
+    
+    String getBeanName(int node) {
+        return beanNames[node];
+    }
+    
+    /**
+     * Return the node of the given bean.
+     * 
+     * @param beanName the bean name
+     * @return the node, or -1 if the bean is not part of the graph
+     */
+    int indexOf(String beanName) {
+        Integer index = indexByName.get(beanName);
+        return index != null ? index : -1;
+    }
+    
+    /**
+     * Return the nodes the given node depends on. The array must not be modified.
+     */
+    int[] getDependencies(int node) {
+        return dependencies[node];
+    }
+    
+    /**
+     * Return the nodes depending on the given node. The array must not be modified.
+     */
+    int[] getDependents(int node) {
+        return dependents[node];
+    }
+    
+    /**
+     * Sort the nodes so that every node comes after its dependencies.
+     * Nodes on a dependency cycle, and nodes depending on one, are left out.
+     * 
+     * @return the sorted nodes
+     */
+    int[] sortTopologically() {
+        int[] pending = new int[beanNames.length];
+        int[] order = new int[beanNames.length];
+        int count = 0;
+        for (int node = 0; node < beanNames.length; node++) {
+            pending[node] = dependencies[node].length;
+            if (pending[node] == 0) {
+                order[count++] = node;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            for (int dependent : dependents[order[i]]) {
+                if (--pending[dependent] == 0) {
+                    order[count++] = dependent;
+                }
+            }
+        }
+        
+        int[] sorted = new int[count];
+        System.arraycopy(order, 0, sorted, 0, count);
+        return sorted;
+    }
+    
+    /**
+     * Return the number of nodes on the longest dependency chain among the given
+     * topologically sorted nodes, i.e. the number of rounds needed to create them
+     * with unlimited parallelism.
+     * 
+     * @param sorted nodes as returned by {@link #sortTopologically()}
+     * @return the length of the critical path
+     */
+    int getCriticalPathLength(int[] sorted) {
+        int[] depth = new int[beanNames.length];
+        int longest = 0;
+        for (int node : sorted) {
+            int nodeDepth = 1;
+            for (int dependency : dependencies[node]) {
+                nodeDepth = Math.max(nodeDepth, depth[dependency] + 1);
+            }
+            depth[node] = nodeDepth;
+            longest = Math.max(longest, nodeDepth);
+        }
+        return longest;
+    }
+    
+    /**
+     * Find every dependency cycle with Tarjan's strongly connected components
+     * algorithm, in O(V+E). Each strongly connected component with more than one
+     * bean, or with a bean depending on itself, is reported once, as the shortest
+     * cycle through its first visited bean.
+     * 
+     * @return the cycles, each listing bean names in dependency order
+     */
+    List<List<String>> findCycles() {
+        int nodeCount = beanNames.length;
+        int[] index = new int[nodeCount];
+        int[] lowLink = new int[nodeCount];
+        int[] component = new int[nodeCount];
+        Arrays.fill(index, -1);
+        Arrays.fill(component, -1);
+        
+        // Explicit stacks, so that deep dependency chains cannot overflow the call stack
+        int[] sccStack = new int[nodeCount];
+        boolean[] onSccStack = new boolean[nodeCount];
+        int[] callStack = new int[nodeCount];
+        int[] nextEdge = new int[nodeCount];
+        int sccStackSize = 0;
+        int nextIndex = 0;
+        int componentCount = 0;
+        List<List<String>> cycles = new ArrayList<>();
+        
+        for (int root = 0; root < nodeCount; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth++] = root;
+            index[root] = lowLink[root] = nextIndex++;
+            sccStack[sccStackSize++] = root;
+            onSccStack[root] = true;
+            
+            while (depth > 0) {
+                int node = callStack[depth - 1];
+                int[] nodeDependencies = dependencies[node];
+                if (nextEdge[node] < nodeDependencies.length) {
+                    int dependency = nodeDependencies[nextEdge[node]++];
+                    if (index[dependency] < 0) {
+                        index[dependency] = lowLink[dependency] = nextIndex++;
+                        sccStack[sccStackSize++] = dependency;
+                        onSccStack[dependency] = true;
+                        callStack[depth++] = dependency;
+                    } else if (onSccStack[dependency]) {
+                        lowLink[node] = Math.min(lowLink[node], index[dependency]);
+                    }
+                    continue;
+                }
+                
+                // All dependencies visited, return to the caller
+                depth--;
+                if (depth > 0) {
+                    int caller = callStack[depth - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+                }
+                if (lowLink[node] != index[node]) {
+                    continue;
+                }
+                
+                // The node is the root of a strongly connected component
+                int id = componentCount++;
+                int size = 0;
+                int member;
+                do {
+                    member = sccStack[--sccStackSize];
+                    onSccStack[member] = false;
+                    component[member] = id;
+                    size++;
+                } while (member != node);
+                
+                if (size > 1 || dependsOnItself(node)) {
+                    cycles.add(toBeanNames(shortestCycle(node, candidate -> component[candidate] == id)));
+                }
+            }
+        }
+        return cycles;
+    }
+    
+    /**
+     * Find the shortest dependency cycle through the given bean.
+     * 
+     * @param beanName the bean name
+     * @return the cycle in dependency order, starting with the bean, or an empty list if there is none
+     */
+    List<String> findCycle(String beanName) {
+        int node = indexOf(beanName);
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+        return toBeanNames(shortestCycle(node, candidate -> true));
+    }
+    
+    private boolean dependsOnItself(int node) {
+        for (int dependency : dependencies[node]) {
+            if (dependency == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Breadth-first search for the shortest path from the start node back to itself,
+     * only going through allowed nodes.
+     */
+    private int[] shortestCycle(int start, IntPredicate allowed) {
+        int[] parent = new int[beanNames.length];
+        Arrays.fill(parent, -1);
+        int[] queue = new int[beanNames.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        
+        while (head < tail) {
+            int node = queue[head++];
+            for (int dependency : dependencies[node]) {
+                if (dependency == start) {
+                    int length = 1;
+                    for (int step = node; step != start; step = parent[step]) {
+                        length++;
+                    }
+                    int[] cycle = new int[length];
+                    int position = length;
+                    for (int step = node; step != start; step = parent[step]) {
+                        cycle[--position] = step;
+                    }
+                    cycle[0] = start;
+                    return cycle;
+                }
+                if (parent[dependency] < 0 && allowed.test(dependency)) {
+                    parent[dependency] = node;
+                    queue[tail++] = dependency;
+                }
+            }
+        }
+        return new int[0];
+    }
+    
+    private List<String> toBeanNames(int[] nodes) {
+        List<String> names = new ArrayList<>(nodes.length);
+        for (int node : nodes) {
+            names.add(beanNames[node]);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,136 @@
+package com.bellagnech.springlite.di;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ApplicationContext implementation booting from bean factories generated at
+ * build time (see {@link GeneratedBeanFactory}). Bean definitions come from the
+ * factories, so nothing is scanned, and beans are created by generated code, so
+ * nothing is reflected on: the dependencies of each factory are bound to bean
+ * handles once per refresh and creating a bean is a plain constructor call.
+ * <p>
+ * The factories are generated by the {@code GeneratedBeanFactoryProcessor}
+ * annotation processor when the build passes {@code -Aspringlite.aot=true}.
+ */
+public class GeneratedApplicationContext extends AbstractApplicationContext {
+    
+    private final List<GeneratedBeans> generatedBeans;
+    private final Map<String, GeneratedBeanFactory<?>> beanFactories = new ConcurrentHashMap<>();
+    private volatile Map<String, BeanHandle<?>[]> dependencyHandles = new ConcurrentHashMap<>();
+    
+    /**
+     * Create a new GeneratedApplicationContext with the generated beans
+     * registered as services of the given class loader.
+     * 
+     * @param classLoader the class loader, or null for the thread context class loader
+     */
+    public GeneratedApplicationContext(ClassLoader classLoader) throws Exception {
+        this(loadGeneratedBeans(classLoader), true);
+    }
+    
+    /**
+     * Create a new GeneratedApplicationContext with the given generated beans.
+     * 
+     * @param generatedBeans the generated beans of the modules
+     */
+    public GeneratedApplicationContext(GeneratedBeans... generatedBeans) throws Exception {
+        this(generatedBeans, true);
+    }
+    
+    /**
+     * Create a new GeneratedApplicationContext with the given generated beans,
+     * optionally deferring the refresh so that the context can be configured first.
+     * 
+     * @param generatedBeans the generated beans of the modules
+     * @param refresh whether to refresh the context immediately
+     */
+    public GeneratedApplicationContext(GeneratedBeans[] generatedBeans, boolean refresh) throws Exception {
+        logger.info("Initializing GeneratedApplicationContext with {} modules", generatedBeans.length);
+        this.generatedBeans = List.of(generatedBeans);
+        if (refresh) {
+            refresh();
+        }
+    }
+    
+    private static GeneratedBeans[] loadGeneratedBeans(ClassLoader classLoader) {
+        if (classLoader == null) {
+            classLoader = Thread.currentThread().getContextClassLoader();
+        }
+        List<GeneratedBeans> modules = new ArrayList<>();
+        for (GeneratedBeans module : ServiceLoader.load(GeneratedBeans.class, classLoader)) {
+            modules.add(module);
+        }
+        return modules.toArray(new GeneratedBeans[0]);
+    }
+    
+    @Override
+    protected void loadBeanDefinitions() throws Exception {
+        beanFactories.clear();
+        for (GeneratedBeans module : generatedBeans) {
+            for (GeneratedBeanFactory<?> factory : module.getBeanFactories()) {
+                BeanDefinition beanDefinition = new BeanDefinition();
+                beanDefinition.setId(factory.getBeanName());
+                beanDefinition.setBeanClass(factory.getBeanClass()); // Class literal, nothing to load
+                beanDefinition.setScope(factory.getScope());
+                beanDefinition.setLazyInit(factory.getLazyInit());
+                registerBeanDefinition(beanDefinition);
+                beanFactories.put(factory.getBeanName(), factory);
+            }
+        }
+        logger.debug("Registered {} generated bean factories", beanFactories.size());
+    }
+    
+    @Override
+    protected void onRefresh() throws Exception {
+        // Bind the dependencies of every factory to the slots assigned by this refresh
+        Map<String, BeanHandle<?>[]> handles = new ConcurrentHashMap<>();
+        for (GeneratedBeanFactory<?> factory : beanFactories.values()) {
+            List<GeneratedBeanFactory.Dependency> dependencies = factory.getDependencies();
+            BeanHandle<?>[] factoryHandles = new BeanHandle<?>[dependencies.size()];
+            for (int i = 0; i < factoryHandles.length; i++) {
+                String dependencyName = dependencies.get(i).getBeanName();
+                try {
+                    factoryHandles[i] = handle(dependencyName, Object.class);
+                } catch (NoSuchBeanDefinitionException e) {
+                    throw new BeanCreationException(factory.getBeanName(), 
+                            "Generated dependency '" + dependencyName + "' is not defined", e);
+                }
+            }
+            handles.put(factory.getBeanName(), factoryHandles);
+        }
+        dependencyHandles = handles;
+    }
+    
+    @Override
+    protected Collection<String> getDependencyNames(BeanDefinition beanDefinition) {
+        GeneratedBeanFactory<?> factory = beanFactories.get(beanDefinition.getId());
+        if (factory == null) {
+            return super.getDependencyNames(beanDefinition);
+        }
+        
+        // Deferred lookups do not have to be created first
+        List<String> dependencyNames = new ArrayList<>();
+        for (GeneratedBeanFactory.Dependency dependency : factory.getDependencies()) {
+            if (!dependency.isDeferred()) {
+                dependencyNames.add(dependency.getBeanName());
+            }
+        }
+        return dependencyNames;
+    }
+    
+    @Override
+    protected Object doCreateBean(BeanDefinition beanDefinition, Class<?> beanClass) throws Exception {
+        String beanId = beanDefinition.getId();
+        GeneratedBeanFactory<?> factory = beanFactories.get(beanId);
+        BeanHandle<?>[] handles = dependencyHandles.get(beanId);
+        if (factory == null || handles == null) {
+            throw new BeanCreationException(beanId, "No generated factory for bean");
+        }
+        return factory.create(handles);
+    }
+}
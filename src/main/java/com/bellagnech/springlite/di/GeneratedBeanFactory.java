@@ -0,0 +1,115 @@
+package com.bellagnech.springlite.di;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Factory of a component generated at build time, used by
+ * {@link GeneratedApplicationContext} instead of scanning and reflection.
+ * Generated factories call the constructor with {@code new}, assign autowired
+ * fields and call autowired setters directly, with the dependencies resolved
+ * at build time and passed as bean handles.
+ * 
+ * @param <T> the bean type
+ */
+public interface GeneratedBeanFactory<T> {
+    
+    String getBeanName();
+    
+    Class<T> getBeanClass();
+    
+    String getScope();
+    
+    /**
+     * Get the lazy-init flag of the component.
+     * 
+     * @return the flag, or null to follow the default of the context
+     */
+    Boolean getLazyInit();
+    
+    /**
+     * Get the beans injected into the component, in the order of the handles
+     * passed to {@link #create(BeanHandle[])}.
+     * 
+     * @return the dependencies
+     */
+    List<Dependency> getDependencies();
+    
+    /**
+     * Create and inject a new instance.
+     * 
+     * @param dependencies the handles of the dependencies, in the order of {@link #getDependencies()}
+     * @return the bean instance
+     * @throws Exception if the bean cannot be created
+     */
+    T create(BeanHandle<?>[] dependencies) throws Exception;
+    
+    /**
+     * Wrap a handle into the {@code Provider} of a {@code Provider<T>} injection point.
+     */
+    static <T> Provider<T> provider(BeanHandle<T> handle) {
+        return () -> {
+            try {
+                return handle.get();
+            } catch (BeanCreationException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        };
+    }
+    
+    /**
+     * Wrap a handle into the {@code ObjectFactory} of an {@code ObjectFactory<T>} injection point.
+     */
+    static <T> ObjectFactory<T> objectFactory(BeanHandle<T> handle) {
+        return handle::get;
+    }
+    
+    /**
+     * Resolve the bean of an {@code Optional<T>} injection point.
+     */
+    static <T> Optional<T> optional(BeanHandle<T> handle) throws BeanCreationException {
+        return Optional.of(handle.get());
+    }
+    
+    /**
+     * Bean injected into a generated component.
+     */
+    final class Dependency {
+        
+        private final String beanName;
+        private final boolean deferred;
+        
+        private Dependency(String beanName, boolean deferred) {
+            this.beanName = beanName;
+            this.deferred = deferred;
+        }
+        
+        /**
+         * A bean needed to create the component.
+         */
+        public static Dependency of(String beanName) {
+            return new Dependency(beanName, false);
+        }
+        
+        /**
+         * A bean injected through a {@code Provider} or an {@code ObjectFactory},
+         * only looked up after the component is created.
+         */
+        public static Dependency deferred(String beanName) {
+            return new Dependency(beanName, true);
+        }
+        
+        public String getBeanName() {
+            return beanName;
+        }
+        
+        public boolean isDeferred() {
+            return deferred;
+        }
+        
+        @Override
+        public String toString() {
+            return deferred ? beanName + " (deferred)" : beanName;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.bellagnech.springlite.di;
+
+import java.util.List;
+
+/**
+ * The generated bean factories of a module, registered as a service so that
+ * {@link GeneratedApplicationContext} finds them without scanning.
+ * Implementations are generated at build time.
+ */
+public interface GeneratedBeans {
+    
+    /**
+     * Get the factories of the components of the module.
+     * 
+     * @return the factories
+     */
+    List<GeneratedBeanFactory<?>> getBeanFactories();
+}
@@ -0,0 +1,254 @@
+package com.bellagnech.springlite.di;
+
+import com.bellagnech.springlite.di.annotations.Autowired;
+import com.bellagnech.springlite.di.annotations.Qualifier;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable description of how to build and inject a bean class:
+ * the constructor to call, the injection points for its arguments,
+ * and the autowired fields and setter methods.
+ * <p>
+ * A plan is computed once per bean class so that creating a new instance
+ * (for example of a prototype bean) only executes the plan instead of
+ * reflecting over the class again. Members are bound by a {@link BeanInstantiator}
+ * when the plan is computed.
+ */
+public final class InjectionPlan {
+    
+    private final Class<?> beanClass;
+    private final Constructor<?> constructor;
+    private final BeanInstantiator.ConstructorInvoker constructorInvoker;
+    private final List<InjectionPoint> constructorArguments;
+    private final List<InjectionPoint> memberInjectionPoints;
+    
+    /**
+     * Create a new injection plan.
+     * 
+     * @param beanClass the bean class
+     * @param constructor the constructor used to create instances
+     * @param constructorInvoker the bound constructor
+     * @param constructorArguments the injection points of the constructor arguments
+     * @param memberInjectionPoints the field and method injection points, in injection order
+     */
+    public InjectionPlan(Class<?> beanClass, Constructor<?> constructor,
+                         BeanInstantiator.ConstructorInvoker constructorInvoker,
+                         List<InjectionPoint> constructorArguments,
+                         List<InjectionPoint> memberInjectionPoints) {
+        this.beanClass = beanClass;
+        this.constructor = constructor;
+        this.constructorInvoker = constructorInvoker;
+        this.constructorArguments = List.copyOf(constructorArguments);
+        this.memberInjectionPoints = List.copyOf(memberInjectionPoints);
+    }
+    
+    /**
+     * Compute the injection plan of a class annotated for autowiring,
+     * binding its members with the default {@link MethodHandleBeanInstantiator}.
+     * 
+     * @param beanClass the bean class
+     * @return the injection plan
+     * @throws Exception if the class has no usable constructor
+     */
+    public static InjectionPlan forClass(Class<?> beanClass) throws Exception {
+        return forClass(beanClass, new MethodHandleBeanInstantiator());
+    }
+    
+    /**
+     * Compute the injection plan of a class annotated for autowiring.
+     * 
+     * @param beanClass the bean class
+     * @param instantiator the strategy used to bind the constructor, fields and methods
+     * @return the injection plan
+     * @throws Exception if the class has no usable constructor
+     */
+    public static InjectionPlan forClass(Class<?> beanClass, BeanInstantiator instantiator) throws Exception {
+        Constructor<?> constructor = findConstructor(beanClass);
+        constructor.setAccessible(true);
+        
+        List<InjectionPoint> constructorArguments = new ArrayList<>();
+        if (constructor.isAnnotationPresent(Autowired.class)) {
+            for (Parameter parameter : constructor.getParameters()) {
+                constructorArguments.add(new InjectionPoint(InjectionPoint.Kind.CONSTRUCTOR_PARAMETER,
+                        constructor, parameter.getName(), parameter.getType(), qualifierOf(parameter), true, null)
+                        .unwrap(parameter.getParameterizedType()));
+            }
+        }
+        
+        // Fields first, then setter methods
+        List<InjectionPoint> memberInjectionPoints = new ArrayList<>();
+        addFieldInjectionPoints(beanClass, instantiator, memberInjectionPoints);
+        addMethodInjectionPoints(beanClass, instantiator, memberInjectionPoints);
+        
+        return new InjectionPlan(beanClass, constructor, instantiator.bindConstructor(constructor),
+                constructorArguments, memberInjectionPoints);
+    }
+    
+    private static Constructor<?> findConstructor(Class<?> beanClass) throws Exception {
+        // Look for constructors annotated with @Autowired
+        Constructor<?> autowiredConstructor = null;
+        for (Constructor<?> constructor : beanClass.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(Autowired.class)) {
+                if (autowiredConstructor != null) {
+                    throw new Exception("Multiple constructors annotated with @Autowired in " + beanClass.getName());
+                }
+                autowiredConstructor = constructor;
+            }
+        }
+        
+        if (autowiredConstructor != null) {
+            return autowiredConstructor;
+        }
+        
+        // Otherwise, use the default constructor
+        try {
+            return beanClass.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new Exception("No default constructor found for " + beanClass.getName() +
+                               ". Either add a default constructor or annotate a constructor with @Autowired");
+        }
+    }
+    
+    private static void addFieldInjectionPoints(Class<?> beanClass, BeanInstantiator instantiator,
+                                                List<InjectionPoint> injectionPoints) throws Exception {
+        Class<?> currentClass = beanClass;
+        
+        // Traverse the class hierarchy to find all fields
+        while (currentClass != null && currentClass != Object.class) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                Autowired autowired = field.getAnnotation(Autowired.class);
+                if (autowired != null) {
+                    field.setAccessible(true);
+                    injectionPoints.add(new InjectionPoint(InjectionPoint.Kind.FIELD, field, field.getName(),
+                            field.getType(), qualifierOf(field.getAnnotation(Qualifier.class)), autowired.required(),
+                            instantiator.bindField(field)).unwrap(field.getGenericType()));
+                }
+            }
+            currentClass = currentClass.getSuperclass();
+        }
+    }
+    
+    private static void addMethodInjectionPoints(Class<?> beanClass, BeanInstantiator instantiator,
+                                                 List<InjectionPoint> injectionPoints) throws Exception {
+        
+        for (Method method : beanClass.getMethods()) {
+            Autowired autowired = method.getAnnotation(Autowired.class);
+            // Only consider setter-like methods with a single parameter
+            if (autowired == null || method.getParameterCount() != 1) {
+                continue;
+            }
+            method.setAccessible(true);
+            
+            // Check for @Qualifier on the method or parameter
+            Parameter parameter = method.getParameters()[0];
+            String qualifier = qualifierOf(method.getAnnotation(Qualifier.class));
+            if (qualifier == null) {
+                qualifier = qualifierOf(parameter);
+            }
+            
+            injectionPoints.add(new InjectionPoint(InjectionPoint.Kind.METHOD, method, method.getName(),
+                    parameter.getType(), qualifier, autowired.required(), instantiator.bindMethod(method))
+                    .unwrap(parameter.getParameterizedType()));
+        }
+    }
+    
+    private static String qualifierOf(Parameter parameter) {
+        return qualifierOf(parameter.getAnnotation(Qualifier.class));
+    }
+    
+    private static String qualifierOf(Qualifier qualifier) {
+        return qualifier != null ? qualifier.value() : null;
+    }
+    
+    /**
+     * Return a copy of this plan with every injection point transformed by the given function,
+     * sharing the bound constructor. Used to resolve bean references once they are known.
+     * 
+     * @param resolver the function applied to the constructor arguments and member injection points
+     * @return the resolved injection plan
+     */
+    public InjectionPlan resolve(UnaryOperator<InjectionPoint> resolver) {
+        List<InjectionPoint> resolvedArguments = new ArrayList<>(constructorArguments.size());
+        for (InjectionPoint argument : constructorArguments) {
+            resolvedArguments.add(resolver.apply(argument));
+        }
+        List<InjectionPoint> resolvedMembers = new ArrayList<>(memberInjectionPoints.size());
+        for (InjectionPoint injectionPoint : memberInjectionPoints) {
+            resolvedMembers.add(resolver.apply(injectionPoint));
+        }
+        return new InjectionPlan(beanClass, constructor, constructorInvoker, resolvedArguments, resolvedMembers);
+    }
+    
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+    
+    public Constructor<?> getConstructor() {
+        return constructor;
+    }
+    
+    /**
+     * Create a new, not yet injected, instance through the bound constructor.
+     * 
+     * @param arguments the resolved constructor arguments
+     * @return the new instance
+     * @throws Exception if the constructor fails
+     */
+    public Object newInstance(Object[] arguments) throws Exception {
+        return constructorInvoker.newInstance(arguments);
+    }
+    
+    /**
+     * Get the injection points of the constructor arguments, in parameter order.
+     * 
+     * @return the constructor argument injection points, empty for a default constructor
+     */
+    public List<InjectionPoint> getConstructorArguments() {
+        return constructorArguments;
+    }
+    
+    /**
+     * Get the field and method injection points, in the order they are injected.
+     * 
+     * @return the member injection points
+     */
+    public List<InjectionPoint> getMemberInjectionPoints() {
+        return memberInjectionPoints;
+    }
+    
+    /**
+     * Get the injected fields, declared fields of the class first, then those of its superclasses.
+     * 
+     * @return the field injection points
+     */
+    public List<InjectionPoint> getFieldInjectionPoints() {
+        return filter(InjectionPoint.Kind.FIELD);
+    }
+    
+    /**
+     * Get the injected single-argument methods.
+     * 
+     * @return the method injection points
+     */
+    public List<InjectionPoint> getMethodInjectionPoints() {
+        return filter(InjectionPoint.Kind.METHOD);
+    }
+    
+    private List<InjectionPoint> filter(InjectionPoint.Kind kind) {
+        List<InjectionPoint> injectionPoints = new ArrayList<>();
+        for (InjectionPoint injectionPoint : memberInjectionPoints) {
+            if (injectionPoint.getKind() == kind) {
+                injectionPoints.add(injectionPoint);
+            }
+        }
+        return Collections.unmodifiableList(injectionPoints);
+    }
+}
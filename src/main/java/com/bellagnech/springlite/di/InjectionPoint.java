@@ -0,0 +1,231 @@
+package com.bellagnech.springlite.di;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Optional;
+
+/**
+ * Describes a single dependency of a bean: a constructor parameter,
+ * a field or a setter method, along with the type to inject and
+ * either the qualifier of the bean to inject or a literal value.
+ * Field and method injection points carry the injector bound by the
+ * {@link BeanInstantiator}, so injecting a value needs no further reflection.
+ * Instances are immutable and computed once per bean class or definition.
+ */
+public final class InjectionPoint {
+    
+    /**
+     * The kind of member a dependency is injected into.
+     */
+    public enum Kind {
+        CONSTRUCTOR_PARAMETER, FIELD, METHOD
+    }
+    
+    /**
+     * How the dependency is handed to the bean: as is, or wrapped in a
+     * {@link Provider}, an {@link ObjectFactory} or an {@link Optional}.
+     */
+    public enum Wrapper {
+        NONE, PROVIDER, OBJECT_FACTORY, OPTIONAL
+    }
+    
+    private final Kind kind;
+    private final Member member;
+    private final String name;
+    private final Class<?> dependencyType;
+    private final String qualifier;
+    private final boolean required;
+    private final Object value;
+    private final BeanInstantiator.MemberInjector injector;
+    private final BeanHandle<?> target;
+    private final Wrapper wrapper;
+    
+    /**
+     * Create a new injection point.
+     * 
+     * @param kind the kind of member
+     * @param member the constructor, field or method the dependency is injected into
+     * @param name the field, method or parameter name
+     * @param dependencyType the type of the dependency
+     * @param qualifier the qualifier value, or null to autowire by type
+     * @param required whether the dependency is required
+     * @param injector the bound injector, or null for constructor parameters
+     */
+    public InjectionPoint(Kind kind, Member member, String name, Class<?> dependencyType,
+                          String qualifier, boolean required, BeanInstantiator.MemberInjector injector) {
+        this(kind, member, name, dependencyType, qualifier, required, null, injector, null, Wrapper.NONE);
+    }
+    
+    /**
+     * Create a new injection point for a literal value.
+     * 
+     * @param kind the kind of member
+     * @param member the field or method the value is injected into
+     * @param name the property name
+     * @param dependencyType the type of the field or method parameter
+     * @param value the value, already converted to the dependency type
+     * @param injector the bound injector
+     */
+    public InjectionPoint(Kind kind, Member member, String name, Class<?> dependencyType,
+                          Object value, BeanInstantiator.MemberInjector injector) {
+        this(kind, member, name, dependencyType, null, true, value, injector, null, Wrapper.NONE);
+    }
+    
+    private InjectionPoint(Kind kind, Member member, String name, Class<?> dependencyType,
+                           String qualifier, boolean required, Object value,
+                           BeanInstantiator.MemberInjector injector, BeanHandle<?> target, Wrapper wrapper) {
+        this.kind = kind;
+        this.member = member;
+        this.name = name;
+        this.dependencyType = dependencyType;
+        this.qualifier = (qualifier != null && !qualifier.isEmpty()) ? qualifier : null;
+        this.required = required;
+        this.value = value;
+        this.injector = injector;
+        this.target = target;
+        this.wrapper = wrapper;
+    }
+    
+    /**
+     * Return a copy of this injection point for a dependency declared as
+     * {@code Provider<T>}, {@code ObjectFactory<T>} or {@code Optional<T>},
+     * whose dependency type is {@code T}. Returns this injection point for any other
+     * declared type, or if {@code T} is not a class.
+     * 
+     * @param genericType the declared generic type of the dependency
+     * @return the unwrapped injection point
+     */
+    public InjectionPoint unwrap(Type genericType) {
+        Wrapper declaredWrapper = dependencyType == Provider.class ? Wrapper.PROVIDER
+                : dependencyType == ObjectFactory.class ? Wrapper.OBJECT_FACTORY
+                : dependencyType == Optional.class ? Wrapper.OPTIONAL
+                : Wrapper.NONE;
+        if (declaredWrapper == Wrapper.NONE || !(genericType instanceof ParameterizedType)) {
+            return this;
+        }
+        
+        Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+        if (argument instanceof ParameterizedType) {
+            argument = ((ParameterizedType) argument).getRawType();
+        }
+        if (!(argument instanceof Class)) {
+            return this;
+        }
+        return new InjectionPoint(kind, member, name, (Class<?>) argument, qualifier, required, value, 
+                injector, target, declaredWrapper);
+    }
+    
+    /**
+     * Return a copy of this injection point whose bean reference is resolved to the given handle.
+     * 
+     * @param target the handle of the bean to inject
+     * @return the resolved injection point
+     */
+    public InjectionPoint withTarget(BeanHandle<?> target) {
+        return new InjectionPoint(kind, member, name, dependencyType, qualifier, required, value, injector, target, wrapper);
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    public Member getMember() {
+        return member;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Class<?> getDependencyType() {
+        return dependencyType;
+    }
+    
+    /**
+     * Get the qualifier value of this injection point.
+     * 
+     * @return the bean name to inject, or null if the dependency is resolved by type
+     */
+    public String getQualifier() {
+        return qualifier;
+    }
+    
+    public boolean hasQualifier() {
+        return qualifier != null;
+    }
+    
+    /**
+     * Get the handle of the bean to inject, resolved from the qualifier on refresh.
+     * 
+     * @return the bean handle, or null if the dependency is not resolved yet
+     */
+    public BeanHandle<?> getTarget() {
+        return target;
+    }
+    
+    public boolean hasTarget() {
+        return target != null;
+    }
+    
+    /**
+     * Get how the dependency is handed to the bean. For wrapped dependencies,
+     * {@link #getDependencyType()} is the type of the bean inside the wrapper.
+     * 
+     * @return the wrapper, {@link Wrapper#NONE} if the bean is injected directly
+     */
+    public Wrapper getWrapper() {
+        return wrapper;
+    }
+    
+    public boolean isWrapped() {
+        return wrapper != Wrapper.NONE;
+    }
+    
+    /**
+     * Check whether the bean is only looked up after injection, through a
+     * {@link Provider} or an {@link ObjectFactory}, so that it need not exist
+     * when the injecting bean is created.
+     * 
+     * @return true if the lookup is deferred
+     */
+    public boolean isDeferred() {
+        return wrapper == Wrapper.PROVIDER || wrapper == Wrapper.OBJECT_FACTORY;
+    }
+    
+    public boolean isRequired() {
+        return required;
+    }
+    
+    /**
+     * Get the literal value of this injection point.
+     * 
+     * @return the converted value, or null if a bean is injected
+     */
+    public Object getValue() {
+        return value;
+    }
+    
+    /**
+     * Inject the given value into the bean through the bound injector.
+     * 
+     * @param bean the bean instance
+     * @param dependency the value to inject
+     * @throws Exception if the injection fails
+     */
+    public void inject(Object bean, Object dependency) throws Exception {
+        injector.inject(bean, dependency);
+    }
+    
+    @Override
+    public String toString() {
+        return "InjectionPoint{" +
+                "kind=" + kind +
+                ", name='" + name + '\'' +
+                ", dependencyType=" + dependencyType.getName() +
+                ", qualifier='" + qualifier + '\'' +
+                ", required=" + required +
+                (isWrapped() ? ", wrapper=" + wrapper : "") +
+                '}';
+    }
+}
@@ -0,0 +1,151 @@
+package com.bellagnech.springlite.di;
+
+import com.bellagnech.springlite.di.util.Logger;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * Default BeanInstantiator. Binds members once, so that creating and wiring a
+ * bean skips the per-call access and argument checks of reflection:
+ * <ul>
+ *   <li>public no-arg constructors of public classes visible from the framework's
+ *       class loader become a {@link Supplier} generated by {@link LambdaMetafactory}</li>
+ *   <li>other constructors and setter methods become exact-typed {@link MethodHandle}s</li>
+ *   <li>fields are written through {@link VarHandle}s</li>
+ * </ul>
+ * Members that cannot be bound this way (for example final fields, or classes
+ * in modules that are not open to the framework) fall back to reflection.
+ * <p>
+ * The handles are held in fields of the returned invokers, not in
+ * {@code static final} fields, so the JIT does not treat them as constants:
+ * a call site seeing a single bean class may still be inlined through profiling,
+ * but a shared one is an indirect call, cheaper than reflection but not free.
+ */
+public class MethodHandleBeanInstantiator implements BeanInstantiator {
+    
+    private static final Logger logger = Logger.getLogger(MethodHandleBeanInstantiator.class);
+    
+    private static final MethodType CONSTRUCTOR_INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType SETTER_INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    
+    private final ReflectiveBeanInstantiator fallback = new ReflectiveBeanInstantiator();
+    
+    @Override
+    public ConstructorInvoker bindConstructor(Constructor<?> constructor) throws Exception {
+        if (constructor.getParameterCount() == 0 && isPublic(constructor) 
+                && isVisible(constructor.getDeclaringClass())) {
+            try {
+                Supplier<?> supplier = generateSupplier(constructor);
+                return arguments -> supplier.get();
+            } catch (Throwable t) {
+                logger.debug("Could not generate supplier for {}: {}", constructor.getDeclaringClass().getName(), t);
+            }
+        }
+        
+        try {
+            MethodHandle handle = lookupFor(constructor.getDeclaringClass()).unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(CONSTRUCTOR_INVOKER_TYPE);
+            return arguments -> {
+                try {
+                    return (Object) handle.invokeExact(arguments);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new Exception(t);
+                }
+            };
+        } catch (IllegalAccessException | RuntimeException e) {
+            logger.debug("Falling back to reflection for constructor of {}: {}", 
+                    constructor.getDeclaringClass().getName(), e);
+            return fallback.bindConstructor(constructor);
+        }
+    }
+    
+    @Override
+    public MemberInjector bindField(Field field) throws Exception {
+        if (Modifier.isFinal(field.getModifiers())) {
+            // VarHandles never write final fields
+            return fallback.bindField(field);
+        }
+        
+        try {
+            VarHandle handle = lookupFor(field.getDeclaringClass()).unreflectVarHandle(field);
+            return (bean, value) -> handle.set(bean, value);
+        } catch (IllegalAccessException | RuntimeException e) {
+            logger.debug("Falling back to reflection for field {}: {}", field.getName(), e);
+            return fallback.bindField(field);
+        }
+    }
+    
+    @Override
+    public MemberInjector bindMethod(Method method) throws Exception {
+        try {
+            MethodHandle handle = lookupFor(method.getDeclaringClass()).unreflect(method)
+                    .asType(SETTER_INVOKER_TYPE);
+            return (bean, value) -> {
+                try {
+                    handle.invokeExact(bean, value);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new Exception(t);
+                }
+            };
+        } catch (IllegalAccessException | RuntimeException e) {
+            logger.debug("Falling back to reflection for method {}: {}", method.getName(), e);
+            return fallback.bindMethod(method);
+        }
+    }
+    
+    /**
+     * Spin a {@code Supplier} calling the constructor directly.
+     * The generated class is defined next to this class, so this only works
+     * for constructors that are accessible from here.
+     */
+    private static Supplier<?> generateSupplier(Constructor<?> constructor) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle target = lookup.unreflectConstructor(constructor);
+        CallSite callSite = LambdaMetafactory.metafactory(
+                lookup,
+                "get",
+                MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class),
+                target,
+                MethodType.methodType(constructor.getDeclaringClass()));
+        return (Supplier<?>) callSite.getTarget().invokeExact();
+    }
+    
+    private static MethodHandles.Lookup lookupFor(Class<?> targetClass) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(targetClass, MethodHandles.lookup());
+    }
+    
+    /**
+     * Check whether the given class resolves to itself from the class loader of this
+     * class, where the generated supplier is defined. Classes from a child loader
+     * that does not delegate would fail with a NoClassDefFoundError on first use.
+     */
+    private static boolean isVisible(Class<?> beanClass) {
+        try {
+            return Class.forName(beanClass.getName(), false, 
+                    MethodHandleBeanInstantiator.class.getClassLoader()) == beanClass;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+    
+    private static boolean isPublic(Constructor<?> constructor) {
+        return Modifier.isPublic(constructor.getModifiers())
+                && Modifier.isPublic(constructor.getDeclaringClass().getModifiers());
+    }
+}
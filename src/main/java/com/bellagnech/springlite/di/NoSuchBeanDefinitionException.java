@@ -6,13 +6,34 @@ package com.bellagnech.springlite.di;
 public class NoSuchBeanDefinitionException extends Exception {
     
     private final String beanId;
+    private final Class<?> beanType;
     
     public NoSuchBeanDefinitionException(String beanId) {
         super("No bean definition found for bean ID: " + beanId);
         this.beanId = beanId;
+        this.beanType = null;
+    }
+    
+    public NoSuchBeanDefinitionException(Class<?> beanType) {
+        this(beanType, "No qualifying bean of type '" + beanType.getName() + "' available");
+    }
+    
+    protected NoSuchBeanDefinitionException(Class<?> beanType, String message) {
+        super(message);
+        this.beanId = null;
+        this.beanType = beanType;
     }
     
     public String getBeanId() {
         return beanId;
     }
+    
+    /**
+     * Return the required type, if the lookup was by type.
+     * 
+     * @return the required type, or null for lookups by id
+     */
+    public Class<?> getBeanType() {
+        return beanType;
+    }
 }
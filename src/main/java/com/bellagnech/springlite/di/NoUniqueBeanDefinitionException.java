@@ -0,0 +1,23 @@
+package com.bellagnech.springlite.di;
+
+import java.util.List;
+
+/**
+ * Exception thrown when a single bean of a type is required
+ * but more than one matching bean definition is found.
+ */
+public class NoUniqueBeanDefinitionException extends NoSuchBeanDefinitionException {
+    
+    private final List<String> beanNamesFound;
+    
+    public NoUniqueBeanDefinitionException(Class<?> beanType, List<String> beanNamesFound) {
+        super(beanType, "No qualifying bean of type '" + beanType.getName() + 
+              "' available: expected single matching bean but found " + beanNamesFound.size() + 
+              ": " + String.join(", ", beanNamesFound));
+        this.beanNamesFound = List.copyOf(beanNamesFound);
+    }
+    
+    public List<String> getBeanNamesFound() {
+        return beanNamesFound;
+    }
+}
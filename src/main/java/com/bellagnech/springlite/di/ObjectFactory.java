@@ -0,0 +1,20 @@
+package com.bellagnech.springlite.di;
+
+/**
+ * Factory returning an object instance on demand, such as a bean
+ * that is looked up lazily instead of being injected directly.
+ * 
+ * @param <T> the object type
+ */
+@FunctionalInterface
+public interface ObjectFactory<T> {
+    
+    /**
+     * Return an instance of the object managed by this factory.
+     * 
+     * @return the object instance
+     * @throws NoSuchBeanDefinitionException if no matching bean exists
+     * @throws BeanCreationException if the object could not be created
+     */
+    T getObject() throws NoSuchBeanDefinitionException, BeanCreationException;
+}
@@ -0,0 +1,28 @@
+package com.bellagnech.springlite.di;
+
+/**
+ * ObjectFactory for the beans of a type, with lookups that tolerate
+ * missing or ambiguous beans.
+ * 
+ * @param <T> the bean type
+ * @see BeanFactory#getBeanProvider(Class)
+ */
+public interface ObjectProvider<T> extends ObjectFactory<T> {
+    
+    /**
+     * Return the bean of the type if one is defined.
+     * 
+     * @return the bean instance, or null if no bean of the type is defined
+     * @throws NoUniqueBeanDefinitionException if more than one bean of the type is defined
+     * @throws BeanCreationException if the bean could not be created
+     */
+    T getIfAvailable() throws NoUniqueBeanDefinitionException, BeanCreationException;
+    
+    /**
+     * Return the bean of the type if exactly one is defined.
+     * 
+     * @return the bean instance, or null if no or more than one bean of the type is defined
+     * @throws BeanCreationException if the bean could not be created
+     */
+    T getIfUnique() throws BeanCreationException;
+}
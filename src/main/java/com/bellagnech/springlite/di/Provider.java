@@ -0,0 +1,24 @@
+package com.bellagnech.springlite.di;
+
+/**
+ * Deferred lookup of a bean, injected in place of the bean itself.
+ * Each call to {@link #get()} returns the instance of the current scope of
+ * the bean: a new instance for prototypes, the shared one for singletons.
+ * The lookup is bound when the provider is injected, so calling it costs no
+ * name or type resolution.
+ * <p>
+ * Unlike {@link ObjectFactory}, failures are reported as unchecked exceptions.
+ * 
+ * @param <T> the bean type
+ */
+@FunctionalInterface
+public interface Provider<T> {
+    
+    /**
+     * Return an instance of the bean.
+     * 
+     * @return the bean instance
+     * @throws IllegalStateException if no matching bean is defined or the bean could not be created
+     */
+    T get();
+}
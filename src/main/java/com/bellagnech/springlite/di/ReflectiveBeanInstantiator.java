@@ -0,0 +1,53 @@
+package com.bellagnech.springlite.di;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * BeanInstantiator based on core reflection: {@link Constructor#newInstance},
+ * {@link Field#set} and {@link Method#invoke}.
+ * Works for every accessible member and is used as the fallback of
+ * {@link MethodHandleBeanInstantiator}.
+ */
+public class ReflectiveBeanInstantiator implements BeanInstantiator {
+    
+    @Override
+    public ConstructorInvoker bindConstructor(Constructor<?> constructor) {
+        return arguments -> {
+            try {
+                return constructor.newInstance(arguments);
+            } catch (InvocationTargetException e) {
+                throw unwrap(e);
+            }
+        };
+    }
+    
+    @Override
+    public MemberInjector bindField(Field field) {
+        return field::set;
+    }
+    
+    @Override
+    public MemberInjector bindMethod(Method method) {
+        return (bean, value) -> {
+            try {
+                method.invoke(bean, value);
+            } catch (InvocationTargetException e) {
+                throw unwrap(e);
+            }
+        };
+    }
+    
+    private static Exception unwrap(InvocationTargetException e) {
+        Throwable target = e.getTargetException();
+        if (target instanceof Exception) {
+            return (Exception) target;
+        }
+        if (target instanceof Error) {
+            throw (Error) target;
+        }
+        return e;
+    }
+}
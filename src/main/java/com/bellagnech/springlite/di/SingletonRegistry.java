@@ -0,0 +1,210 @@
+package com.bellagnech.springlite.di;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe registry of shared singleton instances.
+ * Reads of already created singletons are lock-free. Creation of a missing
+ * singleton is guarded by a lock dedicated to that bean, so concurrent callers
+ * never create the same singleton twice while unrelated beans are created in parallel.
+ * A thread requesting a singleton it is already creating is detected from
+ * the creation lock it holds, without any per-call bookkeeping. A thread about
+ * to block on a creation lock first checks that its owner is not, directly or
+ * through other threads, waiting for a lock the caller holds: singletons whose
+ * dependencies were not checked on refresh and are first requested from several
+ * threads report their cycle instead of deadlocking.
+ * <p>
+ * {@link ReentrantLock} is used instead of {@code synchronized} so that threads
+ * waiting for a singleton do not pin their carrier when running on virtual threads.
+ */
+public class SingletonRegistry {
+    
+    /**
+     * Callback used to create a singleton instance when it is not yet registered.
+     */
+    @FunctionalInterface
+    public interface SingletonFactory {
+        Object create() throws Exception;
+    }
+    
+    private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>();
+    private final Map<String, CreationLock> creationLocks = new ConcurrentHashMap<>();
+    
+    // Singleton each blocked thread is waiting for
+    private final Map<Thread, String> waitingThreads = new ConcurrentHashMap<>();
+    
+    // Beans currently in creation on the calling thread, in creation order
+    private final ThreadLocal<Set<String>> currentlyCreatingBeans = ThreadLocal.withInitial(LinkedHashSet::new);
+    
+    /**
+     * Return the singleton registered under the given name without locking.
+     * 
+     * @param beanName the bean name
+     * @return the singleton instance, or null if none is registered yet
+     */
+    public Object getSingleton(String beanName) {
+        return singletonObjects.get(beanName);
+    }
+    
+    /**
+     * Return the singleton registered under the given name, creating and
+     * registering it with the given factory if necessary.
+     * Only one thread creates a given singleton; other threads asking for it
+     * block until it is available.
+     * 
+     * @param beanName the bean name
+     * @param singletonFactory the factory used to create the singleton if missing
+     * @return the singleton instance
+     * @throws CircularDependencyException if waiting for the singleton would deadlock
+     * @throws Exception if the factory fails to create the singleton
+     */
+    public Object getSingleton(String beanName, SingletonFactory singletonFactory) throws Exception {
+        Object singleton = singletonObjects.get(beanName);
+        if (singleton != null) {
+            return singleton;
+        }
+        
+        CreationLock lock = creationLocks.computeIfAbsent(beanName, name -> new CreationLock());
+        if (!lock.tryLock()) {
+            awaitCreationLock(beanName, lock);
+        }
+        try {
+            // Another thread may have created it while we were waiting
+            singleton = singletonObjects.get(beanName);
+            if (singleton == null) {
+                singleton = singletonFactory.create();
+                singletonObjects.put(beanName, singleton);
+            }
+            return singleton;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Block until the creation lock of the given singleton is acquired, unless the
+     * threads holding the locks form a cycle back to the calling thread.
+     */
+    private void awaitCreationLock(String beanName, CreationLock lock) throws CircularDependencyException {
+        Thread currentThread = Thread.currentThread();
+        // Published before the check, so that of two threads waiting on each other
+        // at least the last one to check sees the cycle
+        waitingThreads.put(currentThread, beanName);
+        try {
+            List<String> cycle = findWaitCycle(beanName, currentThread);
+            if (cycle != null) {
+                throw new CircularDependencyException(beanName, new LinkedHashSet<>(cycle));
+            }
+            lock.lock();
+        } finally {
+            waitingThreads.remove(currentThread);
+        }
+    }
+    
+    /**
+     * Follow the chain of lock owners waiting for other singletons, starting from
+     * the given one, and return the singletons on it if it leads back to the given thread.
+     */
+    private List<String> findWaitCycle(String beanName, Thread currentThread) {
+        List<String> chain = new ArrayList<>();
+        String waitedBean = beanName;
+        // Bounded, as a chain read while other threads move on may loop elsewhere
+        for (int i = 0; i <= waitingThreads.size() && waitedBean != null; i++) {
+            CreationLock lock = creationLocks.get(waitedBean);
+            Thread owner = lock != null ? lock.getOwner() : null;
+            if (owner == null) {
+                return null;
+            }
+            chain.add(waitedBean);
+            if (owner == currentThread) {
+                return chain;
+            }
+            waitedBean = waitingThreads.get(owner);
+        }
+        return null;
+    }
+    
+    /**
+     * Check whether the calling thread is creating the given singleton, i.e. holds its
+     * creation lock. Requesting the singleton again would be a circular reference.
+     * 
+     * @param beanName the bean name
+     * @return true if the singleton is in creation on the calling thread
+     */
+    public boolean isCurrentlyInCreation(String beanName) {
+        CreationLock lock = creationLocks.get(beanName);
+        return lock != null && lock.isHeldByCurrentThread();
+    }
+    
+    /**
+     * Mark the given bean as currently in creation on the calling thread.
+     * Only needed for beans whose dependencies were not checked for cycles up front.
+     * 
+     * @param beanName the bean name
+     * @throws CircularDependencyException if the bean is already in creation on this thread
+     */
+    public void beforeCreation(String beanName) throws CircularDependencyException {
+        Set<String> creating = currentlyCreatingBeans.get();
+        if (creating.contains(beanName)) {
+            throw new CircularDependencyException(beanName, new LinkedHashSet<>(creating));
+        }
+        creating.add(beanName);
+    }
+    
+    /**
+     * Mark the given bean as no longer in creation on the calling thread.
+     * 
+     * @param beanName the bean name
+     */
+    public void afterCreation(String beanName) {
+        Set<String> creating = currentlyCreatingBeans.get();
+        creating.remove(beanName);
+        if (creating.isEmpty()) {
+            currentlyCreatingBeans.remove();
+        }
+    }
+    
+    /**
+     * Check if a singleton is registered under the given name.
+     * 
+     * @param beanName the bean name
+     * @return true if the singleton has been created
+     */
+    public boolean containsSingleton(String beanName) {
+        return singletonObjects.containsKey(beanName);
+    }
+    
+    /**
+     * Return the number of registered singletons.
+     * 
+     * @return the singleton count
+     */
+    public int getSingletonCount() {
+        return singletonObjects.size();
+    }
+    
+    /**
+     * Remove all registered singletons.
+     */
+    public void clear() {
+        singletonObjects.clear();
+        creationLocks.clear();
+    }
+    
+    /**
+     * Creation lock exposing its owner to the deadlock check.
+     */
+    private static final class CreationLock extends ReentrantLock {
+        
+        @Override
+        protected Thread getOwner() {
+            return super.getOwner();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.bellagnech.springlite.di;
+
+import com.bellagnech.springlite.di.util.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Training run of an application for AppCDS (application class data sharing).
+ * With the {@value #TRAINING_PROPERTY} system property set to {@code true},
+ * a context creates every bean once after its refresh, lazy singletons and
+ * prototypes included, and then exits the JVM. The JVM must be started with an
+ * option recording the classes it loaded, without which it does not exit:
+ * <ul>
+ *   <li>{@code -XX:ArchiveClassesAtExit=app.jsa} writes a dynamic archive at exit</li>
+ *   <li>{@code -XX:DumpLoadedClassList=app.classlist} writes a class list, from which
+ *       {@code -Xshare:dump -XX:SharedClassListFile=app.classlist -XX:SharedArchiveFile=app.jsa}
+ *       builds a static archive</li>
+ * </ul>
+ * Production launches then pass {@code -XX:SharedArchiveFile=app.jsa} and map
+ * the parsed and verified classes of the container, the XML stack and the beans
+ * instead of loading them again.
+ */
+public final class TrainingRun {
+    
+    public static final String TRAINING_PROPERTY = "springlite.training";
+    
+    private static final Logger logger = Logger.getLogger(TrainingRun.class);
+    
+    private static final List<String> RECORDING_OPTIONS = List.of(
+            "-XX:ArchiveClassesAtExit=", "-XX:DumpLoadedClassList=");
+    
+    private TrainingRun() {
+    }
+    
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(TRAINING_PROPERTY);
+    }
+    
+    /**
+     * Complete the training run of a refreshed context and exit the JVM,
+     * which writes the archive or class list requested on its command line.
+     * The JVM is left running when it records no classes, so that the property
+     * alone never stops a process.
+     * 
+     * @param context the refreshed context
+     */
+    static void complete(AbstractApplicationContext context) {
+        if (train(context, ManagementFactory.getRuntimeMXBean().getInputArguments())) {
+            System.exit(0);
+        }
+    }
+    
+    /**
+     * Create every bean of the context and check that the JVM records the loaded classes.
+     * 
+     * @param context the refreshed context
+     * @param jvmArguments the arguments of the JVM
+     * @return true if the JVM should exit to write its recording
+     */
+    static boolean train(AbstractApplicationContext context, List<String> jvmArguments) {
+        int created = warmUp(context);
+        String recordingOption = findRecordingOption(jvmArguments);
+        if (recordingOption == null) {
+            logger.warn("Training run created {} beans, but the JVM records no classes and keeps running: "
+                    + "start it with -XX:ArchiveClassesAtExit=<archive> or -XX:DumpLoadedClassList=<file>", created);
+            return false;
+        }
+        logger.info("Training run created {} beans, exiting to write {}", created, recordingOption);
+        return true;
+    }
+    
+    /**
+     * Create every bean of the context once, so that the classes used to create
+     * lazy singletons and scoped beans are loaded as well. Beans that cannot be
+     * created are skipped: the training run only has to load classes.
+     * 
+     * @param context the refreshed context
+     * @return the number of beans created
+     */
+    static int warmUp(AbstractApplicationContext context) {
+        int created = 0;
+        for (String beanName : context.getBeanDefinitionNames()) {
+            try {
+                context.getBean(beanName);
+                created++;
+            } catch (NoSuchBeanDefinitionException | BeanCreationException | RuntimeException e) {
+                logger.warn("Training run could not create bean '{}': {}", beanName, e.getMessage());
+            }
+        }
+        return created;
+    }
+    
+    /**
+     * Find the JVM option recording the loaded classes among the JVM arguments.
+     * 
+     * @param jvmArguments the arguments of the JVM
+     * @return the option, or null if the JVM records no classes
+     */
+    static String findRecordingOption(List<String> jvmArguments) {
+        for (String argument : jvmArguments) {
+            for (String option : RECORDING_OPTIONS) {
+                if (argument.startsWith(option)) {
+                    return argument;
+                }
+            }
+        }
+        return null;
+    }
+}
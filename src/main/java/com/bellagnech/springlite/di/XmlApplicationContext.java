@@ -1,30 +1,37 @@
 package com.bellagnech.springlite.di;
 
-import com.bellagnech.springlite.di.util.Logger;
 import com.bellagnech.springlite.di.xml.XmlBeanDefinitionReader;
 
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * ApplicationContext implementation based on XML configuration.
  * Handles bean instantiation and dependency injection from XML configuration.
  */
-public class XmlApplicationContext implements ApplicationContext, BeanDefinitionRegistry {
+public class XmlApplicationContext extends AbstractApplicationContext {
     
-    private static final Logger logger = Logger.getLogger(XmlApplicationContext.class);
-    
-    private final Map<String, BeanDefinition> beanDefinitionMap = new HashMap<>();
-    private final Map<String, Object> singletonObjects = new HashMap<>();
     private final XmlBeanDefinitionReader beanDefinitionReader;
     private final String[] configLocations;
-    private final Set<String> currentlyCreatingBeans = new HashSet<>(); // For circular dependency detection
+    // Computed once per bean definition, keyed by instance so that a definition
+    // registered again under the same id after refresh gets its own plan
+    private final Map<BeanDefinition, InjectionPlan> injectionPlans = new ConcurrentHashMap<>();
+    
+    private static final Object[] NO_ARGUMENTS = new Object[0];
     
     /**
      * Create a new XmlApplicationContext with the given configuration locations.
@@ -32,11 +39,24 @@ public class XmlApplicationContext implements ApplicationContext, BeanDefinition
      * @param configLocations the XML configuration file paths
      */
     public XmlApplicationContext(String... configLocations) throws Exception {
+        this(configLocations, true);
+    }
+    
+    /**
+     * Create a new XmlApplicationContext with the given configuration locations,
+     * optionally deferring the refresh so that the context can be configured first.
+     * 
+     * @param configLocations the XML configuration file paths
+     * @param refresh whether to refresh the context immediately
+     */
+    public XmlApplicationContext(String[] configLocations, boolean refresh) throws Exception {
         logger.info("Initializing XmlApplicationContext with " + 
                    (configLocations != null ? configLocations.length : 0) + " config locations");
         this.configLocations = configLocations;
         this.beanDefinitionReader = new XmlBeanDefinitionReader(this);
-        refresh();
+        if (refresh) {
+            refresh();
+        }
     }
     
     /**
@@ -62,65 +82,81 @@ public class XmlApplicationContext implements ApplicationContext, BeanDefinition
         beanDefinitionReader.loadBeanDefinitions(inputStream);
     }
     
+    /**
+     * Load bean definitions from the XML config files. Several files are parsed
+     * in parallel, then registered file by file in declaration order, so that later
+     * definitions override earlier ones as if the files were loaded one after another.
+     * Parsing reads files, so it runs on the {@link #setBootstrapExecutor bootstrap executor}
+     * when one is set, and otherwise on a pool of at most one daemon thread per
+     * processor that lives for the duration of the load, rather than on the common
+     * fork-join pool meant for computations.
+     */
     @Override
-    public void refresh() throws Exception {
-        logger.info("Refreshing XmlApplicationContext");
-        
-        // Clear the singleton cache
-        this.singletonObjects.clear();
+    protected void loadBeanDefinitions() throws Exception {
+        if (configLocations == null) {
+            return;
+        }
+        if (configLocations.length == 1) {
+            logger.debug("Loading bean definitions from location: {}", configLocations[0]);
+            beanDefinitionReader.loadBeanDefinitions(configLocations[0]);
+            return;
+        }
         
-        // Load bean definitions from XML config files
-        if (configLocations != null) {
-            for (String configLocation : configLocations) {
-                logger.debug("Loading bean definitions from location: " + configLocation);
-                beanDefinitionReader.loadBeanDefinitions(configLocation);
+        logger.debug("Loading bean definitions from {} locations in parallel", configLocations.length);
+        List<List<BeanDefinition>> batches = new ArrayList<>(Collections.nCopies(configLocations.length, null));
+        Exception[] failures = new Exception[configLocations.length];
+        Executor executor = getBootstrapExecutor();
+        ExecutorService parserPool = null;
+        if (executor == null) {
+            int threads = Math.min(configLocations.length, Runtime.getRuntime().availableProcessors());
+            parserPool = Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "springlite-xml-parser");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor = parserPool;
+        }
+        try {
+            CompletableFuture<?>[] parses = new CompletableFuture<?>[configLocations.length];
+            for (int i = 0; i < configLocations.length; i++) {
+                int index = i;
+                parses[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        batches.set(index, beanDefinitionReader.readBeanDefinitions(configLocations[index]));
+                    } catch (Exception e) {
+                        failures[index] = e;
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(parses).join();
+        } finally {
+            if (parserPool != null) {
+                parserPool.shutdown();
             }
         }
         
-        // Validate bean definitions
-        validateBeanDefinitions();
-        
-        // Instantiate all singleton beans
-        logger.info("Instantiating singleton beans");
-        String[] beanNames = getBeanDefinitionNames();
-        for (String beanName : beanNames) {
-            BeanDefinition beanDefinition = beanDefinitionMap.get(beanName);
-            if ("singleton".equals(beanDefinition.getScope())) {
-                try {
-                    getBean(beanName);
-                } catch (BeanCreationException e) {
-                    logger.error("Error creating singleton bean '" + beanName + "'", e);
-                    throw e;
-                }
+        for (int i = 0; i < configLocations.length; i++) {
+            if (failures[i] != null) {
+                throw failures[i];
+            }
+            logger.debug("Registering bean definitions from location: {}", configLocations[i]);
+            for (BeanDefinition beanDefinition : batches.get(i)) {
+                registerBeanDefinition(beanDefinition);
             }
         }
-        
-        logger.info("XmlApplicationContext refresh completed with " + beanDefinitionMap.size() + " bean definitions");
     }
     
     /**
-     * Validate bean definitions for correctness.
+     * Validate bean definitions for correctness, including property references.
      */
-    private void validateBeanDefinitions() throws BeanCreationException {
-        logger.debug("Validating bean definitions");
+    @Override
+    protected void validateBeanDefinitions() throws BeanCreationException {
+        super.validateBeanDefinitions();
         
         for (Map.Entry<String, BeanDefinition> entry : beanDefinitionMap.entrySet()) {
             String beanName = entry.getKey();
             BeanDefinition bd = entry.getValue();
             
-            // Check required fields
-            if (bd.getClassName() == null || bd.getClassName().isEmpty()) {
-                throw new BeanCreationException(beanName, "Bean class name is required");
-            }
-            
-            // Validate class exists
-            try {
-                Class.forName(bd.getClassName());
-            } catch (ClassNotFoundException e) {
-                throw new BeanCreationException(beanName, 
-                    "Bean class not found: " + bd.getClassName(), e);
-            }
-            
             // Validate property references
             for (PropertyValue pv : bd.getPropertyValues()) {
                 if (pv.isRef()) {
@@ -135,151 +171,117 @@ public class XmlApplicationContext implements ApplicationContext, BeanDefinition
     }
     
     @Override
-    public Object getBean(String id) throws NoSuchBeanDefinitionException, BeanCreationException {
-        logger.debug("Getting bean with id: " + id);
+    protected void onRefresh() throws Exception {
+        // Plans are bound by the current instantiator, recompute them on refresh
+        injectionPlans.clear();
         
-        // Check if bean definition exists
-        BeanDefinition beanDefinition;
-        try {
-            beanDefinition = getBeanDefinition(id);
-        } catch (NoSuchBeanDefinitionException e) {
-            logger.error("No bean definition found for: " + id);
-            throw e;
-        }
-        
-        // If bean is a prototype, always create a new instance
-        if ("prototype".equals(beanDefinition.getScope())) {
-            logger.debug("Creating new prototype instance for bean: " + id);
-            try {
-                return createBean(beanDefinition);
-            } catch (Exception e) {
-                logger.error("Error creating prototype bean: " + id, e);
-                throw new BeanCreationException(id, "Error creating prototype bean", e);
+        // Compute plans up front so that bean references are resolved to handles once,
+        // leaving lazy beans to their first access
+        for (BeanDefinition beanDefinition : beanDefinitionMap.values()) {
+            if (isLazyInit(beanDefinition)) {
+                continue;
             }
-        }
-        
-        // For singleton beans, check if already instantiated
-        Object singleton = this.singletonObjects.get(id);
-        if (singleton == null) {
-            logger.debug("Creating singleton instance for bean: " + id);
             try {
-                singleton = createBean(beanDefinition);
-                this.singletonObjects.put(id, singleton);
+                getInjectionPlan(beanDefinition, beanDefinition.getBeanClass());
             } catch (Exception e) {
-                logger.error("Error creating singleton bean: " + id, e);
-                throw new BeanCreationException(id, "Error creating singleton bean", e);
+                logger.debug("Deferring injection plan of bean '{}': {}", beanDefinition.getId(), e.getMessage());
             }
-        } else {
-            logger.debug("Returning existing singleton instance for bean: " + id);
         }
-        
-        return singleton;
     }
     
     @Override
-    public <T> T getBean(String id, Class<T> requiredType) throws NoSuchBeanDefinitionException, BeanCreationException {
-        Object bean = getBean(id);
-        
-        if (requiredType != null && !requiredType.isInstance(bean)) {
-            throw new BeanCreationException(id, 
-                "Bean is not of required type " + requiredType.getName() + 
-                ", actual type is " + bean.getClass().getName());
+    protected Collection<String> getDependencyNames(BeanDefinition beanDefinition) {
+        InjectionPlan plan;
+        try {
+            plan = getInjectionPlan(beanDefinition, beanDefinition.getBeanClass());
+        } catch (Exception e) {
+            return super.getDependencyNames(beanDefinition);
         }
         
-        return requiredType.cast(bean);
+        // Provider and ObjectFactory references need not exist before the bean
+        List<String> dependencyNames = new ArrayList<>();
+        for (InjectionPoint injectionPoint : plan.getMemberInjectionPoints()) {
+            if (injectionPoint.hasQualifier() && !injectionPoint.isDeferred()) {
+                dependencyNames.add(injectionPoint.getQualifier());
+            }
+        }
+        return dependencyNames;
     }
     
     @Override
-    public boolean containsBean(String id) {
-        return containsBeanDefinition(id);
+    protected Object doCreateBean(BeanDefinition beanDefinition, Class<?> beanClass) throws Exception {
+        InjectionPlan plan = getInjectionPlan(beanDefinition, beanClass);
+        
+        // Create a new instance
+        Object beanInstance = plan.newInstance(NO_ARGUMENTS);
+        logger.debug("Instantiated bean: {}", beanDefinition.getId());
+        
+        // Inject dependencies
+        for (InjectionPoint injectionPoint : plan.getMemberInjectionPoints()) {
+            // If this is a reference, get the bean it refers to
+            Object value;
+            if (injectionPoint.isWrapped()) {
+                value = wrapDependency(injectionPoint, injectionPoint.hasTarget() ? injectionPoint.getTarget() 
+                        : handle(injectionPoint.getQualifier(), injectionPoint.getDependencyType()));
+            } else if (injectionPoint.hasTarget()) {
+                value = injectionPoint.getTarget().get();
+            } else if (injectionPoint.hasQualifier()) {
+                value = getBean(injectionPoint.getQualifier());
+            } else {
+                value = injectionPoint.getValue();
+            }
+            try {
+                injectionPoint.inject(beanInstance, value);
+            } catch (Exception e) {
+                String injectionType = injectionPoint.getKind() == InjectionPoint.Kind.METHOD ? "setter" : "field";
+                throw new Exception("Error injecting property " + injectionPoint.getName() + " by " + injectionType, e);
+            }
+        }
+        
+        return beanInstance;
     }
     
     /**
-     * Create a new bean instance from the given bean definition.
+     * Return the injection plan of the given bean definition, computing it on first use.
+     * Setters and fields of every property are looked up and bound once, and
+     * literal values are converted to the property type once.
      * 
      * @param beanDefinition the bean definition
-     * @return the bean instance
+     * @param beanClass the loaded bean class
+     * @return the cached injection plan
      */
-    protected Object createBean(BeanDefinition beanDefinition) throws Exception {
-        String beanId = beanDefinition.getId();
-        logger.debug("Creating bean: " + beanId);
-        
-        // Check for circular dependencies
-        if (currentlyCreatingBeans.contains(beanId)) {
-            logger.error("Circular reference detected for bean: " + beanId);
-            throw new CircularDependencyException(beanId, new HashSet<>(currentlyCreatingBeans));
-        }
-        
-        try {
-            // Mark this bean as currently being created
-            currentlyCreatingBeans.add(beanId);
-            
-            // Load the bean class
-            Class<?> beanClass = Class.forName(beanDefinition.getClassName());
-            logger.debug("Loaded class: " + beanClass.getName());
-            
-            // Create a new instance
-            Object beanInstance = instantiateBean(beanClass);
-            logger.debug("Instantiated bean: " + beanId);
-            
-            // Inject dependencies
-            injectDependencies(beanInstance, beanDefinition);
-            logger.debug("Injected dependencies for bean: " + beanId);
-            
-            return beanInstance;
-        } finally {
-            // Remove from currently creating beans
-            currentlyCreatingBeans.remove(beanId);
+    private InjectionPlan getInjectionPlan(BeanDefinition beanDefinition, Class<?> beanClass) throws Exception {
+        InjectionPlan plan = injectionPlans.get(beanDefinition);
+        if (plan == null) {
+            logger.debug("Computing injection plan for bean: {}", beanDefinition.getId());
+            plan = resolveBeanReferences(buildInjectionPlan(beanDefinition, beanClass));
+            InjectionPlan existing = injectionPlans.putIfAbsent(beanDefinition, plan);
+            if (existing != null) {
+                plan = existing;
+            }
         }
+        return plan;
     }
     
-    // BeanDefinitionRegistry implementation
-    
-    @Override
-    public void registerBeanDefinition(BeanDefinition beanDefinition) throws BeanCreationException {
-        String beanId = beanDefinition.getId();
-        if (beanId == null || beanId.isEmpty()) {
-            throw new BeanCreationException(beanId, "Bean ID cannot be null or empty");
-        }
+    private InjectionPlan buildInjectionPlan(BeanDefinition beanDefinition, Class<?> beanClass) throws Exception {
+        BeanInstantiator instantiator = getBeanInstantiator();
+        Constructor<?> constructor = findDefaultConstructor(beanClass);
         
-        if (containsBeanDefinition(beanId)) {
-            logger.warn("Overriding bean definition for bean '" + beanId + "'");
+        List<InjectionPoint> injectionPoints = new ArrayList<>();
+        for (PropertyValue propertyValue : beanDefinition.getPropertyValues()) {
+            injectionPoints.add(buildInjectionPoint(beanClass, propertyValue, instantiator));
         }
         
-        logger.debug("Registering bean definition: " + beanId);
-        beanDefinitionMap.put(beanId, beanDefinition);
-    }
-    
-    @Override
-    public BeanDefinition getBeanDefinition(String beanId) throws NoSuchBeanDefinitionException {
-        BeanDefinition bd = beanDefinitionMap.get(beanId);
-        if (bd == null) {
-            throw new NoSuchBeanDefinitionException(beanId);
-        }
-        return bd;
-    }
-    
-    @Override
-    public boolean containsBeanDefinition(String beanId) {
-        return beanDefinitionMap.containsKey(beanId);
-    }
-    
-    @Override
-    public String[] getBeanDefinitionNames() {
-        return beanDefinitionMap.keySet().toArray(new String[0]);
-    }
-    
-    @Override
-    public Map<String, BeanDefinition> getBeanDefinitions() {
-        return Map.copyOf(beanDefinitionMap);
+        return new InjectionPlan(beanClass, constructor, instantiator.bindConstructor(constructor),
+                Collections.emptyList(), injectionPoints);
     }
     
-    private Object instantiateBean(Class<?> beanClass) throws Exception {
+    private Constructor<?> findDefaultConstructor(Class<?> beanClass) throws Exception {
         try {
             // Try to get the default constructor
             Constructor<?> constructor = beanClass.getDeclaredConstructor();
             constructor.setAccessible(true);
-            return constructor.newInstance();
+            return constructor;
         } catch (NoSuchMethodException e) {
             // If no default constructor, find the first available constructor
             Constructor<?>[] constructors = beanClass.getDeclaredConstructors();
@@ -293,75 +295,54 @@ public class XmlApplicationContext implements ApplicationContext, BeanDefinition
         }
     }
     
-    private void injectDependencies(Object beanInstance, BeanDefinition beanDefinition) throws Exception {
-        for (PropertyValue propertyValue : beanDefinition.getPropertyValues()) {
-            String propertyName = propertyValue.getName();
-            Object value = propertyValue.getValue();
-            boolean isRef = propertyValue.isRef();
-            
-            // If this is a reference, get the bean it refers to
-            if (isRef) {
-                value = getBean((String) value);
-            }
-            
-            // Try setter injection first
-            boolean injected = injectBySetterMethod(beanInstance, propertyName, value);
-            
-            // If no setter found, try field injection
-            if (!injected) {
-                injectByField(beanInstance, propertyName, value);
-            }
+    private InjectionPoint buildInjectionPoint(Class<?> beanClass, PropertyValue propertyValue,
+                                               BeanInstantiator instantiator) throws Exception {
+        String propertyName = propertyValue.getName();
+        
+        // Try setter injection first
+        Method setter = findSetter(beanClass, propertyName);
+        if (setter != null) {
+            Class<?> paramType = setter.getParameterTypes()[0];
+            return buildInjectionPoint(InjectionPoint.Kind.METHOD, setter, paramType,
+                    setter.getGenericParameterTypes()[0], propertyValue, instantiator.bindMethod(setter));
+        }
+        
+        // If no setter found, try field injection
+        Field field = findField(beanClass, propertyName);
+        if (field == null) {
+            throw new Exception("Error injecting property " + propertyName + " by field",
+                    new Exception("No setter method or field found for property: " + propertyName));
         }
+        field.setAccessible(true);
+        return buildInjectionPoint(InjectionPoint.Kind.FIELD, field, field.getType(),
+                field.getGenericType(), propertyValue, instantiator.bindField(field));
     }
     
-    private boolean injectBySetterMethod(Object beanInstance, String propertyName, Object value) throws Exception {
-        Class<?> beanClass = beanInstance.getClass();
-        
-        // Construct the setter method name
-        String setterMethodName = "set" + Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
-        
-        try {
-            // Find setter methods
-            Method[] methods = beanClass.getMethods();
-            for (Method method : methods) {
-                if (method.getName().equals(setterMethodName) && method.getParameterCount() == 1) {
-                    // Convert value if needed
-                    Class<?> paramType = method.getParameterTypes()[0];
-                    Object convertedValue = convertValueIfNeeded(value, paramType);
-                    
-                    // Invoke the setter
-                    method.invoke(beanInstance, convertedValue);
-                    return true;
-                }
-            }
-        } catch (Exception e) {
-            throw new Exception("Error injecting property " + propertyName + " by setter", e);
+    private InjectionPoint buildInjectionPoint(InjectionPoint.Kind kind, Member member, Class<?> type,
+                                               Type genericType, PropertyValue propertyValue,
+                                               BeanInstantiator.MemberInjector injector) {
+        if (propertyValue.isRef()) {
+            // References may also be injected as Provider, ObjectFactory or Optional of the bean type
+            return new InjectionPoint(kind, member, propertyValue.getName(), type,
+                    (String) propertyValue.getValue(), true, injector).unwrap(genericType);
         }
         
-        return false;
+        // Convert value if needed
+        Object convertedValue = convertValueIfNeeded(propertyValue.getValue(), type);
+        return new InjectionPoint(kind, member, propertyValue.getName(), type, convertedValue, injector);
     }
     
-    private void injectByField(Object beanInstance, String propertyName, Object value) throws Exception {
-        Class<?> beanClass = beanInstance.getClass();
+    private Method findSetter(Class<?> beanClass, String propertyName) {
+        // Construct the setter method name
+        String setterMethodName = "set" + Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
         
-        try {
-            // Look for field with matching name
-            Field field = findField(beanClass, propertyName);
-            
-            if (field != null) {
-                field.setAccessible(true);
-                
-                // Convert value if needed
-                Object convertedValue = convertValueIfNeeded(value, field.getType());
-                
-                // Set the field value
-                field.set(beanInstance, convertedValue);
-            } else {
-                throw new Exception("No setter method or field found for property: " + propertyName);
+        // Find setter methods
+        for (Method method : beanClass.getMethods()) {
+            if (method.getName().equals(setterMethodName) && method.getParameterCount() == 1) {
+                return method;
             }
-        } catch (Exception e) {
-            throw new Exception("Error injecting property " + propertyName + " by field", e);
         }
+        return null;
     }
     
     private Field findField(Class<?> clazz, String fieldName) {
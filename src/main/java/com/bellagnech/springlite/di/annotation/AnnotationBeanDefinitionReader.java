@@ -4,23 +4,61 @@ import com.bellagnech.springlite.di.BeanCreationException;
 import com.bellagnech.springlite.di.BeanDefinition;
 import com.bellagnech.springlite.di.BeanDefinitionRegistry;
 import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Lazy;
 import com.bellagnech.springlite.di.annotations.Scope;
 import com.bellagnech.springlite.di.util.ClasspathScanner;
+import com.bellagnech.springlite.di.util.Logger;
 
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
 
 /**
  * Bean definition reader that scans and registers beans based on annotations.
- * Looks for classes with @Component annotation and creates bean definitions from them.
+ * Looks for classes with @Component annotation, or with an annotation itself
+ * annotated with @Component, and creates bean definitions from them.
+ * When a {@link ComponentIndex} was generated at build time, the indexed
+ * components are registered instead, and only the locations of the base
+ * packages in classpath roots without an index are scanned.
  */
 public class AnnotationBeanDefinitionReader {
     
+    private static final Logger logger = Logger.getLogger(AnnotationBeanDefinitionReader.class);
+    
     private final BeanDefinitionRegistry registry;
+    private ClassLoader classLoader;
+    private ScanCache scanCache;
     
     public AnnotationBeanDefinitionReader(BeanDefinitionRegistry registry) {
         this.registry = registry;
     }
     
+    /**
+     * Set the class loader used to scan packages and load candidate classes.
+     * 
+     * @param classLoader the class loader, or null for the thread context class loader
+     */
+    public void setClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+    
+    /**
+     * Set the cache of scan results used when there is no component index.
+     * Components are read from the cache while the scanned locations are
+     * unchanged, and the cache is rewritten after each full scan.
+     * 
+     * @param scanCache the cache, or null to always scan
+     */
+    public void setScanCache(ScanCache scanCache) {
+        this.scanCache = scanCache;
+    }
+    
     /**
      * Scan the given packages for bean candidates.
      * 
@@ -28,40 +66,122 @@ public class AnnotationBeanDefinitionReader {
      * @throws Exception if an error occurs during scanning
      */
     public void scan(String... basePackages) throws Exception {
-        for (String basePackage : basePackages) {
-            List<Class<?>> classes = ClasspathScanner.findClassesInPackage(basePackage);
+        BiPredicate<URL, String> locationFilter = (location, packageName) -> true;
+        Set<String> indexedClasses = Collections.emptySet();
+        
+        ComponentIndex index = ComponentIndex.load(resolveClassLoader());
+        if (index != null) {
+            // Components of the roots shipping an index are known from the build
+            List<ComponentIndex.Entry> components = index.getComponents(basePackages);
+            logger.debug("Registering {} components from the component index", components.size());
+            indexedClasses = new HashSet<>();
+            for (ComponentIndex.Entry component : components) {
+                registerBeanDefinition(component);
+                indexedClasses.add(component.getClassName());
+            }
             
-            for (Class<?> clazz : classes) {
-                if (isComponent(clazz)) {
-                    registerBeanDefinition(clazz);
+            // Other roots, such as jars built without the processor, are scanned
+            if (!hasUnindexedLocation(index, basePackages)) {
+                return;
+            }
+            locationFilter = (location, packageName) -> !index.isIndexed(location, packageName);
+        }
+        
+        byte[] fingerprint = null;
+        if (scanCache != null) {
+            fingerprint = ClasspathScanner.fingerprint(classLoader, locationFilter, basePackages);
+            List<ComponentIndex.Entry> components = fingerprint != null ? scanCache.load(fingerprint) : null;
+            if (components != null) {
+                logger.debug("Registering {} components from the scan cache", components.size());
+                for (ComponentIndex.Entry component : components) {
+                    if (!indexedClasses.contains(component.getClassName())) {
+                        registerBeanDefinition(component);
+                    }
                 }
+                return;
+            }
+        }
+        
+        // Only classes annotated with @Component, directly or not, are loaded.
+        // The packages are scanned in parallel, classes come back sorted by name.
+        List<Class<?>> classes = ClasspathScanner.findAnnotatedClasses(
+                Component.class, classLoader, locationFilter, basePackages);
+        List<ComponentIndex.Entry> components = new ArrayList<>(classes.size());
+        
+        for (Class<?> clazz : classes) {
+            if (indexedClasses.contains(clazz.getName())) {
+                continue; // Also in an indexed root, registered from the index
+            }
+            BeanDefinition beanDefinition = registerBeanDefinition(clazz);
+            components.add(new ComponentIndex.Entry(beanDefinition.getClassName(), beanDefinition.getId(), 
+                    beanDefinition.getScope(), beanDefinition.getLazyInit()));
+        }
+        
+        if (fingerprint != null) {
+            try {
+                scanCache.store(fingerprint, components);
+            } catch (IOException e) {
+                logger.warn("Could not write scan cache {}: {}", scanCache.getFile(), e);
             }
         }
     }
     
     /**
-     * Check if a class is annotated with @Component.
+     * Check whether some location of the given packages lies in a classpath root
+     * without an index, warning about each one: their components are only found by scanning.
+     */
+    private boolean hasUnindexedLocation(ComponentIndex index, String... basePackages) throws IOException {
+        boolean found = false;
+        for (String basePackage : basePackages) {
+            Enumeration<URL> locations = resolveClassLoader().getResources(basePackage.replace('.', '/'));
+            while (locations.hasMoreElements()) {
+                URL location = locations.nextElement();
+                if (!index.isIndexed(location, basePackage)) {
+                    logger.warn("No component index for package {} in {}, scanning it", basePackage, location);
+                    found = true;
+                }
+            }
+        }
+        return found;
+    }
+    
+    private ClassLoader resolveClassLoader() {
+        if (classLoader != null) {
+            return classLoader;
+        }
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return contextClassLoader != null ? contextClassLoader : getClass().getClassLoader();
+    }
+    
+    /**
+     * Register a bean definition from a component index entry.
+     * The class is resolved when the context is refreshed.
      * 
-     * @param clazz the class to check
-     * @return true if the class is a component
+     * @param component the indexed component
+     * @throws BeanCreationException if bean registration fails
      */
-    private boolean isComponent(Class<?> clazz) {
-        return clazz.isAnnotationPresent(Component.class);
+    private void registerBeanDefinition(ComponentIndex.Entry component) throws BeanCreationException {
+        BeanDefinition beanDefinition = new BeanDefinition(
+                component.getBeanName(), component.getClassName(), component.getScope());
+        beanDefinition.setLazyInit(component.getLazyInit());
+        registry.registerBeanDefinition(beanDefinition);
     }
     
     /**
      * Register a bean definition from the annotated class.
      * 
      * @param clazz the annotated class
+     * @return the registered bean definition
      * @throws BeanCreationException if bean registration fails
      */
-    private void registerBeanDefinition(Class<?> clazz) throws BeanCreationException {
+    private BeanDefinition registerBeanDefinition(Class<?> clazz) throws BeanCreationException {
         BeanDefinition beanDefinition = new BeanDefinition();
-        beanDefinition.setClassName(clazz.getName());
+        beanDefinition.setBeanClass(clazz); // Already loaded by the scanner
         
         // Determine bean ID (name)
+        // Components declared through a stereotype annotation have no explicit name
         Component componentAnnotation = clazz.getAnnotation(Component.class);
-        String beanName = componentAnnotation.value();
+        String beanName = componentAnnotation != null ? componentAnnotation.value() : null;
         
         // If no explicit name, use the simple class name with lowercase first letter
         if (beanName == null || beanName.isEmpty()) {
@@ -77,7 +197,13 @@ public class AnnotationBeanDefinitionReader {
             beanDefinition.setScope(scopeAnnotation.value());
         }
         
+        // Check for lazy annotation
+        if (clazz.isAnnotationPresent(Lazy.class)) {
+            beanDefinition.setLazyInit(clazz.getAnnotation(Lazy.class).value());
+        }
+        
         // Register the bean definition
         registry.registerBeanDefinition(beanDefinition);
+        return beanDefinition;
     }
 }
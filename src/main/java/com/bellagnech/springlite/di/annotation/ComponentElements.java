@@ -0,0 +1,124 @@
+package com.bellagnech.springlite.di.annotation;
+
+import com.bellagnech.springlite.di.BeanDefinition;
+import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Lazy;
+import com.bellagnech.springlite.di.annotations.Qualifier;
+import com.bellagnech.springlite.di.annotations.Scope;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * Reads components from the language model during annotation processing,
+ * following the same rules as {@link AnnotationBeanDefinitionReader} does
+ * with reflection at runtime.
+ */
+final class ComponentElements {
+    
+    private final Elements elements;
+    
+    ComponentElements(Elements elements) {
+        this.elements = elements;
+    }
+    
+    /**
+     * Check whether the type is annotated with {@link Component}, directly or
+     * through a meta-annotation.
+     */
+    boolean isComponent(TypeElement type) {
+        return isAnnotated(type, new HashSet<>());
+    }
+    
+    private boolean isAnnotated(TypeElement type, Set<String> visited) {
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            String name = annotationType.getQualifiedName().toString();
+            if (name.equals(Component.class.getName())) {
+                return true;
+            }
+            // Look for @Component on the annotation, guarding against annotations annotating each other
+            if (!name.startsWith("java.") && visited.add(name) && isAnnotated(annotationType, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    String getBinaryName(TypeElement type) {
+        return elements.getBinaryName(type).toString();
+    }
+    
+    /**
+     * Create the index entry of a component.
+     */
+    ComponentIndex.Entry createEntry(TypeElement type) {
+        String beanName = stringValue(findAnnotation(type, Component.class.getName()));
+        if (beanName == null || beanName.isEmpty()) {
+            String simpleName = type.getSimpleName().toString();
+            beanName = Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+        }
+        
+        AnnotationMirror scope = findAnnotation(type, Scope.class.getName());
+        String scopeName = scope != null ? stringValue(scope) : BeanDefinition.SCOPE_SINGLETON;
+        
+        AnnotationMirror lazy = findAnnotation(type, Lazy.class.getName());
+        Boolean lazyInit = lazy != null ? (Boolean) annotationValue(lazy).getValue() : null;
+        
+        return new ComponentIndex.Entry(getBinaryName(type), beanName, scopeName, lazyInit);
+    }
+    
+    /**
+     * Get the value of the {@link Qualifier} annotation of an element.
+     * 
+     * @return the qualifier, or null if the element has none
+     */
+    String getQualifier(Element element) {
+        return stringValue(findAnnotation(element, Qualifier.class.getName()));
+    }
+    
+    /**
+     * Find the annotation of the given type on an element.
+     * 
+     * @return the annotation, or null if the element is not annotated with it
+     */
+    static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+    
+    private String stringValue(AnnotationMirror annotation) {
+        return annotation != null ? (String) annotationValue(annotation).getValue() : null;
+    }
+    
+    /**
+     * Get an element of an annotation, or its default value.
+     */
+    AnnotationValue annotationValue(AnnotationMirror annotation, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values = 
+                elements.getElementValuesWithDefaults(annotation);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+        throw new IllegalStateException("No " + name + " element in " + annotation);
+    }
+    
+    private AnnotationValue annotationValue(AnnotationMirror annotation) {
+        return annotationValue(annotation, "value");
+    }
+}
@@ -0,0 +1,222 @@
+package com.bellagnech.springlite.di.annotation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the components of the classpath, generated at compile time by the
+ * {@link ComponentIndexProcessor} into {@value #INDEX_LOCATION}.
+ * <p>
+ * When an index is present, {@link AnnotationBeanDefinitionReader} registers
+ * the indexed components instead of scanning the classpath roots that ship an
+ * index; the other roots, such as jars built without the processor, are still
+ * scanned. The system property
+ * {@value #IGNORE_INDEX_PROPERTY} set to {@code true} disables the index.
+ * <p>
+ * The index is a text file with one component per line, made of tab-separated
+ * columns: class name, bean name, scope and lazy flag (empty when not specified).
+ * Lines starting with {@code #} are comments. A fifth column of qualifiers,
+ * written by earlier versions, is ignored.
+ */
+public final class ComponentIndex {
+    
+    public static final String INDEX_LOCATION = "META-INF/springlite.components";
+    
+    public static final String IGNORE_INDEX_PROPERTY = "springlite.index.ignore";
+    
+    private final Map<String, Entry> entries;
+    
+    // Locations of the classpath roots that ship an index, ending with a slash
+    private final Set<String> indexedRoots;
+    
+    ComponentIndex(Collection<Entry> entries, Set<String> indexedRoots) {
+        this.entries = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            this.entries.putIfAbsent(entry.getClassName(), entry);
+        }
+        this.indexedRoots = indexedRoots;
+    }
+    
+    /**
+     * Load the indexes of every classpath location of the class loader.
+     * 
+     * @param classLoader the class loader
+     * @return the merged index, or null if there is no index or it is ignored
+     * @throws IOException if an index cannot be read
+     */
+    public static ComponentIndex load(ClassLoader classLoader) throws IOException {
+        if (Boolean.getBoolean(IGNORE_INDEX_PROPERTY)) {
+            return null;
+        }
+        
+        Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+        
+        List<Entry> entries = new ArrayList<>();
+        Set<String> indexedRoots = new HashSet<>();
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            String location = resource.toString();
+            indexedRoots.add(location.substring(0, location.length() - INDEX_LOCATION.length()));
+            try (InputStream in = resource.openStream()) {
+                entries.addAll(read(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            }
+        }
+        return new ComponentIndex(entries, indexedRoots);
+    }
+    
+    /**
+     * Check whether the given location of a package lies in a classpath root that
+     * ships an index, in which case its components are all in the index.
+     * 
+     * @param packageLocation the location of the package, as found by the class loader
+     * @param packageName the package
+     * @return true if the package location is covered by an index
+     */
+    public boolean isIndexed(URL packageLocation, String packageName) {
+        String location = packageLocation.toString();
+        String packagePath = packageName.replace('.', '/');
+        if (location.endsWith("/")) {
+            location = location.substring(0, location.length() - 1);
+        }
+        if (!location.endsWith(packagePath)) {
+            return false;
+        }
+        return indexedRoots.contains(location.substring(0, location.length() - packagePath.length()));
+    }
+    
+    /**
+     * Get the indexed components located in the given packages or their subpackages.
+     * 
+     * @param basePackages the packages
+     * @return the components, in index order
+     */
+    public List<Entry> getComponents(String... basePackages) {
+        List<Entry> components = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            for (String basePackage : basePackages) {
+                if (entry.getClassName().startsWith(basePackage + ".")) {
+                    components.add(entry);
+                    break;
+                }
+            }
+        }
+        return components;
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Parse index entries.
+     * 
+     * @param reader the reader of the index
+     * @return the entries
+     * @throws IOException if the index cannot be read or is malformed
+     */
+    public static List<Entry> read(Reader reader) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\t", -1);
+            if (columns.length != 4 && columns.length != 5) {
+                throw new IOException("Malformed component index line: " + line);
+            }
+            Boolean lazy = columns[3].isEmpty() ? null : Boolean.valueOf(columns[3]);
+            entries.add(new Entry(columns[0], columns[1], columns[2], lazy));
+        }
+        return entries;
+    }
+    
+    /**
+     * Write index entries, sorted by class name so that builds are reproducible.
+     * 
+     * @param writer the writer of the index
+     * @param entries the entries
+     * @throws IOException if the index cannot be written
+     */
+    public static void write(Writer writer, Collection<Entry> entries) throws IOException {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort((a, b) -> a.getClassName().compareTo(b.getClassName()));
+        
+        writer.write("# Generated by " + ComponentIndexProcessor.class.getName() + "\n");
+        writer.write("# class\tname\tscope\tlazy\n");
+        for (Entry entry : sorted) {
+            writer.write(entry.getClassName() + "\t" + entry.getBeanName() + "\t" + entry.getScope() + "\t"
+                    + (entry.getLazyInit() != null ? entry.getLazyInit() : "") + "\n");
+        }
+        writer.flush();
+    }
+    
+    /**
+     * A component of the index.
+     */
+    public static final class Entry {
+        
+        private final String className;
+        private final String beanName;
+        private final String scope;
+        private final Boolean lazyInit;
+        
+        public Entry(String className, String beanName, String scope, Boolean lazyInit) {
+            this.className = className;
+            this.beanName = beanName;
+            this.scope = scope;
+            this.lazyInit = lazyInit;
+        }
+        
+        /**
+         * Get the binary name of the component class.
+         */
+        public String getClassName() {
+            return className;
+        }
+        
+        public String getBeanName() {
+            return beanName;
+        }
+        
+        public String getScope() {
+            return scope;
+        }
+        
+        /**
+         * Get the value of the {@code @Lazy} annotation of the component.
+         * 
+         * @return the lazy flag, or null if the component is not annotated
+         */
+        public Boolean getLazyInit() {
+            return lazyInit;
+        }
+        
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "className='" + className + '\'' +
+                    ", beanName='" + beanName + '\'' +
+                    ", scope='" + scope + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.bellagnech.springlite.di.annotation;
+
+import com.bellagnech.springlite.di.annotations.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor writing the {@link ComponentIndex} of the compiled
+ * classes: every class annotated with {@link Component}, directly or through
+ * a meta-annotation, with its bean name, scope and lazy flag.
+ * <p>
+ * The processor is registered as a service, so it runs whenever the framework
+ * is on the annotation processor path of a build, but only writes the index
+ * with the {@value #INDEX_OPTION} option set to {@code true}: an index replaces
+ * scanning of the packages it covers, which only the owner of a module should opt in to.
+ * On incremental builds the entries of the previous index are kept for the
+ * classes that still exist.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ComponentIndexProcessor.INDEX_OPTION)
+public class ComponentIndexProcessor extends AbstractProcessor {
+    
+    public static final String INDEX_OPTION = "springlite.index";
+    
+    private final Map<String, ComponentIndex.Entry> components = new LinkedHashMap<>();
+    
+    // Binary names of all the types compiled by this build
+    private final Set<String> processedTypes = new HashSet<>();
+    
+    private ComponentElements componentElements;
+    
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        componentElements = new ComponentElements(processingEnv.getElementUtils());
+    }
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+    
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!Boolean.parseBoolean(processingEnv.getOptions().get(INDEX_OPTION))) {
+            return false;
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            for (Element element : roundEnv.getRootElements()) {
+                collectComponents(element);
+            }
+        }
+        // Never claim the annotations, other processors may need them
+        return false;
+    }
+    
+    private void collectComponents(Element element) {
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        String className = componentElements.getBinaryName(type);
+        processedTypes.add(className);
+        if ((type.getKind() == ElementKind.CLASS || type.getKind() == ElementKind.ENUM) 
+                && componentElements.isComponent(type)) {
+            components.put(className, componentElements.createEntry(type));
+        }
+        
+        // Static nested components are found by scanning too
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed.getModifiers().contains(Modifier.STATIC) || enclosed.getKind() == ElementKind.ENUM) {
+                collectComponents(enclosed);
+            }
+        }
+    }
+    
+    private void writeIndex() {
+        Map<String, ComponentIndex.Entry> index = new LinkedHashMap<>();
+        readPreviousIndex(index);
+        index.putAll(components);
+        if (index.isEmpty()) {
+            return;
+        }
+        
+        try {
+            FileObject file = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                ComponentIndex.write(writer, index.values());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, 
+                    "Could not write component index: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Keep the entries of an index written by a previous build for the classes
+     * that were not compiled again and still exist.
+     */
+    private void readPreviousIndex(Map<String, ComponentIndex.Entry> index) {
+        try {
+            FileObject file = processingEnv.getFiler().getResource(
+                    StandardLocation.CLASS_OUTPUT, "", ComponentIndex.INDEX_LOCATION);
+            try (Reader reader = file.openReader(true)) {
+                for (ComponentIndex.Entry entry : ComponentIndex.read(reader)) {
+                    String canonicalName = entry.getClassName().replace('$', '.');
+                    if (!processedTypes.contains(entry.getClassName()) 
+                            && processingEnv.getElementUtils().getTypeElement(canonicalName) != null) {
+                        index.put(entry.getClassName(), entry);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // No previous index
+        }
+    }
+}
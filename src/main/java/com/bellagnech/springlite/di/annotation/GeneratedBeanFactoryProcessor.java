@@ -0,0 +1,512 @@
+package com.bellagnech.springlite.di.annotation;
+
+import com.bellagnech.springlite.di.BeanHandle;
+import com.bellagnech.springlite.di.GeneratedBeanFactory;
+import com.bellagnech.springlite.di.GeneratedBeans;
+import com.bellagnech.springlite.di.annotations.Autowired;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor generating the reflection-free bean factories used by
+ * {@link com.bellagnech.springlite.di.GeneratedApplicationContext}, enabled
+ * with the {@value #AOT_OPTION} option set to {@code true}.
+ * <p>
+ * For every component it generates a {@link GeneratedBeanFactory} next to the
+ * component class, named after it with a {@code _BeanFactory} suffix, which
+ * calls the constructor with {@code new}, assigns the autowired fields and calls
+ * the autowired setters. Dependencies are resolved at build time, among the
+ * components of the module, with the same rules as at runtime: by qualifier,
+ * then by type, then by name. A {@value #REGISTRY_CLASS} class listing the
+ * factories is generated in the common package of the components, or in the
+ * package given by the {@value #PACKAGE_OPTION} option, and registered as a
+ * {@link GeneratedBeans} service.
+ * <p>
+ * Generated code must be able to reach the injected members, so private
+ * constructors, fields and setters are reported as errors. The factories are
+ * generated from all the components of the module at once and need a full build.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions({GeneratedBeanFactoryProcessor.AOT_OPTION, GeneratedBeanFactoryProcessor.PACKAGE_OPTION})
+public class GeneratedBeanFactoryProcessor extends AbstractProcessor {
+    
+    public static final String AOT_OPTION = "springlite.aot";
+    public static final String PACKAGE_OPTION = "springlite.aot.package";
+    public static final String REGISTRY_CLASS = "SpringLiteGeneratedBeans";
+    
+    private static final String FACTORY_SUFFIX = "_BeanFactory";
+    private static final String PROVIDER = "com.bellagnech.springlite.di.Provider";
+    private static final String OBJECT_FACTORY = "com.bellagnech.springlite.di.ObjectFactory";
+    private static final String OPTIONAL = "java.util.Optional";
+    private static final String BEAN_HANDLE = BeanHandle.class.getName();
+    private static final String GENERATED_BEAN_FACTORY = GeneratedBeanFactory.class.getName();
+    
+    private ComponentElements componentElements;
+    private Types types;
+    private boolean generated;
+    
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        componentElements = new ComponentElements(processingEnv.getElementUtils());
+        types = processingEnv.getTypeUtils();
+    }
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+    
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!Boolean.parseBoolean(processingEnv.getOptions().get(AOT_OPTION)) || roundEnv.processingOver()) {
+            return false;
+        }
+        
+        List<Component> components = new ArrayList<>();
+        for (Element element : roundEnv.getRootElements()) {
+            collectComponents(element, components);
+        }
+        if (components.isEmpty()) {
+            return false;
+        }
+        if (generated) {
+            // Generated by another processor after the registry was written
+            for (Component component : components) {
+                error(component.type, "Component generated in a later round cannot be added to " + REGISTRY_CLASS);
+            }
+            return false;
+        }
+        generated = true;
+        
+        boolean valid = true;
+        for (Component component : components) {
+            valid &= resolve(component, components);
+        }
+        if (valid) {
+            for (Component component : components) {
+                writeFactory(component);
+            }
+            writeRegistry(components);
+        }
+        return false;
+    }
+    
+    private void collectComponents(Element element, List<Component> components) {
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT) 
+                && componentElements.isComponent(type)) {
+            components.add(new Component(type, componentElements.createEntry(type)));
+        }
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed.getModifiers().contains(Modifier.STATIC)) {
+                collectComponents(enclosed, components);
+            }
+        }
+    }
+    
+    /**
+     * Find the constructor and the autowired members of a component and resolve
+     * their dependencies, reporting what generated code cannot do.
+     * 
+     * @return true if the factory can be generated
+     */
+    private boolean resolve(Component component, List<Component> components) {
+        TypeElement type = component.type;
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            error(type, "Private components cannot be created by generated code");
+            return false;
+        }
+        
+        // Same rules as InjectionPlan: the @Autowired constructor, else the default one
+        ExecutableElement constructor = null;
+        for (ExecutableElement candidate : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (isAutowired(candidate)) {
+                if (constructor != null && isAutowired(constructor)) {
+                    error(type, "Multiple constructors annotated with @Autowired");
+                    return false;
+                }
+                constructor = candidate;
+            } else if (candidate.getParameters().isEmpty() && (constructor == null || !isAutowired(constructor))) {
+                constructor = candidate;
+            }
+        }
+        if (constructor == null) {
+            error(type, "No default constructor found. Either add a default constructor or annotate a constructor with @Autowired");
+            return false;
+        }
+        if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+            error(constructor, "Private constructors cannot be called by generated code");
+            return false;
+        }
+        
+        boolean valid = true;
+        if (isAutowired(constructor)) {
+            for (VariableElement parameter : constructor.getParameters()) {
+                String expression = resolveDependency(component, components, parameter, 
+                        parameter.getSimpleName().toString(), parameter.asType(), 
+                        componentElements.getQualifier(parameter), true);
+                valid &= expression != null;
+                component.constructorArguments.add(expression);
+            }
+        }
+        
+        // Fields first, from the class up its hierarchy, then setter methods
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (!isAutowired(field)) {
+                    continue;
+                }
+                if (!isAccessible(field, type) || field.getModifiers().contains(Modifier.FINAL)) {
+                    error(field, "Autowired field is not assignable by generated code, make it package-private and not final");
+                    valid = false;
+                    continue;
+                }
+                String expression = resolveDependency(component, components, field, field.getSimpleName().toString(),
+                        field.asType(), componentElements.getQualifier(field), isRequired(field));
+                if (expression == null) {
+                    valid &= !component.failed;
+                    continue;
+                }
+                component.memberInjections.add("bean." + field.getSimpleName() + " = " + expression + ";");
+            }
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!isAutowired(method) || method.getParameters().size() != 1 
+                    || !method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            VariableElement parameter = method.getParameters().get(0);
+            String qualifier = componentElements.getQualifier(method);
+            if (qualifier == null) {
+                qualifier = componentElements.getQualifier(parameter);
+            }
+            String expression = resolveDependency(component, components, method, method.getSimpleName().toString(),
+                    parameter.asType(), qualifier, isRequired(method));
+            if (expression == null) {
+                valid &= !component.failed;
+                continue;
+            }
+            component.memberInjections.add("bean." + method.getSimpleName() + "(" + expression + ");");
+        }
+        return valid && !component.failed;
+    }
+    
+    /**
+     * Resolve an injection point to the Java expression of its value, registering
+     * the bean it needs as a dependency of the component.
+     * 
+     * @return the expression, or null if nothing is injected or the point cannot be resolved
+     */
+    private String resolveDependency(Component component, List<Component> components, Element element, 
+            String name, TypeMirror type, String qualifier, boolean required) {
+        // Provider<T>, ObjectFactory<T> and Optional<T> inject a T
+        String wrapper = null;
+        TypeMirror dependencyType = type;
+        if (type.getKind() == TypeKind.DECLARED) {
+            String rawName = ((TypeElement) types.asElement(type)).getQualifiedName().toString();
+            if (rawName.equals(PROVIDER) || rawName.equals(OBJECT_FACTORY) || rawName.equals(OPTIONAL)) {
+                List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+                if (typeArguments.size() != 1) {
+                    return fail(component, element, "Raw " + rawName + " cannot be injected");
+                }
+                wrapper = rawName;
+                dependencyType = typeArguments.get(0);
+            }
+        }
+        
+        Component target = null;
+        if (qualifier != null && !qualifier.isEmpty()) {
+            for (Component candidate : components) {
+                if (candidate.beanName.equals(qualifier)) {
+                    target = candidate;
+                }
+            }
+            if (target == null) {
+                return fail(component, element, "No component named '" + qualifier + "' in this module");
+            }
+        } else {
+            List<Component> candidates = new ArrayList<>();
+            for (Component candidate : components) {
+                if (types.isAssignable(types.erasure(candidate.type.asType()), types.erasure(dependencyType))) {
+                    candidates.add(candidate);
+                }
+            }
+            if (candidates.size() == 1) {
+                target = candidates.get(0);
+            } else if (candidates.size() > 1) {
+                // Several beans match, fall back to the name of the injection point
+                String beanName = name;
+                if (element.getKind() == ElementKind.METHOD && name.startsWith("set") && name.length() > 3) {
+                    beanName = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+                }
+                for (Component candidate : candidates) {
+                    if (candidate.beanName.equals(beanName)) {
+                        target = candidate;
+                    }
+                }
+                if (target == null) {
+                    return fail(component, element, "Multiple components match " + dependencyType + ". Consider using @Qualifier.");
+                }
+            }
+        }
+        
+        if (target == null) {
+            if (OPTIONAL.equals(wrapper)) {
+                return "java.util.Optional.empty()";
+            }
+            if (required || wrapper != null) {
+                return fail(component, element, "No component of type " + dependencyType + " in this module");
+            }
+            return null;
+        }
+        
+        int index = component.dependencies.size();
+        boolean deferred = PROVIDER.equals(wrapper) || OBJECT_FACTORY.equals(wrapper);
+        component.dependencies.add((deferred ? "Dependency.deferred(\"" : "Dependency.of(\"") + target.beanName + "\")");
+        String handle = "dependencies[" + index + "]";
+        String typedHandle = "(" + BEAN_HANDLE + "<" + dependencyType + ">) " + handle;
+        
+        if (PROVIDER.equals(wrapper)) {
+            return GENERATED_BEAN_FACTORY + ".provider(" + typedHandle + ")";
+        }
+        if (OBJECT_FACTORY.equals(wrapper)) {
+            return GENERATED_BEAN_FACTORY + ".objectFactory(" + typedHandle + ")";
+        }
+        if (OPTIONAL.equals(wrapper)) {
+            return GENERATED_BEAN_FACTORY + ".optional(" + typedHandle + ")";
+        }
+        return "(" + types.erasure(type) + ") " + handle + ".get()";
+    }
+    
+    private String fail(Component component, Element element, String message) {
+        error(element, message);
+        component.failed = true;
+        return null;
+    }
+    
+    private void writeFactory(Component component) {
+        String packageName = packageOf(component.type);
+        String factoryName = component.factoryName();
+        String beanClass = types.erasure(component.type.asType()).toString();
+        ComponentIndex.Entry entry = component.entry;
+        
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import ").append(GENERATED_BEAN_FACTORY).append(".Dependency;\n\n");
+        source.append("/**\n * Factory of the {@code ").append(entry.getBeanName())
+                .append("} bean, generated by ").append(getClass().getSimpleName()).append(".\n */\n");
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        source.append("public final class ").append(factoryName).append(" implements ")
+                .append(GENERATED_BEAN_FACTORY).append("<").append(beanClass).append("> {\n\n");
+        source.append("    private static final java.util.List<Dependency> DEPENDENCIES = java.util.List.of(")
+                .append(String.join(", ", component.dependencies)).append(");\n\n");
+        appendGetter(source, "String", "getBeanName", quote(entry.getBeanName()));
+        appendGetter(source, "Class<" + beanClass + ">", "getBeanClass", beanClass + ".class");
+        appendGetter(source, "String", "getScope", quote(entry.getScope()));
+        appendGetter(source, "Boolean", "getLazyInit", entry.getLazyInit() != null ? "Boolean." + 
+                entry.getLazyInit().toString().toUpperCase() : "null");
+        appendGetter(source, "java.util.List<Dependency>", "getDependencies", "DEPENDENCIES");
+        source.append("    @Override\n");
+        source.append("    public ").append(beanClass).append(" create(").append(BEAN_HANDLE)
+                .append("<?>[] dependencies) throws Exception {\n");
+        source.append("        ").append(beanClass).append(" bean = new ").append(beanClass).append("(")
+                .append(String.join(", ", component.constructorArguments)).append(");\n");
+        for (String injection : component.memberInjections) {
+            source.append("        ").append(injection).append("\n");
+        }
+        source.append("        return bean;\n");
+        source.append("    }\n");
+        source.append("}\n");
+        
+        String qualifiedName = packageName.isEmpty() ? factoryName : packageName + "." + factoryName;
+        writeSource(qualifiedName, source.toString(), component.type);
+    }
+    
+    private static void appendGetter(StringBuilder source, String type, String name, String value) {
+        source.append("    @Override\n");
+        source.append("    public ").append(type).append(" ").append(name).append("() {\n");
+        source.append("        return ").append(value).append(";\n");
+        source.append("    }\n\n");
+    }
+    
+    private void writeRegistry(List<Component> components) {
+        String packageName = processingEnv.getOptions().get(PACKAGE_OPTION);
+        if (packageName == null) {
+            packageName = commonPackage(components);
+        }
+        if (packageName.isEmpty()) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, 
+                    "Components have no common package, set the package of the generated beans with -A" + PACKAGE_OPTION);
+            return;
+        }
+        
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n");
+        source.append("/**\n * Bean factories of the module, generated by ")
+                .append(getClass().getSimpleName()).append(".\n */\n");
+        source.append("public final class ").append(REGISTRY_CLASS).append(" implements ")
+                .append(GeneratedBeans.class.getName()).append(" {\n\n");
+        source.append("    @Override\n");
+        source.append("    public java.util.List<").append(GENERATED_BEAN_FACTORY).append("<?>> getBeanFactories() {\n");
+        source.append("        return java.util.List.of(\n");
+        for (int i = 0; i < components.size(); i++) {
+            Component component = components.get(i);
+            String factory = packageOf(component.type).isEmpty() ? component.factoryName() 
+                    : packageOf(component.type) + "." + component.factoryName();
+            source.append("                new ").append(factory).append("()")
+                    .append(i < components.size() - 1 ? ",\n" : ");\n");
+        }
+        source.append("    }\n");
+        source.append("}\n");
+        
+        String registryName = packageName + "." + REGISTRY_CLASS;
+        writeSource(registryName, source.toString(), components.get(0).type);
+        
+        try {
+            FileObject services = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", 
+                    "META-INF/services/" + GeneratedBeans.class.getName());
+            try (Writer writer = services.openWriter()) {
+                writer.write(registryName + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, 
+                    "Could not register generated beans: " + e.getMessage());
+        }
+    }
+    
+    private void writeSource(String qualifiedName, String source, Element originatingElement) {
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, originatingElement);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        } catch (IOException e) {
+            error(originatingElement, "Could not write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+    
+    private String commonPackage(List<Component> components) {
+        String common = null;
+        for (Component component : components) {
+            String packageName = packageOf(component.type);
+            if (common == null) {
+                common = packageName;
+            }
+            while (!common.isEmpty() && !(packageName.equals(common) || packageName.startsWith(common + "."))) {
+                int separator = common.lastIndexOf('.');
+                common = separator >= 0 ? common.substring(0, separator) : "";
+            }
+        }
+        return common != null ? common : "";
+    }
+    
+    private String packageOf(TypeElement type) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        return packageElement.getQualifiedName().toString();
+    }
+    
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement superElement = (TypeElement) types.asElement(superclass);
+        return superElement.getQualifiedName().contentEquals("java.lang.Object") ? null : superElement;
+    }
+    
+    private boolean isAccessible(VariableElement field, TypeElement component) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        // Package-private and protected fields are reachable from the package of the component
+        TypeElement declaringType = (TypeElement) field.getEnclosingElement();
+        return packageOf(declaringType).equals(packageOf(component));
+    }
+    
+    private static boolean isAutowired(Element element) {
+        return ComponentElements.findAnnotation(element, Autowired.class.getName()) != null;
+    }
+    
+    private boolean isRequired(Element element) {
+        AnnotationMirror autowired = ComponentElements.findAnnotation(element, Autowired.class.getName());
+        return (Boolean) componentElements.annotationValue(autowired, "required").getValue();
+    }
+    
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+    
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+    
+    /**
+     * A component and the code generated for it.
+     */
+    private static final class Component {
+        
+        final TypeElement type;
+        final String beanName;
+        final ComponentIndex.Entry entry;
+        final List<String> dependencies = new ArrayList<>();
+        final List<String> constructorArguments = new ArrayList<>();
+        final List<String> memberInjections = new ArrayList<>();
+        boolean failed;
+        
+        Component(TypeElement type, ComponentIndex.Entry entry) {
+            this.type = type;
+            this.beanName = entry.getBeanName();
+            this.entry = entry;
+        }
+        
+        /**
+         * Name of the factory class: {@code Outer_Inner_BeanFactory} for {@code Outer.Inner}.
+         */
+        String factoryName() {
+            StringBuilder name = new StringBuilder(type.getSimpleName());
+            for (Element enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement; 
+                    enclosing = enclosing.getEnclosingElement()) {
+                name.insert(0, ((TypeElement) enclosing).getSimpleName() + "_");
+            }
+            return name.append(FACTORY_SUFFIX).toString();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.bellagnech.springlite.di.annotation;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.bellagnech.springlite.di.util.Logger;
+
+/**
+ * File caching the components found by scanning the classpath, for deployments
+ * without a {@link ComponentIndex}. The components are stored along with the
+ * fingerprint of the scanned locations they were found in, and only returned
+ * while the fingerprint is unchanged.
+ * <p>
+ * The file is binary: a header with a magic number, the format version and the
+ * fingerprint, followed by the components. It is memory-mapped when read and
+ * replaced atomically when written, so concurrent startups sharing a cache
+ * file never see a partial file.
+ */
+public final class ScanCache {
+    
+    private static final Logger logger = Logger.getLogger(ScanCache.class);
+    
+    private static final int MAGIC = 0x534C5343; // "SLSC"
+    private static final int VERSION = 2;
+    
+    private static final byte LAZY_UNSPECIFIED = 0;
+    private static final byte LAZY_FALSE = 1;
+    private static final byte LAZY_TRUE = 2;
+    
+    private final Path file;
+    
+    public ScanCache(Path file) {
+        this.file = file;
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    /**
+     * Read the cached components if they were stored with the given fingerprint.
+     * 
+     * @param fingerprint the fingerprint of the locations to scan
+     * @return the components, or null if the cache is missing, stale or unreadable
+     */
+    public List<ComponentIndex.Entry> load(byte[] fingerprint) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                logger.warn("Ignoring scan cache {}: unknown format", file);
+                return null;
+            }
+            
+            byte[] cachedFingerprint = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(cachedFingerprint);
+            if (!Arrays.equals(cachedFingerprint, fingerprint)) {
+                logger.debug("Scan cache {} is stale", file);
+                return null;
+            }
+            
+            int count = buffer.getInt();
+            List<ComponentIndex.Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String className = readString(buffer);
+                String beanName = readString(buffer);
+                String scope = readString(buffer);
+                byte lazy = buffer.get();
+                Boolean lazyInit = lazy == LAZY_UNSPECIFIED ? null : Boolean.valueOf(lazy == LAZY_TRUE);
+                entries.add(new ComponentIndex.Entry(className, beanName, scope, lazyInit));
+            }
+            return entries;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | BufferUnderflowException e) {
+            logger.warn("Ignoring unreadable scan cache {}: {}", file, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Replace the cached components.
+     * 
+     * @param fingerprint the fingerprint of the scanned locations
+     * @param entries the components found
+     * @throws IOException if the cache cannot be written
+     */
+    public void store(byte[] fingerprint, Collection<ComponentIndex.Entry> entries) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeShort(fingerprint.length);
+                out.write(fingerprint);
+                out.writeInt(entries.size());
+                for (ComponentIndex.Entry entry : entries) {
+                    writeString(out, entry.getClassName());
+                    writeString(out, entry.getBeanName());
+                    writeString(out, entry.getScope());
+                    Boolean lazyInit = entry.getLazyInit();
+                    out.writeByte(lazyInit == null ? LAZY_UNSPECIFIED : lazyInit ? LAZY_TRUE : LAZY_FALSE);
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,26 @@
+package com.bellagnech.springlite.di.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * When used on a {@link Component} class, indicates whether the singleton bean
+ * is created on first access instead of when the context is refreshed.
+ * Overrides the default lazy-init mode of the context for the annotated component.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Lazy {
+    
+    /**
+     * Whether the bean is created lazily.
+     * <p>Defaults to {@code true}.
+     * 
+     * @return whether lazy initialization should occur
+     */
+    boolean value() default true;
+}
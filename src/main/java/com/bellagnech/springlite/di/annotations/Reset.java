@@ -0,0 +1,18 @@
+package com.bellagnech.springlite.di.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a no-argument method that restores a pooled bean to a reusable state.
+ * The method is called when the bean is released back to the "pooled" scope;
+ * if it throws, the instance is discarded instead of being pooled.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Reset {
+}
@@ -0,0 +1,449 @@
+package com.bellagnech.springlite.di.scope;
+
+import com.bellagnech.springlite.di.BeanCreationException;
+import com.bellagnech.springlite.di.BeanHandle;
+import com.bellagnech.springlite.di.NoSuchBeanDefinitionException;
+import com.bellagnech.springlite.di.ObjectFactory;
+import com.bellagnech.springlite.di.annotations.Reset;
+import com.bellagnech.springlite.di.util.Logger;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scope recycling bean instances through a bounded pool per bean.
+ * A lookup borrows an idle instance, or creates a new one if the pool is empty;
+ * callers give instances back with {@link #release(Object)}, or by closing a
+ * {@link Lease}, after which the {@link Reset @Reset} method of the bean is called.
+ * Registered by default under the name "pooled".
+ * <p>
+ * Pools are lock-free: idle instances sit in an array of at most {@code maxIdle}
+ * slots that are claimed with compare-and-set. Only idle instances are bounded:
+ * borrowing never blocks, a lookup finding the pool empty creates a new instance
+ * whatever the number already borrowed, and instances released while the pool is
+ * full are dropped. A pool is pre-filled with {@code minIdle} instances on the
+ * first lookup of its bean, and again on a later lookup if that failed.
+ * <p>
+ * Borrowed instances are tracked by identity, without keeping them reachable:
+ * releasing an instance that is not currently borrowed, for example twice,
+ * is ignored so that no instance is ever handed out to two callers.
+ */
+public class PooledScope implements Scope {
+    
+    public static final String SCOPE_NAME = "pooled";
+    
+    private static final Logger logger = Logger.getLogger(PooledScope.class);
+    
+    private final int minIdle;
+    private final int maxIdle;
+    private final Map<String, BeanPool> pools = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Optional<Method>> resetMethods = new ConcurrentHashMap<>();
+    
+    /**
+     * Create a pooled scope keeping up to two idle instances per available processor.
+     */
+    public PooledScope() {
+        this(0, Runtime.getRuntime().availableProcessors() * 2);
+    }
+    
+    /**
+     * Create a pooled scope.
+     * 
+     * @param minIdle the number of instances created when a pool is first used
+     * @param maxIdle the maximum number of idle instances kept per bean, borrowed ones are not bounded
+     */
+    public PooledScope(int minIdle, int maxIdle) {
+        if (maxIdle < 1 || minIdle < 0 || minIdle > maxIdle) {
+            throw new IllegalArgumentException("Invalid pool size: min " + minIdle + ", max " + maxIdle);
+        }
+        this.minIdle = minIdle;
+        this.maxIdle = maxIdle;
+    }
+    
+    @Override
+    public Object get(String beanName, ObjectFactory<?> objectFactory) 
+            throws NoSuchBeanDefinitionException, BeanCreationException {
+        long start = System.nanoTime();
+        BeanPool pool = pools.computeIfAbsent(beanName, name -> new BeanPool(maxIdle));
+        if (minIdle > 0 && !pool.prefilled && pool.prefilling.compareAndSet(false, true)) {
+            try {
+                for (int i = 0; i < minIdle; i++) {
+                    pool.offer(register(pool, objectFactory.getObject()));
+                }
+                pool.prefilled = true;
+            } finally {
+                pool.prefilling.set(false);
+            }
+        }
+        
+        Object instance = pool.poll();
+        if (instance != null) {
+            pool.hits.increment();
+        } else {
+            pool.misses.increment();
+            instance = register(pool, objectFactory.getObject());
+        }
+        pool.borrowed(instance);
+        pool.lookupNanos.add(System.nanoTime() - start);
+        return instance;
+    }
+    
+    /**
+     * Borrow an instance through the given handle, for use in a try-with-resources block
+     * that releases it to the pool.
+     * 
+     * @param <T> the bean type
+     * @param handle the handle of a bean in this scope
+     * @return the lease holding the borrowed instance
+     * @throws BeanCreationException if the instance could not be created
+     */
+    public <T> Lease<T> lease(BeanHandle<T> handle) throws BeanCreationException {
+        return new Lease<>(this, handle.getBeanName(), handle.get());
+    }
+    
+    /**
+     * Release a borrowed instance to the pool of its bean.
+     * The pool is found from the class of the instance, which must be unique
+     * among the pooled beans; use {@link #release(String, Object)} otherwise.
+     * 
+     * @param bean the borrowed instance
+     * @throws IllegalArgumentException if the instance does not belong to a single pooled bean
+     */
+    public void release(Object bean) {
+        String beanName = null;
+        for (Map.Entry<String, BeanPool> entry : pools.entrySet()) {
+            if (entry.getValue().beanClass == bean.getClass()) {
+                if (beanName != null) {
+                    throw new IllegalArgumentException("Several pooled beans of type " + bean.getClass().getName() + 
+                                                       ", release by bean name instead");
+                }
+                beanName = entry.getKey();
+            }
+        }
+        if (beanName == null) {
+            throw new IllegalArgumentException("No pooled bean of type " + bean.getClass().getName());
+        }
+        release(beanName, bean);
+    }
+    
+    /**
+     * Reset a borrowed instance and release it to the pool of the given bean.
+     * Instances whose reset method fails, or released while the pool is full, are dropped.
+     * Instances not currently borrowed from the pool, such as ones already released, are ignored.
+     * 
+     * @param beanName the bean name
+     * @param bean the borrowed instance
+     */
+    public void release(String beanName, Object bean) {
+        BeanPool pool = pools.get(beanName);
+        if (pool == null) {
+            return; // Pool was removed or cleared in the meantime
+        }
+        if (!pool.returned(bean)) {
+            logger.warn("Ignoring release of pooled bean '{}', instance is not borrowed", beanName);
+            return;
+        }
+        if (!reset(bean) || !pool.offer(bean)) {
+            pool.discards.increment();
+        }
+    }
+    
+    /**
+     * Remove the pool of the given bean, dropping its idle instances.
+     * 
+     * @return always null, as a pool holds no single instance
+     */
+    @Override
+    public Object remove(String beanName) {
+        pools.remove(beanName);
+        return null;
+    }
+    
+    @Override
+    public void clear() {
+        pools.clear();
+    }
+    
+    /**
+     * Return the metrics of the pool of the given bean.
+     * 
+     * @param beanName the bean name
+     * @return a snapshot of the pool metrics, or null if the bean was never looked up
+     */
+    public PoolMetrics getMetrics(String beanName) {
+        BeanPool pool = pools.get(beanName);
+        if (pool == null) {
+            return null;
+        }
+        return new PoolMetrics(pool.hits.sum(), pool.misses.sum(), pool.discards.sum(), 
+                pool.idleCount.get(), pool.lookupNanos.sum());
+    }
+    
+    private Object register(BeanPool pool, Object instance) {
+        pool.beanClass = instance.getClass();
+        return instance;
+    }
+    
+    /**
+     * Call the {@link Reset @Reset} method of the instance, if it has one.
+     * 
+     * @return false if the reset method failed
+     */
+    private boolean reset(Object bean) {
+        Optional<Method> resetMethod = resetMethods.computeIfAbsent(bean.getClass(), PooledScope::findResetMethod);
+        if (resetMethod.isEmpty()) {
+            return true;
+        }
+        try {
+            resetMethod.get().invoke(bean);
+            return true;
+        } catch (InvocationTargetException e) {
+            logger.warn("Discarding pooled instance of {}, reset failed: {}", 
+                        bean.getClass().getName(), e.getTargetException());
+            return false;
+        } catch (IllegalAccessException e) {
+            logger.warn("Discarding pooled instance of {}, reset method not accessible: {}", 
+                        bean.getClass().getName(), e);
+            return false;
+        }
+    }
+    
+    private static Optional<Method> findResetMethod(Class<?> beanClass) {
+        for (Class<?> current = beanClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Reset.class) && method.getParameterCount() == 0) {
+                    method.setAccessible(true);
+                    return Optional.of(method);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Bounded lock-free pool of the idle instances of one bean.
+     */
+    private static final class BeanPool {
+        
+        private final AtomicReferenceArray<Object> slots;
+        private final AtomicInteger idleCount = new AtomicInteger();
+        private final AtomicBoolean prefilling = new AtomicBoolean();
+        private volatile boolean prefilled;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder discards = new LongAdder();
+        private final LongAdder lookupNanos = new LongAdder();
+        private volatile Class<?> beanClass;
+        
+        // Instances handed out and not released yet, weakly referenced by identity
+        private final Set<BorrowedInstance> borrowed = ConcurrentHashMap.newKeySet();
+        private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+        
+        BeanPool(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+        
+        void borrowed(Object instance) {
+            // Forget instances that were dropped by their borrower instead of released
+            Object reference;
+            while ((reference = collected.poll()) != null) {
+                borrowed.remove(reference);
+            }
+            borrowed.add(new BorrowedInstance(instance, collected));
+        }
+        
+        /**
+         * @return true if the instance was borrowed, and is no longer
+         */
+        boolean returned(Object instance) {
+            return borrowed.remove(new BorrowedInstance(instance, null));
+        }
+        
+        Object poll() {
+            if (idleCount.get() == 0) {
+                return null;
+            }
+            int capacity = slots.length();
+            int start = probe(capacity);
+            for (int i = 0; i < capacity; i++) {
+                int index = (start + i) % capacity;
+                Object instance = slots.get(index);
+                if (instance != null && slots.compareAndSet(index, instance, null)) {
+                    idleCount.decrementAndGet();
+                    return instance;
+                }
+            }
+            return null;
+        }
+        
+        boolean offer(Object instance) {
+            int capacity = slots.length();
+            if (idleCount.get() >= capacity) {
+                return false;
+            }
+            int start = probe(capacity);
+            for (int i = 0; i < capacity; i++) {
+                int index = (start + i) % capacity;
+                if (slots.get(index) == null && slots.compareAndSet(index, null, instance)) {
+                    idleCount.incrementAndGet();
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        // Start scanning at a slot derived from the calling thread, spreading concurrent callers
+        private static int probe(int capacity) {
+            int hash = System.identityHashCode(Thread.currentThread());
+            return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % capacity;
+        }
+    }
+    
+    /**
+     * Weak reference to a borrowed instance, compared by identity.
+     */
+    private static final class BorrowedInstance extends WeakReference<Object> {
+        
+        private final int hash;
+        
+        BorrowedInstance(Object instance, ReferenceQueue<Object> queue) {
+            super(instance, queue);
+            this.hash = System.identityHashCode(instance);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof BorrowedInstance)) {
+                return false;
+            }
+            Object instance = get();
+            return instance != null && instance == ((BorrowedInstance) other).get();
+        }
+    }
+    
+    /**
+     * Borrowed instance of a pooled bean, released to its pool when closed.
+     * 
+     * @param <T> the bean type
+     */
+    public static final class Lease<T> implements AutoCloseable {
+        
+        private final PooledScope scope;
+        private final String beanName;
+        private final T bean;
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        private Lease(PooledScope scope, String beanName, T bean) {
+            this.scope = scope;
+            this.beanName = beanName;
+            this.bean = bean;
+        }
+        
+        public T get() {
+            if (released.get()) {
+                throw new IllegalStateException("Pooled bean '" + beanName + "' was already released");
+            }
+            return bean;
+        }
+        
+        /**
+         * Release the instance to the pool. Closing a lease more than once has no effect.
+         */
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                scope.release(beanName, bean);
+            }
+        }
+    }
+    
+    /**
+     * Snapshot of the metrics of a bean pool.
+     */
+    public static final class PoolMetrics {
+        
+        private final long hits;
+        private final long misses;
+        private final long discards;
+        private final int idle;
+        private final long lookupNanos;
+        
+        PoolMetrics(long hits, long misses, long discards, int idle, long lookupNanos) {
+            this.hits = hits;
+            this.misses = misses;
+            this.discards = discards;
+            this.idle = idle;
+            this.lookupNanos = lookupNanos;
+        }
+        
+        /**
+         * @return the number of lookups served by an idle instance
+         */
+        public long getHits() {
+            return hits;
+        }
+        
+        /**
+         * @return the number of lookups that created a new instance
+         */
+        public long getMisses() {
+            return misses;
+        }
+        
+        /**
+         * @return the number of released instances dropped because the pool was full or reset failed
+         */
+        public long getDiscards() {
+            return discards;
+        }
+        
+        /**
+         * @return the number of idle instances when the snapshot was taken
+         */
+        public int getIdle() {
+            return idle;
+        }
+        
+        /**
+         * Lookups never wait for a released instance: this is the time spent taking
+         * an idle instance or, on misses, creating one, including any pre-filling.
+         * 
+         * @return the total time spent in lookups, in nanoseconds
+         */
+        public long getLookupNanos() {
+            return lookupNanos;
+        }
+        
+        /**
+         * @return the average lookup time in nanoseconds, or 0 if nothing was borrowed
+         */
+        public double getAverageLookupNanos() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) lookupNanos / lookups;
+        }
+        
+        @Override
+        public String toString() {
+            return "PoolMetrics{hits=" + hits + ", misses=" + misses + ", discards=" + discards + 
+                   ", idle=" + idle + ", averageLookupNanos=" + getAverageLookupNanos() + "}";
+        }
+    }
+}
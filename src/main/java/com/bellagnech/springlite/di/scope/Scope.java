@@ -0,0 +1,45 @@
+package com.bellagnech.springlite.di.scope;
+
+import com.bellagnech.springlite.di.BeanCreationException;
+import com.bellagnech.springlite.di.NoSuchBeanDefinitionException;
+import com.bellagnech.springlite.di.ObjectFactory;
+
+/**
+ * Strategy deciding which instance of a bean is returned for a lookup,
+ * for every scope other than the built-in "singleton" and "prototype".
+ * Scopes are registered with the application context under a name,
+ * which bean definitions refer to in their scope attribute.
+ * 
+ * @see com.bellagnech.springlite.di.AbstractApplicationContext#registerScope(String, Scope)
+ */
+public interface Scope {
+    
+    /**
+     * Return the instance of the given bean in this scope,
+     * creating it with the object factory if this scope holds none yet.
+     * 
+     * @param beanName the bean name
+     * @param objectFactory the factory creating a new instance of the bean
+     * @return the scoped instance
+     * @throws NoSuchBeanDefinitionException if the bean is not defined
+     * @throws BeanCreationException if the instance could not be created
+     */
+    Object get(String beanName, ObjectFactory<?> objectFactory) 
+            throws NoSuchBeanDefinitionException, BeanCreationException;
+    
+    /**
+     * Remove the instance of the given bean from this scope,
+     * so that the next lookup creates a new one.
+     * 
+     * @param beanName the bean name
+     * @return the removed instance, or null if this scope held none
+     */
+    Object remove(String beanName);
+    
+    /**
+     * Remove all instances held by this scope.
+     * Called when the context is refreshed; does nothing by default.
+     */
+    default void clear() {
+    }
+}
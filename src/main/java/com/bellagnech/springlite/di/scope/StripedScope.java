@@ -0,0 +1,110 @@
+package com.bellagnech.springlite.di.scope;
+
+import com.bellagnech.springlite.di.BeanCreationException;
+import com.bellagnech.springlite.di.NoSuchBeanDefinitionException;
+import com.bellagnech.springlite.di.ObjectFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Scope keeping a fixed number of instances of a bean, one per stripe,
+ * and selecting the stripe from the identity hash of the calling thread.
+ * Registered by default under the name "striped".
+ * <p>
+ * Striping suits beans that are expensive to create and guard their state with
+ * a lock: concurrent callers are spread over several instances, dividing lock
+ * contention, while only a bounded number of instances is ever created.
+ * Threads mapped to the same stripe share an instance, so striped beans must
+ * still be safe for concurrent use; use the thread scope for full confinement.
+ */
+public class StripedScope implements Scope {
+    
+    public static final String SCOPE_NAME = "striped";
+    
+    private final int stripeMask;
+    private final Map<String, AtomicReferenceArray<Object>> instances = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripeLocks;
+    
+    /**
+     * Create a striped scope with one stripe per available processor.
+     */
+    public StripedScope() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Create a striped scope.
+     * 
+     * @param stripes the number of instances per bean, rounded up to a power of two
+     */
+    public StripedScope(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Number of stripes must be positive: " + stripes);
+        }
+        int stripeCount = Integer.highestOneBit(stripes) == stripes ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.stripeMask = stripeCount - 1;
+        this.stripeLocks = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripeLocks[i] = new ReentrantLock();
+        }
+    }
+    
+    @Override
+    public Object get(String beanName, ObjectFactory<?> objectFactory) 
+            throws NoSuchBeanDefinitionException, BeanCreationException {
+        AtomicReferenceArray<Object> stripes = instances.computeIfAbsent(beanName, 
+                name -> new AtomicReferenceArray<>(stripeLocks.length));
+        int stripe = currentStripe();
+        
+        Object instance = stripes.get(stripe);
+        if (instance != null) {
+            return instance;
+        }
+        
+        ReentrantLock lock = stripeLocks[stripe];
+        lock.lock();
+        try {
+            instance = stripes.get(stripe);
+            if (instance == null) {
+                instance = objectFactory.getObject();
+                stripes.set(stripe, instance);
+            }
+            return instance;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Remove the instances of the given bean from all stripes.
+     * 
+     * @return the instance of the stripe of the calling thread, or null if it held none
+     */
+    @Override
+    public Object remove(String beanName) {
+        AtomicReferenceArray<Object> stripes = instances.remove(beanName);
+        return stripes != null ? stripes.get(currentStripe()) : null;
+    }
+    
+    @Override
+    public void clear() {
+        instances.clear();
+    }
+    
+    /**
+     * Return the number of stripes, which is the maximum number of instances per bean.
+     * 
+     * @return the number of stripes
+     */
+    public int getStripeCount() {
+        return stripeLocks.length;
+    }
+    
+    private int currentStripe() {
+        int hash = System.identityHashCode(Thread.currentThread());
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+}
@@ -0,0 +1,67 @@
+package com.bellagnech.springlite.di.scope;
+
+import com.bellagnech.springlite.di.BeanCreationException;
+import com.bellagnech.springlite.di.NoSuchBeanDefinitionException;
+import com.bellagnech.springlite.di.ObjectFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scope keeping one instance of a bean per thread.
+ * Instances are confined to their thread, so beans that are not thread-safe
+ * can be used without locking. Registered by default under the name "thread".
+ * <p>
+ * Instances live as long as their thread, or until they are removed or the
+ * scope is cleared. With virtual threads, each task gets its own instances.
+ */
+public class ThreadScope implements Scope {
+    
+    public static final String SCOPE_NAME = "thread";
+    
+    private final ThreadLocal<ThreadInstances> threadInstances = ThreadLocal.withInitial(ThreadInstances::new);
+    
+    // Incremented by clear(), invalidating the instances held by every thread
+    private volatile int generation;
+    
+    @Override
+    public Object get(String beanName, ObjectFactory<?> objectFactory) 
+            throws NoSuchBeanDefinitionException, BeanCreationException {
+        Map<String, Object> instances = currentInstances();
+        Object instance = instances.get(beanName);
+        if (instance == null) {
+            instance = objectFactory.getObject();
+            instances.put(beanName, instance);
+        }
+        return instance;
+    }
+    
+    @Override
+    public Object remove(String beanName) {
+        return currentInstances().remove(beanName);
+    }
+    
+    @Override
+    public void clear() {
+        generation++;
+        threadInstances.remove();
+    }
+    
+    private Map<String, Object> currentInstances() {
+        ThreadInstances current = threadInstances.get();
+        int currentGeneration = generation;
+        if (current.generation != currentGeneration) {
+            current.instances.clear();
+            current.generation = currentGeneration;
+        }
+        return current.instances;
+    }
+    
+    /**
+     * Instances of the calling thread, tagged with the generation they were created in.
+     */
+    private final class ThreadInstances {
+        final Map<String, Object> instances = new HashMap<>();
+        int generation = ThreadScope.this.generation;
+    }
+}
@@ -0,0 +1,209 @@
+package com.bellagnech.springlite.di.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appender writing events to a file from a background thread.
+ * Logging threads only put events into a bounded lock-free ring buffer;
+ * the writer thread drains it in batches, formats them and writes each batch
+ * to a {@link FileChannel} with a single call.
+ * <p>
+ * When the buffer is full, events are either dropped and counted, or the
+ * logging thread waits for the writer to make room, see {@link OverflowPolicy}.
+ */
+public class AsyncFileAppender implements LogAppender {
+    
+    /**
+     * What a logging thread does when the ring buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Discard the event and count it, never delaying the caller. */
+        DROP,
+        /** Wait until the writer has made room, never losing an event. */
+        BLOCK
+    }
+    
+    public static final int DEFAULT_CAPACITY = 8192;
+    
+    private static final int MAX_BATCH_SIZE = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    
+    private final LogRingBuffer<LogEvent> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final FileChannel channel;
+    private final Thread writer;
+    private final LongAdder droppedCount = new LongAdder();
+    
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+    
+    // Number of events taken from the buffer and written, or dropped on a write error;
+    // events added to the buffer and not taken when the writer stops are dropped
+    private volatile long writtenCount;
+    
+    /**
+     * Create an appender with the default capacity that blocks when full.
+     * 
+     * @param file the file events are appended to, created if missing
+     * @throws IOException if the file cannot be opened
+     */
+    public AsyncFileAppender(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY, OverflowPolicy.BLOCK);
+    }
+    
+    /**
+     * Create an appender.
+     * 
+     * @param file the file events are appended to, created if missing
+     * @param capacity the number of events the buffer holds, rounded up to a power of two
+     * @param overflowPolicy what to do when the buffer is full
+     * @throws IOException if the file cannot be opened
+     */
+    public AsyncFileAppender(Path file, int capacity, OverflowPolicy overflowPolicy) throws IOException {
+        this.buffer = new LogRingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, 
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.writer = new Thread(this::writeLoop, "springlite-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    @Override
+    public void append(LogEvent event) {
+        if (closed) {
+            droppedCount.increment();
+            return;
+        }
+        
+        while (!buffer.offer(event)) {
+            if (overflowPolicy == OverflowPolicy.DROP || closed) {
+                droppedCount.increment();
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        
+        // Only wake the writer up when it is waiting for events
+        if (writerParked) {
+            writerParked = false;
+            LockSupport.unpark(writer);
+        }
+    }
+    
+    @Override
+    public void flush() {
+        long target = buffer.getProducedCount();
+        while (writtenCount < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Return the number of events discarded because the buffer was full,
+     * the appender was closed or the file could not be written.
+     * Once the writer has stopped, this includes the events still in the buffer,
+     * such as those appended by a thread that saw the appender open while it closed.
+     * 
+     * @return the dropped event count
+     */
+    public long getDroppedCount() {
+        long dropped = droppedCount.sum();
+        if (!writer.isAlive()) {
+            // No event is taken from the buffer anymore, the rest will never be written
+            dropped += buffer.getProducedCount() - writtenCount;
+        }
+        return dropped;
+    }
+    
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+    
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+    
+    private void writeLoop() {
+        StringBuilder batch = new StringBuilder(8192);
+        try {
+            while (true) {
+                int count = drain(batch);
+                if (count > 0) {
+                    write(batch, count);
+                    continue;
+                }
+                if (closed) {
+                    break;
+                }
+                
+                // Announce the park before checking once more, so that no event is missed
+                writerParked = true;
+                count = drain(batch);
+                if (count > 0) {
+                    writerParked = false;
+                    write(batch, count);
+                    continue;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                writerParked = false;
+            }
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Could not close log file: " + e.getMessage());
+            }
+        }
+    }
+    
+    private int drain(StringBuilder batch) {
+        batch.setLength(0);
+        int count = 0;
+        LogEvent event;
+        while (count < MAX_BATCH_SIZE && (event = buffer.poll()) != null) {
+            LogFormatter.appendTo(batch, event);
+            batch.append(System.lineSeparator());
+            count++;
+        }
+        return count;
+    }
+    
+    private void write(StringBuilder batch, int count) {
+        ByteBuffer bytes = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            droppedCount.add(count);
+            System.err.println("Could not write log file: " + e.getMessage());
+        }
+        writtenCount += count;
+    }
+}
@@ -0,0 +1,73 @@
+package com.bellagnech.springlite.di.util;
+
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * What a class file says about its class, read without loading it.
+ * 
+ * @see ClassMetadataReader
+ */
+public final class ClassMetadata {
+    
+    private static final int ACC_ANNOTATION = 0x2000;
+    
+    private final String className;
+    private final String superClassName;
+    private final int accessFlags;
+    private final List<String> annotationTypes;
+    
+    ClassMetadata(String className, String superClassName, int accessFlags, List<String> annotationTypes) {
+        this.className = className;
+        this.superClassName = superClassName;
+        this.accessFlags = accessFlags;
+        this.annotationTypes = annotationTypes;
+    }
+    
+    /**
+     * Get the binary name of the class, e.g. {@code com.example.Outer$Inner}.
+     */
+    public String getClassName() {
+        return className;
+    }
+    
+    /**
+     * Get the binary name of the superclass, null for {@code java.lang.Object} and modules.
+     */
+    public String getSuperClassName() {
+        return superClassName;
+    }
+    
+    public boolean isInterface() {
+        return Modifier.isInterface(accessFlags);
+    }
+    
+    public boolean isAnnotation() {
+        return (accessFlags & ACC_ANNOTATION) != 0;
+    }
+    
+    public boolean isAbstract() {
+        return Modifier.isAbstract(accessFlags);
+    }
+    
+    /**
+     * Get the binary names of the runtime-visible annotations present on the class.
+     * 
+     * @return the annotation type names, in declaration order
+     */
+    public List<String> getAnnotationTypes() {
+        return annotationTypes;
+    }
+    
+    public boolean hasAnnotation(String annotationType) {
+        return annotationTypes.contains(annotationType);
+    }
+    
+    @Override
+    public String toString() {
+        return "ClassMetadata{" +
+                "className='" + className + '\'' +
+                ", annotationTypes=" + annotationTypes +
+                '}';
+    }
+}
@@ -0,0 +1,216 @@
+package com.bellagnech.springlite.di.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Minimal class file parser reading the name, superclass, access flags and
+ * class-level {@code RuntimeVisibleAnnotations} of a class, so that scanning
+ * can decide whether a class is a component before loading it.
+ * Only the parts of the constant pool that are needed are decoded; fields,
+ * methods and other attributes are skipped.
+ */
+public final class ClassMetadataReader {
+    
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    
+    private final byte[] bytes;
+    
+    // Offset of each constant pool entry, just after its tag
+    private final int[] constantOffsets;
+    private final String[] utf8Cache;
+    private int position;
+    
+    private ClassMetadataReader(byte[] bytes) {
+        this.bytes = bytes;
+        this.position = 8;
+        this.constantOffsets = new int[readUnsignedShort()];
+        this.utf8Cache = new String[constantOffsets.length];
+    }
+    
+    /**
+     * Read the metadata of the given class file.
+     * 
+     * @param classFile the content of a {@code .class} file
+     * @return the class metadata
+     * @throws IOException if the content is not a valid class file
+     */
+    public static ClassMetadata read(byte[] classFile) throws IOException {
+        if (classFile.length < 10 || readInt(classFile, 0) != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        try {
+            return new ClassMetadataReader(classFile).readClass();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated class file", e);
+        }
+    }
+    
+    private ClassMetadata readClass() throws IOException {
+        readConstantPool();
+        
+        int accessFlags = readUnsignedShort();
+        String className = readClassName(readUnsignedShort());
+        int superClassIndex = readUnsignedShort();
+        String superClassName = superClassIndex != 0 ? readClassName(superClassIndex) : null;
+        
+        int interfaceCount = readUnsignedShort();
+        position += 2 * interfaceCount;
+        skipMembers(); // fields
+        skipMembers(); // methods
+        
+        List<String> annotationTypes = Collections.emptyList();
+        int attributeCount = readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = readUtf8(readUnsignedShort());
+            int length = readInt(bytes, position);
+            position += 4;
+            int end = position + length;
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+                annotationTypes = readAnnotationTypes();
+            }
+            position = end;
+        }
+        
+        return new ClassMetadata(className, superClassName, accessFlags, annotationTypes);
+    }
+    
+    private void readConstantPool() throws IOException {
+        for (int i = 1; i < constantOffsets.length; i++) {
+            int tag = bytes[position++] & 0xFF;
+            constantOffsets[i] = position;
+            switch (tag) {
+                case 1: // Utf8
+                    position += 2 + readUnsignedShort(position);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    position += 4;
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    position += 8;
+                    i++; // Takes two entries
+                    break;
+                case 7: // Class
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    position += 2;
+                    break;
+                case 15: // MethodHandle
+                    position += 3;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag + " at entry " + i);
+            }
+        }
+    }
+    
+    private void skipMembers() {
+        int memberCount = readUnsignedShort();
+        for (int i = 0; i < memberCount; i++) {
+            position += 6; // access flags, name, descriptor
+            int attributeCount = readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                position += 2;
+                position += 4 + readInt(bytes, position);
+            }
+        }
+    }
+    
+    private List<String> readAnnotationTypes() throws IOException {
+        int annotationCount = readUnsignedShort();
+        List<String> annotationTypes = new ArrayList<>(annotationCount);
+        for (int i = 0; i < annotationCount; i++) {
+            annotationTypes.add(descriptorToClassName(readUtf8(readUnsignedShort())));
+            skipElementValuePairs();
+        }
+        return Collections.unmodifiableList(annotationTypes);
+    }
+    
+    private void skipElementValuePairs() throws IOException {
+        int pairCount = readUnsignedShort();
+        for (int i = 0; i < pairCount; i++) {
+            position += 2; // element name
+            skipElementValue();
+        }
+    }
+    
+    private void skipElementValue() throws IOException {
+        int tag = bytes[position++] & 0xFF;
+        switch (tag) {
+            case 'B': case 'C': case 'D': case 'F': case 'I': case 'J': case 'S': case 'Z':
+            case 's': case 'c':
+                position += 2;
+                break;
+            case 'e':
+                position += 4;
+                break;
+            case '@':
+                position += 2;
+                skipElementValuePairs();
+                break;
+            case '[':
+                int valueCount = readUnsignedShort();
+                for (int i = 0; i < valueCount; i++) {
+                    skipElementValue();
+                }
+                break;
+            default:
+                throw new IOException("Unknown annotation element tag " + (char) tag);
+        }
+    }
+    
+    private String readClassName(int classIndex) throws IOException {
+        String internalName = readUtf8(readUnsignedShort(constantOffsets[classIndex]));
+        return internalName.replace('/', '.');
+    }
+    
+    private String readUtf8(int index) throws IOException {
+        String value = utf8Cache[index];
+        if (value == null) {
+            // Constant pool strings use the same modified UTF-8 as DataInput
+            int offset = constantOffsets[index];
+            int length = 2 + readUnsignedShort(offset);
+            value = new DataInputStream(new ByteArrayInputStream(bytes, offset, length)).readUTF();
+            utf8Cache[index] = value;
+        }
+        return value;
+    }
+    
+    private static String descriptorToClassName(String descriptor) {
+        // Lcom/example/Type; -> com.example.Type
+        if (descriptor.length() > 2 && descriptor.charAt(0) == 'L' && descriptor.endsWith(";")) {
+            return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+        }
+        return descriptor;
+    }
+    
+    private int readUnsignedShort() {
+        int value = readUnsignedShort(position);
+        position += 2;
+        return value;
+    }
+    
+    private int readUnsignedShort(int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+    
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+}
@@ -1,16 +1,48 @@
 package com.bellagnech.springlite.di.util;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiPredicate;
+import java.util.stream.Stream;
 
 /**
  * Utility class for scanning the classpath to find classes in a specific package.
+ * Packages are found in directories as well as in jar files, including jar
+ * files nested in another jar such as the libraries of an executable jar.
  */
 public class ClasspathScanner {
     
+    private static final Logger logger = Logger.getLogger(ClasspathScanner.class);
+    
+    private static final BiPredicate<URL, String> ALL_LOCATIONS = (location, packageName) -> true;
+    
     /**
      * Find all classes in a package.
      * 
@@ -19,58 +51,561 @@ public class ClasspathScanner {
      * @throws Exception if an error occurs during scanning
      */
     public static List<Class<?>> findClassesInPackage(String packageName) throws Exception {
-        List<Class<?>> classes = new ArrayList<>();
-        String path = packageName.replace('.', '/');
-        
-        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return findClassesInPackage(packageName, null);
+    }
+    
+    /**
+     * Find all classes in a package using the given class loader.
+     * Classes are loaded without being initialized.
+     * 
+     * @param packageName the package to scan
+     * @param classLoader the class loader, or null for the thread context class loader
+     * @return list of classes found in the package
+     * @throws Exception if an error occurs during scanning
+     */
+    public static List<Class<?>> findClassesInPackage(String packageName, ClassLoader classLoader) throws Exception {
+        ClassLoader loader = resolveClassLoader(classLoader);
+        return scan(new String[] {packageName}, loader, ALL_LOCATIONS, 
+                (className, classFile) -> Class.forName(className, false, loader));
+    }
+    
+    /**
+     * Find the classes of a package annotated with the given annotation.
+     * 
+     * @param packageName the package to scan
+     * @param annotationType the annotation to look for
+     * @param classLoader the class loader, or null for the thread context class loader
+     * @return list of matching classes found in the package
+     * @throws Exception if an error occurs during scanning
+     * @see #findAnnotatedClasses(Class, ClassLoader, String...)
+     */
+    public static List<Class<?>> findAnnotatedClassesInPackage(String packageName, 
+            Class<? extends Annotation> annotationType, ClassLoader classLoader) throws Exception {
+        return findAnnotatedClasses(annotationType, classLoader, packageName);
+    }
+    
+    /**
+     * Find the classes of the given packages annotated with the given annotation,
+     * either directly or through a meta-annotation such as a custom stereotype
+     * annotated with it. Interfaces and annotation types are skipped.
+     * <p>
+     * Candidates are selected by reading their class files, so only the matching
+     * classes are loaded. They are loaded without being initialized.
+     * 
+     * @param annotationType the annotation to look for
+     * @param classLoader the class loader, or null for the thread context class loader
+     * @param packageNames the packages to scan
+     * @return list of matching classes found in the packages, sorted by name
+     * @throws Exception if an error occurs during scanning
+     */
+    public static List<Class<?>> findAnnotatedClasses(Class<? extends Annotation> annotationType, 
+            ClassLoader classLoader, String... packageNames) throws Exception {
+        return findAnnotatedClasses(annotationType, classLoader, ALL_LOCATIONS, packageNames);
+    }
+    
+    /**
+     * Find the classes of the given packages annotated with the given annotation,
+     * in the locations of the packages accepted by the given filter only.
+     * 
+     * @param annotationType the annotation to look for
+     * @param classLoader the class loader, or null for the thread context class loader
+     * @param locationFilter accepts a location of a package, given with the package name
+     * @param packageNames the packages to scan
+     * @return list of matching classes found in the accepted locations, sorted by name
+     * @throws Exception if an error occurs during scanning
+     * @see #findAnnotatedClasses(Class, ClassLoader, String...)
+     */
+    public static List<Class<?>> findAnnotatedClasses(Class<? extends Annotation> annotationType, 
+            ClassLoader classLoader, BiPredicate<URL, String> locationFilter, String... packageNames) throws Exception {
+        ClassLoader loader = resolveClassLoader(classLoader);
+        return scan(packageNames, loader, locationFilter, new AnnotationMatcher(annotationType, loader));
+    }
+    
+    private static ClassLoader resolveClassLoader(ClassLoader classLoader) {
+        if (classLoader == null) {
+            classLoader = Thread.currentThread().getContextClassLoader();
+        }
         if (classLoader == null) {
             classLoader = ClasspathScanner.class.getClassLoader();
         }
+        return classLoader;
+    }
+    
+    /**
+     * Scan packages and their subpackages in every location the class loader
+     * knows them from: directories, jar files and jar files nested in other jars.
+     * <p>
+     * Locations, directories and batches of class files are scanned as
+     * fork/join tasks of the common pool. Matches are collected by class name,
+     * so the result is sorted by name whatever the order the tasks complete in,
+     * and a class found in several locations is taken from the first one.
+     * 
+     * @param packageNames the packages to scan
+     * @param classLoader the class loader
+     * @param locationFilter accepts the locations of a package to scan
+     * @param matcher the matcher of the class files
+     * @return the matching classes, sorted by name
+     * @throws Exception if an error occurs during scanning
+     */
+    private static List<Class<?>> scan(String[] packageNames, ClassLoader classLoader, 
+            BiPredicate<URL, String> locationFilter, ClassFileMatcher matcher) throws Exception {
+        Scan scan = new Scan(matcher);
+        List<RecursiveAction> tasks = new ArrayList<>();
         
-        Enumeration<URL> resources = classLoader.getResources(path);
-        List<File> dirs = new ArrayList<>();
-        
-        while (resources.hasMoreElements()) {
-            URL resource = resources.nextElement();
-            dirs.add(new File(resource.getFile()));
+        for (String packageName : packageNames) {
+            Enumeration<URL> resources = classLoader.getResources(packageName.replace('.', '/'));
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                if (!locationFilter.test(resource, packageName)) {
+                    continue;
+                }
+                int rank = tasks.size();
+                switch (resource.getProtocol()) {
+                    case "file":
+                        tasks.add(scan.new DirectoryTask(Paths.get(resource.toURI()), packageName, rank));
+                        break;
+                    case "jar":
+                        tasks.add(scan.new ArchiveTask(resource, packageName, rank));
+                        break;
+                    default:
+                        logger.warn("Skipping {}: unsupported location for package {}", resource, packageName);
+                }
+            }
         }
         
-        for (File directory : dirs) {
-            classes.addAll(findClasses(directory, packageName));
-        }
+        return scan.run(tasks);
+    }
+    
+    /**
+     * Split a {@code jar:} URL into the path of the outermost archive and the
+     * entries nested in it, from the outermost to the innermost, excluding the
+     * package path.
+     * 
+     * @param resource the URL, of the form {@code jar:<archive>!/<nested entry>!/.../<package path>}
+     * @param nestedEntries the list to add the nested entries to
+     * @return the path of the archive on the default file system
+     * @throws URISyntaxException if the archive location is not a valid URI
+     */
+    private static Path parseArchiveUrl(URL resource, List<String> nestedEntries) throws URISyntaxException {
+        String[] parts = resource.toString().substring("jar:".length()).split("!/");
+        String archive = parts[0];
         
-        return classes;
+        if (archive.startsWith("nested:")) {
+            int separator = archive.indexOf("/!");
+            if (separator >= 0) {
+                nestedEntries.add(archive.substring(separator + 2));
+                archive = archive.substring(0, separator);
+            }
+            archive = "file:" + archive.substring("nested:".length());
+        }
+        for (int i = 1; i < parts.length - 1; i++) {
+            nestedEntries.add(parts[i]);
+        }
+        return Paths.get(new URI(archive));
     }
     
     /**
-     * Recursive method to find classes in directories.
+     * Compute a fingerprint of the locations of the given packages, changing
+     * whenever a class could have been added, removed or modified: the path,
+     * size and modification time of every file of the package directories,
+     * and of the jar files containing the packages.
+     * Only file system metadata is read, no class file is opened.
      * 
-     * @param directory the directory to scan
-     * @param packageName the package name for classes found
-     * @return list of classes found in the directory
-     * @throws ClassNotFoundException if a class cannot be loaded
+     * @param classLoader the class loader, or null for the thread context class loader
+     * @param packageNames the packages
+     * @return the SHA-256 fingerprint, or null if a location cannot be fingerprinted
+     * @throws Exception if an error occurs while listing the locations
      */
-    private static List<Class<?>> findClasses(File directory, String packageName) throws ClassNotFoundException {
-        List<Class<?>> classes = new ArrayList<>();
+    public static byte[] fingerprint(ClassLoader classLoader, String... packageNames) throws Exception {
+        return fingerprint(classLoader, ALL_LOCATIONS, packageNames);
+    }
+    
+    /**
+     * Compute the fingerprint of the locations of the given packages accepted by the given filter.
+     * 
+     * @param classLoader the class loader, or null for the thread context class loader
+     * @param locationFilter accepts a location of a package, given with the package name
+     * @param packageNames the packages
+     * @return the SHA-256 fingerprint, or null if a location cannot be fingerprinted
+     * @throws Exception if an error occurs while listing the locations
+     * @see #fingerprint(ClassLoader, String...)
+     */
+    public static byte[] fingerprint(ClassLoader classLoader, BiPredicate<URL, String> locationFilter, 
+            String... packageNames) throws Exception {
+        ClassLoader loader = resolveClassLoader(classLoader);
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
         
-        if (!directory.exists()) {
-            return classes;
+        for (String packageName : packageNames) {
+            update(digest, packageName);
+            Enumeration<URL> resources = loader.getResources(packageName.replace('.', '/'));
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                if (!locationFilter.test(resource, packageName)) {
+                    continue;
+                }
+                update(digest, resource.toString());
+                switch (resource.getProtocol()) {
+                    case "file":
+                        Path directory = Paths.get(resource.toURI());
+                        List<Path> files = new ArrayList<>();
+                        try (Stream<Path> walk = Files.walk(directory)) {
+                            walk.filter(Files::isRegularFile).forEach(files::add);
+                        }
+                        Collections.sort(files);
+                        for (Path file : files) {
+                            updateFile(digest, directory.relativize(file).toString(), file);
+                        }
+                        break;
+                    case "jar":
+                        // Nested archives change along with the outermost one
+                        Path archive = parseArchiveUrl(resource, new ArrayList<>());
+                        updateFile(digest, archive.toString(), archive);
+                        break;
+                    default:
+                        return null;
+                }
+            }
+        }
+        return digest.digest();
+    }
+    
+    private static void updateFile(MessageDigest digest, String name, Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        update(digest, name);
+        update(digest, attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+    }
+    
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+    
+    /**
+     * Decides whether a class file is part of the result, loading the class if so.
+     * Called concurrently by the scan tasks.
+     */
+    @FunctionalInterface
+    private interface ClassFileMatcher {
+        Class<?> match(String className, Path classFile) throws Exception;
+    }
+    
+    /**
+     * State of a single scan, shared by its tasks.
+     */
+    private static final class Scan {
+        
+        // Class files of a directory matched by one task before splitting
+        private static final int BATCH_SIZE = 16;
+        
+        private final ClassFileMatcher matcher;
+        
+        // Matches by class name, keeping the lowest location rank
+        private final ConcurrentSkipListMap<String, Match> matches = new ConcurrentSkipListMap<>();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        
+        Scan(ClassFileMatcher matcher) {
+            this.matcher = matcher;
         }
         
-        File[] files = directory.listFiles();
-        if (files == null) {
+        List<Class<?>> run(List<RecursiveAction> tasks) throws Exception {
+            if (!tasks.isEmpty()) {
+                ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(tasks);
+                    }
+                });
+            }
+            
+            Exception exception = failure.get();
+            if (exception != null) {
+                throw exception;
+            }
+            
+            List<Class<?>> classes = new ArrayList<>(matches.size());
+            for (Match match : matches.values()) {
+                classes.add(match.clazz);
+            }
             return classes;
         }
         
-        for (File file : files) {
-            if (file.isDirectory()) {
-                classes.addAll(findClasses(file, packageName + "." + file.getName()));
-            } else if (file.getName().endsWith(".class")) {
-                String className = packageName + "." + file.getName().substring(0, file.getName().length() - 6);
-                classes.add(Class.forName(className));
+        private void fail(Exception e) {
+            failure.compareAndSet(null, e);
+        }
+        
+        private boolean failed() {
+            return failure.get() != null;
+        }
+        
+        /**
+         * Scans a package located in a jar file, possibly nested in other jar files.
+         * Archives are opened as zip file systems, so entries are read in place
+         * without extracting anything to disk. Both the nested URL format of
+         * {@code jar:file:/app.jar!/lib/dep.jar!/com/example} and the one of
+         * {@code jar:nested:/app.jar/!lib/dep.jar!/com/example} are understood.
+         */
+        final class ArchiveTask extends RecursiveAction {
+            
+            private final URL resource;
+            private final String packageName;
+            private final int rank;
+            
+            ArchiveTask(URL resource, String packageName, int rank) {
+                this.resource = resource;
+                this.packageName = packageName;
+                this.rank = rank;
+            }
+            
+            @Override
+            protected void compute() {
+                List<String> nestedEntries = new ArrayList<>();
+                Deque<FileSystem> fileSystems = new ArrayDeque<>();
+                try {
+                    Path archive = parseArchiveUrl(resource, nestedEntries);
+                    FileSystem fileSystem = FileSystems.newFileSystem(archive, (ClassLoader) null);
+                    fileSystems.push(fileSystem);
+                    Path root = fileSystem.getPath("/");
+                    
+                    // Nested entries are either jar files or directories such as BOOT-INF/classes
+                    for (String entry : nestedEntries) {
+                        Path entryPath = root.resolve(entry);
+                        if (Files.isDirectory(entryPath)) {
+                            root = entryPath;
+                        } else {
+                            fileSystem = FileSystems.newFileSystem(entryPath, (ClassLoader) null);
+                            fileSystems.push(fileSystem);
+                            root = fileSystem.getPath("/");
+                        }
+                    }
+                    
+                    // Returns once the whole package is scanned, before the archives are closed
+                    new DirectoryTask(root.resolve(packageName.replace('.', '/')), packageName, rank).invoke();
+                } catch (Exception e) {
+                    fail(e);
+                } finally {
+                    // Innermost archive first
+                    while (!fileSystems.isEmpty()) {
+                        try {
+                            fileSystems.pop().close();
+                        } catch (IOException e) {
+                            logger.debug("Could not close archive of {}: {}", resource, e.getMessage());
+                        }
+                    }
+                }
             }
         }
         
-        return classes;
+        /**
+         * Lists a directory, forking a task per subdirectory and for its class files.
+         */
+        final class DirectoryTask extends RecursiveAction {
+            
+            private final Path directory;
+            private final String packageName;
+            private final int rank;
+            
+            DirectoryTask(Path directory, String packageName, int rank) {
+                this.directory = directory;
+                this.packageName = packageName;
+                this.rank = rank;
+            }
+            
+            @Override
+            protected void compute() {
+                if (failed() || !Files.isDirectory(directory)) {
+                    return;
+                }
+                
+                List<RecursiveAction> subtasks = new ArrayList<>();
+                List<Path> classFiles = new ArrayList<>();
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                    for (Path file : files) {
+                        // Directories of zip file systems end with a slash
+                        String fileName = file.getFileName().toString();
+                        if (fileName.endsWith("/")) {
+                            fileName = fileName.substring(0, fileName.length() - 1);
+                        }
+                        
+                        if (Files.isDirectory(file)) {
+                            subtasks.add(new DirectoryTask(file, packageName + "." + fileName, rank));
+                        } else if (fileName.endsWith(".class")) {
+                            classFiles.add(file);
+                        }
+                    }
+                } catch (IOException e) {
+                    fail(e);
+                    return;
+                }
+                
+                if (!classFiles.isEmpty()) {
+                    subtasks.add(new ClassFileTask(classFiles, 0, classFiles.size(), packageName, rank));
+                }
+                invokeAll(subtasks);
+            }
+        }
+        
+        /**
+         * Matches a range of the class files of a directory, splitting large ranges.
+         */
+        final class ClassFileTask extends RecursiveAction {
+            
+            private final List<Path> classFiles;
+            private final int from;
+            private final int to;
+            private final String packageName;
+            private final int rank;
+            
+            ClassFileTask(List<Path> classFiles, int from, int to, String packageName, int rank) {
+                this.classFiles = classFiles;
+                this.from = from;
+                this.to = to;
+                this.packageName = packageName;
+                this.rank = rank;
+            }
+            
+            @Override
+            protected void compute() {
+                if (to - from > BATCH_SIZE) {
+                    int middle = (from + to) >>> 1;
+                    invokeAll(new ClassFileTask(classFiles, from, middle, packageName, rank),
+                            new ClassFileTask(classFiles, middle, to, packageName, rank));
+                    return;
+                }
+                
+                for (int i = from; i < to && !failed(); i++) {
+                    Path classFile = classFiles.get(i);
+                    String fileName = classFile.getFileName().toString();
+                    String className = packageName + "." + fileName.substring(0, fileName.length() - 6);
+                    try {
+                        Class<?> clazz = matcher.match(className, classFile);
+                        if (clazz != null) {
+                            Match match = new Match(clazz, rank);
+                            matches.merge(className, match, (previous, next) -> previous.rank <= next.rank ? previous : next);
+                        }
+                    } catch (Exception e) {
+                        fail(e);
+                    }
+                }
+            }
+        }
+        
+        private static final class Match {
+            
+            final Class<?> clazz;
+            final int rank;
+            
+            Match(Class<?> clazz, int rank) {
+                this.clazz = clazz;
+                this.rank = rank;
+            }
+        }
+    }
+    
+    /**
+     * Decides from class files whether classes carry an annotation, directly or
+     * as a meta-annotation. The class files of annotation types are read through
+     * the class loader and the result is cached for the duration of a scan.
+     */
+    private static class AnnotationMatcher implements ClassFileMatcher {
+        
+        private final String annotationName;
+        private final Class<? extends Annotation> annotationType;
+        private final ClassLoader classLoader;
+        
+        // Whether an annotation type is, or is annotated with, the annotation
+        private final Map<String, Boolean> matchingAnnotations = new ConcurrentHashMap<>();
+        
+        AnnotationMatcher(Class<? extends Annotation> annotationType, ClassLoader classLoader) {
+            this.annotationName = annotationType.getName();
+            this.annotationType = annotationType;
+            this.classLoader = classLoader;
+            matchingAnnotations.put(annotationName, Boolean.TRUE);
+        }
+        
+        /**
+         * Load the class if its class file shows it as a matching candidate.
+         * 
+         * @param className the name of the class
+         * @param classFile its class file
+         * @return the loaded class, or null if it does not match
+         * @throws IOException if the class file cannot be read
+         * @throws ClassNotFoundException if a matching class cannot be loaded
+         */
+        @Override
+        public Class<?> match(String className, Path classFile) throws IOException, ClassNotFoundException {
+            byte[] content = Files.readAllBytes(classFile);
+            ClassMetadata metadata;
+            try {
+                metadata = ClassMetadataReader.read(content);
+            } catch (IOException e) {
+                // Decide on the loaded class rather than missing a candidate
+                logger.warn("Could not read class file of {}, loading it: {}", className, e.getMessage());
+                Class<?> clazz = Class.forName(className, false, classLoader);
+                return isCandidate(clazz) ? clazz : null;
+            }
+            
+            if (metadata.isInterface() || !isAnnotated(metadata, new HashSet<>())) {
+                return null;
+            }
+            return Class.forName(className, false, classLoader);
+        }
+        
+        private boolean isAnnotated(ClassMetadata metadata, Set<String> visiting) {
+            for (String type : metadata.getAnnotationTypes()) {
+                if (isMatchingAnnotation(type, visiting)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        private boolean isMatchingAnnotation(String type, Set<String> visiting) {
+            Boolean matching = matchingAnnotations.get(type);
+            if (matching != null) {
+                return matching;
+            }
+            // Guards against annotations annotating each other
+            boolean outermost = visiting.isEmpty();
+            if (type.startsWith("java.") || !visiting.add(type)) {
+                return false;
+            }
+            
+            matching = false;
+            ClassMetadata metadata = readAnnotationType(type);
+            if (metadata != null && metadata.isAnnotation()) {
+                matching = isAnnotated(metadata, visiting);
+            }
+            visiting.remove(type);
+            
+            // A negative answer inside a cycle may only hold for the current path
+            if (matching || outermost) {
+                matchingAnnotations.put(type, matching);
+            }
+            return matching;
+        }
+        
+        private ClassMetadata readAnnotationType(String type) {
+            try (InputStream in = classLoader.getResourceAsStream(type.replace('.', '/') + ".class")) {
+                return in != null ? ClassMetadataReader.read(in.readAllBytes()) : null;
+            } catch (IOException e) {
+                logger.debug("Could not read annotation type {}: {}", type, e.getMessage());
+                return null;
+            }
+        }
+        
+        private boolean isCandidate(Class<?> clazz) {
+            if (clazz.isInterface()) {
+                return false;
+            }
+            if (clazz.isAnnotationPresent(annotationType)) {
+                return true;
+            }
+            for (Annotation annotation : clazz.getAnnotations()) {
+                if (annotation.annotationType().isAnnotationPresent(annotationType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
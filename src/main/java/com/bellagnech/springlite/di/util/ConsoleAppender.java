@@ -0,0 +1,24 @@
+package com.bellagnech.springlite.di.util;
+
+/**
+ * Default appender, writing each event synchronously to {@code System.out}.
+ * Stack traces go to {@code System.err}.
+ */
+public class ConsoleAppender implements LogAppender {
+    
+    @Override
+    public void append(LogEvent event) {
+        StringBuilder sb = new StringBuilder(64 + event.getMessage().length());
+        LogFormatter.appendLine(sb, event);
+        System.out.println(sb);
+        
+        if (event.getThrowable() != null) {
+            event.getThrowable().printStackTrace();
+        }
+    }
+    
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
+}
@@ -0,0 +1,31 @@
+package com.bellagnech.springlite.di.util;
+
+/**
+ * Destination of the events logged through {@link Logger}.
+ * Appenders are shared by every logger and must be thread-safe.
+ * 
+ * @see ConsoleAppender
+ * @see AsyncFileAppender
+ */
+public interface LogAppender {
+    
+    /**
+     * Write the given event, or queue it for writing.
+     * 
+     * @param event the event
+     */
+    void append(LogEvent event);
+    
+    /**
+     * Wait until every event appended so far has been written.
+     */
+    default void flush() {
+    }
+    
+    /**
+     * Write pending events and release the resources of this appender.
+     * Events appended afterwards are discarded.
+     */
+    default void close() {
+    }
+}
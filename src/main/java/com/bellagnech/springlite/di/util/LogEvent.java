@@ -0,0 +1,50 @@
+package com.bellagnech.springlite.di.util;
+
+/**
+ * A single log record handed to a {@link LogAppender}.
+ */
+public final class LogEvent {
+    
+    private final long timestamp;
+    private final Logger.Level level;
+    private final String loggerName;
+    private final String message;
+    private final Throwable throwable;
+    
+    /**
+     * Create a new log event.
+     * 
+     * @param timestamp the time of the event in milliseconds since the epoch
+     * @param level the level of the event
+     * @param loggerName the name of the logger
+     * @param message the formatted message
+     * @param throwable the throwable whose stack trace is printed, or null
+     */
+    public LogEvent(long timestamp, Logger.Level level, String loggerName, String message, Throwable throwable) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.loggerName = loggerName;
+        this.message = message;
+        this.throwable = throwable;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public Logger.Level getLevel() {
+        return level;
+    }
+    
+    public String getLoggerName() {
+        return loggerName;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public Throwable getThrowable() {
+        return throwable;
+    }
+}
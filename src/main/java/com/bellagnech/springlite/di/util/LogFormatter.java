@@ -0,0 +1,109 @@
+package com.bellagnech.springlite.di.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formats log events as {@code yyyy-MM-dd HH:mm:ss.SSS [LEVEL] name - message}.
+ * The date and time up to the second are formatted once per second and cached,
+ * so that most events only append their milliseconds.
+ */
+public final class LogFormatter {
+    
+    private static final DateTimeFormatter SECOND_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.");
+    
+    /**
+     * Formatted date and time of one second, replaced as a whole so that
+     * concurrent readers always see a consistent pair.
+     */
+    private static final class CachedSecond {
+        final long epochSecond;
+        final String prefix;
+        
+        CachedSecond(long epochSecond, String prefix) {
+            this.epochSecond = epochSecond;
+            this.prefix = prefix;
+        }
+    }
+    
+    private static volatile CachedSecond cachedSecond = new CachedSecond(Long.MIN_VALUE, "");
+    
+    private LogFormatter() {
+    }
+    
+    /**
+     * Format the given event on a single line, followed by the stack trace of its throwable if any.
+     * The line separator is not included.
+     * 
+     * @param event the event
+     * @return the formatted event
+     */
+    public static String format(LogEvent event) {
+        StringBuilder sb = new StringBuilder(64 + event.getMessage().length());
+        appendTo(sb, event);
+        return sb.toString();
+    }
+    
+    /**
+     * Append the given event to a buffer, as {@link #format(LogEvent)} does.
+     * 
+     * @param sb the buffer
+     * @param event the event
+     */
+    public static void appendTo(StringBuilder sb, LogEvent event) {
+        appendLine(sb, event);
+        if (event.getThrowable() != null) {
+            StringWriter stackTrace = new StringWriter();
+            event.getThrowable().printStackTrace(new PrintWriter(stackTrace));
+            sb.append(System.lineSeparator()).append(stackTrace.toString().stripTrailing());
+        }
+    }
+    
+    /**
+     * Append the line of the given event to a buffer, without the stack trace of its throwable.
+     * 
+     * @param sb the buffer
+     * @param event the event
+     */
+    public static void appendLine(StringBuilder sb, LogEvent event) {
+        appendTimestamp(sb, event.getTimestamp());
+        sb.append(" [").append(event.getLevel()).append("] ")
+          .append(event.getLoggerName()).append(" - ").append(event.getMessage());
+    }
+    
+    /**
+     * Format the given time as {@code yyyy-MM-dd HH:mm:ss.SSS} in the default time zone.
+     * 
+     * @param epochMillis the time in milliseconds since the epoch
+     * @return the formatted time
+     */
+    public static String formatTimestamp(long epochMillis) {
+        StringBuilder sb = new StringBuilder(23);
+        appendTimestamp(sb, epochMillis);
+        return sb.toString();
+    }
+    
+    private static void appendTimestamp(StringBuilder sb, long epochMillis) {
+        long epochSecond = Math.floorDiv(epochMillis, 1000);
+        CachedSecond cached = cachedSecond;
+        if (cached.epochSecond != epochSecond) {
+            LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+            cached = new CachedSecond(epochSecond, SECOND_FORMATTER.format(dateTime));
+            cachedSecond = cached;
+        }
+        
+        int millis = Math.floorMod(epochMillis, 1000);
+        sb.append(cached.prefix);
+        if (millis < 100) {
+            sb.append('0');
+        }
+        if (millis < 10) {
+            sb.append('0');
+        }
+        sb.append(millis);
+    }
+}
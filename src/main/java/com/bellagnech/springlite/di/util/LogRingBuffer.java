@@ -0,0 +1,95 @@
+package com.bellagnech.springlite.di.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ * Each slot carries a sequence number telling whether it is free for the
+ * producer claiming that position or filled for the consumer, so producers
+ * only contend on a single compare-and-set of the tail.
+ * 
+ * @param <E> the element type
+ */
+final class LogRingBuffer<E> {
+    
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    
+    // Only read and written by the consumer thread, published through the sequences
+    private long head;
+    
+    /**
+     * Create a ring buffer holding at least the given number of elements.
+     * 
+     * @param capacity the minimum capacity, rounded up to a power of two
+     */
+    LogRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    int capacity() {
+        return mask + 1;
+    }
+    
+    /**
+     * Add an element, from any thread.
+     * 
+     * @param element the element
+     * @return false if the buffer is full
+     */
+    boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // The slot still holds the element from one lap before
+                return false;
+            }
+            // Otherwise another producer claimed the position, retry with the new tail
+        }
+    }
+    
+    /**
+     * Remove the oldest element. Must only be called by the consumer thread.
+     * 
+     * @return the element, or null if the buffer is empty
+     */
+    E poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.set(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return element;
+    }
+    
+    /**
+     * Return the number of elements added so far, including those already removed.
+     */
+    long getProducedCount() {
+        return tail.get();
+    }
+}
@@ -1,10 +1,16 @@
 package com.bellagnech.springlite.di.util;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Simple logging utility for the framework.
+ * Events are written by a shared {@link LogAppender}, the {@link ConsoleAppender} by default.
+ * <p>
+ * Messages logged at a disabled level cost nothing as long as they are not
+ * built up front: use the {@code {}} placeholder overloads with one or two
+ * arguments, a {@link Supplier}, or check {@link #isDebugEnabled()} first.
  */
 public class Logger {
     
@@ -12,22 +18,93 @@ public class Logger {
         DEBUG, INFO, WARN, ERROR
     }
     
-    private static Level currentLevel = Level.INFO;
-    private static boolean enabled = true;
+    private static volatile Level currentLevel = Level.INFO;
+    private static volatile boolean enabled = true;
+    private static volatile LogAppender appender = new ConsoleAppender();
+    
+    private static final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+    private static final Map<String, Level> levelOverrides = new ConcurrentHashMap<>();
+    
     private final String name;
     
+    // Level of this logger overriding the global level, or null
+    private volatile Level level;
+    
     public Logger(String name) {
         this.name = name;
+        this.level = levelOverrides.get(name);
     }
     
+    /**
+     * Return the logger of the given class, named after its simple name.
+     * Classes with the same simple name share their logger.
+     * 
+     * @param clazz the class
+     * @return the shared logger
+     */
     public static Logger getLogger(Class<?> clazz) {
-        return new Logger(clazz.getSimpleName());
+        return loggers.computeIfAbsent(clazz.getSimpleName(), Logger::new);
     }
     
     public static void setLevel(Level level) {
         currentLevel = level;
     }
     
+    public static Level getLevel() {
+        return currentLevel;
+    }
+    
+    /**
+     * Set the level of the named logger, overriding the global level for it.
+     * Applies to the logger returned by {@link #getLogger(Class)} and to loggers
+     * created with that name afterwards.
+     * 
+     * @param loggerName the name of the logger, i.e. the simple name of its class
+     * @param level the level, or null to follow the global level again
+     */
+    public static void setLevel(String loggerName, Level level) {
+        if (level != null) {
+            levelOverrides.put(loggerName, level);
+        } else {
+            levelOverrides.remove(loggerName);
+        }
+        Logger logger = loggers.get(loggerName);
+        if (logger != null) {
+            logger.level = level;
+        }
+    }
+    
+    /**
+     * Remove the level overrides of all loggers.
+     */
+    public static void resetLevels() {
+        levelOverrides.clear();
+        for (Logger logger : loggers.values()) {
+            logger.level = null;
+        }
+    }
+    
+    /**
+     * Replace the appender used by every logger. The previous appender is
+     * flushed but not closed.
+     * 
+     * @param newAppender the appender
+     * @return the previous appender
+     */
+    public static LogAppender setAppender(LogAppender newAppender) {
+        if (newAppender == null) {
+            throw new IllegalArgumentException("Appender must not be null");
+        }
+        LogAppender previous = appender;
+        appender = newAppender;
+        previous.flush();
+        return previous;
+    }
+    
+    public static LogAppender getAppender() {
+        return appender;
+    }
+    
     public static void enable() {
         enabled = true;
     }
@@ -36,36 +113,160 @@ public class Logger {
         enabled = false;
     }
     
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Get the level of this logger: its own level if set, the global level otherwise.
+     * 
+     * @return the effective level
+     */
+    public Level getEffectiveLevel() {
+        Level ownLevel = level;
+        return ownLevel != null ? ownLevel : currentLevel;
+    }
+    
+    /**
+     * Check whether events of the given level are written by this logger.
+     * 
+     * @param level the level
+     * @return true if the level is enabled
+     */
+    public boolean isEnabled(Level level) {
+        return enabled && level.ordinal() >= getEffectiveLevel().ordinal();
+    }
+    
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+    
+    public boolean isInfoEnabled() {
+        return isEnabled(Level.INFO);
+    }
+    
     public void debug(String message) {
         log(Level.DEBUG, message);
     }
     
+    public void debug(String format, Object arg) {
+        if (isEnabled(Level.DEBUG)) {
+            write(Level.DEBUG, formatMessage(format, arg), null);
+        }
+    }
+    
+    public void debug(String format, Object arg1, Object arg2) {
+        if (isEnabled(Level.DEBUG)) {
+            write(Level.DEBUG, formatMessage(format, arg1, arg2), null);
+        }
+    }
+    
+    public void debug(String format, Object... args) {
+        if (isEnabled(Level.DEBUG)) {
+            write(Level.DEBUG, formatMessage(format, args), null);
+        }
+    }
+    
+    public void debug(Supplier<String> messageSupplier) {
+        if (isEnabled(Level.DEBUG)) {
+            write(Level.DEBUG, messageSupplier.get(), null);
+        }
+    }
+    
     public void info(String message) {
         log(Level.INFO, message);
     }
     
+    public void info(String format, Object arg) {
+        if (isEnabled(Level.INFO)) {
+            write(Level.INFO, formatMessage(format, arg), null);
+        }
+    }
+    
+    public void info(String format, Object arg1, Object arg2) {
+        if (isEnabled(Level.INFO)) {
+            write(Level.INFO, formatMessage(format, arg1, arg2), null);
+        }
+    }
+    
+    public void info(String format, Object... args) {
+        if (isEnabled(Level.INFO)) {
+            write(Level.INFO, formatMessage(format, args), null);
+        }
+    }
+    
+    public void info(Supplier<String> messageSupplier) {
+        if (isEnabled(Level.INFO)) {
+            write(Level.INFO, messageSupplier.get(), null);
+        }
+    }
+    
     public void warn(String message) {
         log(Level.WARN, message);
     }
     
+    public void warn(String format, Object arg) {
+        if (isEnabled(Level.WARN)) {
+            write(Level.WARN, formatMessage(format, arg), null);
+        }
+    }
+    
+    public void warn(String format, Object arg1, Object arg2) {
+        if (isEnabled(Level.WARN)) {
+            write(Level.WARN, formatMessage(format, arg1, arg2), null);
+        }
+    }
+    
+    public void warn(String format, Object... args) {
+        if (isEnabled(Level.WARN)) {
+            write(Level.WARN, formatMessage(format, args), null);
+        }
+    }
+    
+    public void warn(Supplier<String> messageSupplier) {
+        if (isEnabled(Level.WARN)) {
+            write(Level.WARN, messageSupplier.get(), null);
+        }
+    }
+    
     public void error(String message) {
         log(Level.ERROR, message);
     }
     
     public void error(String message, Throwable t) {
-        error(message + ": " + t.getMessage());
-        if (currentLevel == Level.DEBUG) {
-            t.printStackTrace();
+        if (isEnabled(Level.ERROR)) {
+            // The stack trace is only printed when debugging
+            write(Level.ERROR, message + ": " + t.getMessage(), isDebugEnabled() ? t : null);
         }
     }
     
     private void log(Level level, String message) {
-        if (enabled && level.ordinal() >= currentLevel.ordinal()) {
-            System.out.println(getTimestamp() + " [" + level + "] " + name + " - " + message);
+        if (isEnabled(level)) {
+            write(level, message, null);
         }
     }
     
-    private String getTimestamp() {
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS"));
+    private void write(Level level, String message, Throwable t) {
+        appender.append(new LogEvent(System.currentTimeMillis(), level, name, message, t));
+    }
+    
+    /**
+     * Replace each {@code {}} placeholder of the format with the next argument.
+     * Placeholders without an argument are kept as they are.
+     * 
+     * @param format the message format
+     * @param args the arguments
+     * @return the formatted message
+     */
+    static String formatMessage(String format, Object... args) {
+        StringBuilder sb = new StringBuilder(format.length() + 16 * args.length);
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while (argIndex < args.length && (placeholder = format.indexOf("{}", start)) >= 0) {
+            sb.append(format, start, placeholder).append(args[argIndex++]);
+            start = placeholder + 2;
+        }
+        return sb.append(format, start, format.length()).toString();
     }
 }
@@ -0,0 +1,258 @@
+package com.bellagnech.springlite.di.xml;
+
+import com.bellagnech.springlite.di.BeanDefinition;
+import com.bellagnech.springlite.di.PropertyValue;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary form of the bean definitions of an XML file, written by
+ * {@link XmlBeanDefinitionCompiler} next to the XML file with a {@value #FILE_SUFFIX}
+ * suffix. {@link XmlBeanDefinitionReader} reads it instead of the XML file as
+ * long as it is newer.
+ * <p>
+ * After a header with a magic number and the format version, the file holds a
+ * string table and the definitions, all counts and indices being unsigned
+ * varints. Strings are stored once and referred to by index. References to
+ * beans of the same file are stored as the index of the referenced definition,
+ * references to beans defined elsewhere by name. The file is memory-mapped when read.
+ */
+public final class CompiledBeanDefinitions {
+    
+    public static final String FILE_SUFFIX = ".bin";
+    
+    private static final int MAGIC = 0x534C4244; // "SLBD"
+    private static final int VERSION = 1;
+    
+    private static final byte LAZY_UNSPECIFIED = 0;
+    private static final byte LAZY_FALSE = 1;
+    private static final byte LAZY_TRUE = 2;
+    
+    private static final byte PROPERTY_VALUE = 0;
+    private static final byte PROPERTY_BEAN_INDEX = 1;
+    private static final byte PROPERTY_BEAN_NAME = 2;
+    
+    private CompiledBeanDefinitions() {
+    }
+    
+    /**
+     * Get the compiled file of an XML file.
+     * 
+     * @param xmlFile the XML file
+     * @return the compiled file, next to the XML file
+     */
+    public static Path compiledFileFor(Path xmlFile) {
+        return xmlFile.resolveSibling(xmlFile.getFileName() + FILE_SUFFIX);
+    }
+    
+    /**
+     * Check whether a compiled file exists and is newer than its XML file.
+     * 
+     * @param compiledFile the compiled file
+     * @param xmlFile the XML file
+     * @return true if the compiled file can be read instead of the XML file
+     */
+    public static boolean isUpToDate(Path compiledFile, Path xmlFile) {
+        try {
+            FileTime compiledTime = Files.getLastModifiedTime(compiledFile);
+            return compiledTime.compareTo(Files.getLastModifiedTime(xmlFile)) > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Read compiled bean definitions.
+     * 
+     * @param file the compiled file
+     * @return the bean definitions, in the order of the XML file
+     * @throws IOException if the file cannot be read or is not a compiled file
+     */
+    public static List<BeanDefinition> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt compiled bean definitions " + file, e);
+        }
+    }
+    
+    static List<BeanDefinition> read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Unknown compiled bean definitions format");
+        }
+        
+        String[] strings = new String[readCount(buffer)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[readCount(buffer)];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        // Bean ids come first, so that references to later beans resolve
+        String[] ids = new String[readCount(buffer)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = strings[readIndex(buffer, strings.length)];
+        }
+        
+        List<BeanDefinition> beanDefinitions = new ArrayList<>(ids.length);
+        for (String id : ids) {
+            BeanDefinition beanDefinition = new BeanDefinition();
+            beanDefinition.setId(id);
+            beanDefinition.setClassName(strings[readIndex(buffer, strings.length)]);
+            beanDefinition.setScope(strings[readIndex(buffer, strings.length)]);
+            byte lazy = buffer.get();
+            if (lazy != LAZY_UNSPECIFIED) {
+                beanDefinition.setLazyInit(lazy == LAZY_TRUE);
+            }
+            
+            int propertyCount = readCount(buffer);
+            for (int p = 0; p < propertyCount; p++) {
+                String name = strings[readIndex(buffer, strings.length)];
+                byte kind = buffer.get();
+                if (kind == PROPERTY_VALUE) {
+                    beanDefinition.addPropertyValue(new PropertyValue(name, strings[readIndex(buffer, strings.length)]));
+                } else if (kind == PROPERTY_BEAN_INDEX) {
+                    beanDefinition.addPropertyValue(new PropertyValue(name, ids[readIndex(buffer, ids.length)], true));
+                } else if (kind == PROPERTY_BEAN_NAME) {
+                    beanDefinition.addPropertyValue(new PropertyValue(name, strings[readIndex(buffer, strings.length)], true));
+                } else {
+                    throw new IOException("Unknown property kind " + kind);
+                }
+            }
+            beanDefinitions.add(beanDefinition);
+        }
+        return beanDefinitions;
+    }
+    
+    /**
+     * Write compiled bean definitions, replacing the file atomically.
+     * 
+     * @param file the compiled file
+     * @param beanDefinitions the bean definitions, in the order of the XML file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, List<BeanDefinition> beanDefinitions) throws IOException {
+        // Later definitions of an id win, as they do when registered
+        Map<String, Integer> beanIndices = new HashMap<>();
+        for (int i = 0; i < beanDefinitions.size(); i++) {
+            beanIndices.put(beanDefinitions.get(i).getId(), i);
+        }
+        
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (BeanDefinition beanDefinition : beanDefinitions) {
+            intern(strings, beanDefinition.getId());
+            intern(strings, beanDefinition.getClassName());
+            intern(strings, beanDefinition.getScope());
+            for (PropertyValue propertyValue : beanDefinition.getPropertyValues()) {
+                intern(strings, propertyValue.getName());
+                if (!propertyValue.isRef() || !beanIndices.containsKey(propertyValue.getValue())) {
+                    intern(strings, String.valueOf(propertyValue.getValue()));
+                }
+            }
+        }
+        
+        Path directory = file.toAbsolutePath().getParent();
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                
+                writeVarint(out, strings.size());
+                for (String value : strings.keySet()) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    writeVarint(out, bytes.length);
+                    out.write(bytes);
+                }
+                
+                writeVarint(out, beanDefinitions.size());
+                for (BeanDefinition beanDefinition : beanDefinitions) {
+                    writeVarint(out, strings.get(beanDefinition.getId()));
+                }
+                
+                for (BeanDefinition beanDefinition : beanDefinitions) {
+                    writeVarint(out, strings.get(beanDefinition.getClassName()));
+                    writeVarint(out, strings.get(beanDefinition.getScope()));
+                    Boolean lazyInit = beanDefinition.getLazyInit();
+                    out.writeByte(lazyInit == null ? LAZY_UNSPECIFIED : lazyInit ? LAZY_TRUE : LAZY_FALSE);
+                    
+                    writeVarint(out, beanDefinition.getPropertyValues().size());
+                    for (PropertyValue propertyValue : beanDefinition.getPropertyValues()) {
+                        writeVarint(out, strings.get(propertyValue.getName()));
+                        Integer beanIndex = propertyValue.isRef() ? beanIndices.get(propertyValue.getValue()) : null;
+                        if (beanIndex != null) {
+                            out.writeByte(PROPERTY_BEAN_INDEX);
+                            writeVarint(out, beanIndex);
+                        } else {
+                            out.writeByte(propertyValue.isRef() ? PROPERTY_BEAN_NAME : PROPERTY_VALUE);
+                            writeVarint(out, strings.get(String.valueOf(propertyValue.getValue())));
+                        }
+                    }
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+    
+    private static void intern(Map<String, Integer> strings, String value) {
+        strings.putIfAbsent(value, strings.size());
+    }
+    
+    private static int readVarint(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+    
+    /**
+     * Read the number of elements that follow, each taking at least one byte,
+     * so that a corrupt count is rejected before anything is allocated for it.
+     */
+    private static int readCount(ByteBuffer buffer) throws IOException {
+        int count = readVarint(buffer);
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IOException("Invalid element count " + count);
+        }
+        return count;
+    }
+    
+    private static int readIndex(ByteBuffer buffer, int length) throws IOException {
+        int index = readVarint(buffer);
+        if (index < 0 || index >= length) {
+            throw new IOException("Invalid index " + index);
+        }
+        return index;
+    }
+    
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
@@ -0,0 +1,130 @@
+package com.bellagnech.springlite.di.xml;
+
+import com.bellagnech.springlite.di.BeanDefinition;
+import com.bellagnech.springlite.di.DefaultBeanDefinitionRegistry;
+import com.bellagnech.springlite.di.PropertyValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compiles XML bean definition files into {@link CompiledBeanDefinitions}, so
+ * that contexts read the binary file instead of parsing the XML on every start.
+ * <p>
+ * Run with: {@code java -cp springlite.jar com.bellagnech.springlite.di.xml.XmlBeanDefinitionCompiler
+ * [--verify] beans.xml...}. With {@code --verify}, the compiled files are only
+ * checked to be up to date and equivalent to their XML file, for use in builds.
+ */
+public final class XmlBeanDefinitionCompiler {
+    
+    private XmlBeanDefinitionCompiler() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        boolean verify = args.length > 0 && args[0].equals("--verify");
+        int first = verify ? 1 : 0;
+        if (args.length == first) {
+            System.err.println("Usage: XmlBeanDefinitionCompiler [--verify] <beans.xml>...");
+            System.exit(2);
+        }
+        
+        boolean failed = false;
+        for (int i = first; i < args.length; i++) {
+            Path xmlFile = Paths.get(args[i]);
+            if (verify) {
+                if (verify(xmlFile)) {
+                    System.out.println(CompiledBeanDefinitions.compiledFileFor(xmlFile) + " is up to date");
+                } else {
+                    System.err.println(CompiledBeanDefinitions.compiledFileFor(xmlFile) + " is missing or out of date");
+                    failed = true;
+                }
+            } else {
+                int count = compile(xmlFile);
+                System.out.println("Compiled " + count + " bean definitions from " + xmlFile 
+                        + " to " + CompiledBeanDefinitions.compiledFileFor(xmlFile));
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Compile an XML file into the compiled file next to it.
+     * 
+     * @param xmlFile the XML file
+     * @return the number of bean definitions compiled
+     * @throws Exception if the XML file cannot be parsed or the compiled file cannot be written
+     */
+    public static int compile(Path xmlFile) throws Exception {
+        FileTime xmlTime = Files.getLastModifiedTime(xmlFile);
+        List<BeanDefinition> beanDefinitions = parse(xmlFile);
+        Path compiledFile = CompiledBeanDefinitions.compiledFileFor(xmlFile);
+        CompiledBeanDefinitions.write(compiledFile, beanDefinitions);
+        
+        // Temporary files are private, readable by whoever can read the XML instead
+        try {
+            Files.setPosixFilePermissions(compiledFile, Files.getPosixFilePermissions(xmlFile));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system
+        }
+        
+        // File times are coarse, a file written right after the XML may not look newer
+        if (Files.getLastModifiedTime(compiledFile).compareTo(xmlTime) <= 0) {
+            Files.setLastModifiedTime(compiledFile, FileTime.fromMillis(xmlTime.toMillis() + 1));
+        }
+        return beanDefinitions.size();
+    }
+    
+    /**
+     * Check that the compiled file of an XML file is up to date and holds the
+     * same bean definitions as the XML file.
+     * 
+     * @param xmlFile the XML file
+     * @return true if the compiled file is equivalent to the XML file
+     * @throws Exception if the XML file cannot be parsed
+     */
+    public static boolean verify(Path xmlFile) throws Exception {
+        Path compiledFile = CompiledBeanDefinitions.compiledFileFor(xmlFile);
+        if (!Files.exists(compiledFile) || !CompiledBeanDefinitions.isUpToDate(compiledFile, xmlFile)) {
+            return false;
+        }
+        return equivalent(parse(xmlFile), CompiledBeanDefinitions.read(compiledFile));
+    }
+    
+    private static List<BeanDefinition> parse(Path xmlFile) throws Exception {
+        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(new DefaultBeanDefinitionRegistry());
+        return reader.parseBeanDefinitions(xmlFile.toString());
+    }
+    
+    /**
+     * Compare two lists of bean definitions on everything an XML file declares.
+     */
+    static boolean equivalent(List<BeanDefinition> expected, List<BeanDefinition> actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            BeanDefinition e = expected.get(i);
+            BeanDefinition a = actual.get(i);
+            if (!Objects.equals(e.getId(), a.getId()) || !Objects.equals(e.getClassName(), a.getClassName())
+                    || !Objects.equals(e.getScope(), a.getScope()) || !Objects.equals(e.getLazyInit(), a.getLazyInit())
+                    || e.getPropertyValues().size() != a.getPropertyValues().size()) {
+                return false;
+            }
+            for (int p = 0; p < e.getPropertyValues().size(); p++) {
+                PropertyValue ep = e.getPropertyValues().get(p);
+                PropertyValue ap = a.getPropertyValues().get(p);
+                if (!Objects.equals(ep.getName(), ap.getName()) || !Objects.equals(ep.getValue(), ap.getValue())
+                        || ep.isRef() != ap.isRef()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -4,33 +4,49 @@ import com.bellagnech.springlite.di.BeanCreationException;
 import com.bellagnech.springlite.di.BeanDefinition;
 import com.bellagnech.springlite.di.BeanDefinitionRegistry;
 import com.bellagnech.springlite.di.PropertyValue;
+import com.bellagnech.springlite.di.util.Logger;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 
 /**
  * Bean definition reader for XML bean definitions.
- * Reads XML bean configuration using DOM and registers bean definitions with the registry.
+ * Streams the XML configuration with StAX and registers each bean definition
+ * with the registry as soon as its element is closed, so that memory use does
+ * not grow with the size of the file. Files compiled by
+ * {@link XmlBeanDefinitionCompiler} are read from their binary form instead.
  */
 public class XmlBeanDefinitionReader {
     
+    private static final Logger logger = Logger.getLogger(XmlBeanDefinitionReader.class);
+    
+    // Factories are safe to share between threads once configured
+    private static final XMLInputFactory inputFactory = createInputFactory();
+    
     private final BeanDefinitionRegistry registry;
     
     public XmlBeanDefinitionReader(BeanDefinitionRegistry registry) {
         this.registry = registry;
     }
     
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+    
     /**
      * Load bean definitions from the given XML file path.
      * 
@@ -38,12 +54,7 @@ public class XmlBeanDefinitionReader {
      * @throws Exception if loading or parsing fails
      */
     public void loadBeanDefinitions(String xmlFilePath) throws Exception {
-        File file = new File(xmlFilePath);
-        try (InputStream inputStream = new FileInputStream(file)) {
-            loadBeanDefinitions(inputStream);
-        } catch (IOException e) {
-            throw new Exception("Failed to load XML bean definitions from " + xmlFilePath, e);
-        }
+        readFile(xmlFilePath, registry::registerBeanDefinition);
     }
     
     /**
@@ -53,67 +64,170 @@ public class XmlBeanDefinitionReader {
      * @throws Exception if loading or parsing fails
      */
     public void loadBeanDefinitions(InputStream inputStream) throws Exception {
+        read(inputStream, registry::registerBeanDefinition);
+    }
+    
+    /**
+     * Read the bean definitions of the given XML file path without registering them.
+     * Safe to call from several threads at once, to parse files in parallel.
+     * 
+     * @param xmlFilePath the XML file path
+     * @return the bean definitions, in the order of the file
+     * @throws Exception if loading or parsing fails
+     */
+    public List<BeanDefinition> readBeanDefinitions(String xmlFilePath) throws Exception {
+        List<BeanDefinition> beanDefinitions = new ArrayList<>();
+        readFile(xmlFilePath, beanDefinitions::add);
+        return beanDefinitions;
+    }
+    
+    /**
+     * Read the bean definitions of an XML file from its compiled file if it is
+     * up to date (see {@link CompiledBeanDefinitions}), from the XML otherwise.
+     */
+    private void readFile(String xmlFilePath, BeanDefinitionSink sink) throws Exception {
+        Path xmlFile = Paths.get(xmlFilePath);
+        Path compiledFile = CompiledBeanDefinitions.compiledFileFor(xmlFile);
+        if (CompiledBeanDefinitions.isUpToDate(compiledFile, xmlFile)) {
+            List<BeanDefinition> beanDefinitions = null;
+            try {
+                beanDefinitions = CompiledBeanDefinitions.read(compiledFile);
+            } catch (IOException e) {
+                logger.warn("Ignoring compiled bean definitions {}: {}", compiledFile, e.getMessage());
+            }
+            if (beanDefinitions != null) {
+                logger.debug("Loading compiled bean definitions from {}", compiledFile);
+                for (BeanDefinition beanDefinition : beanDefinitions) {
+                    sink.accept(beanDefinition);
+                }
+                return;
+            }
+        }
+        parseFile(xmlFilePath, sink);
+    }
+    
+    /**
+     * Parse the bean definitions of an XML file, ignoring its compiled file.
+     * 
+     * @param xmlFilePath the XML file path
+     * @return the bean definitions, in the order of the file
+     * @throws Exception if loading or parsing fails
+     */
+    List<BeanDefinition> parseBeanDefinitions(String xmlFilePath) throws Exception {
+        List<BeanDefinition> beanDefinitions = new ArrayList<>();
+        parseFile(xmlFilePath, beanDefinitions::add);
+        return beanDefinitions;
+    }
+    
+    private void parseFile(String xmlFilePath, BeanDefinitionSink sink) throws Exception {
+        File file = new File(xmlFilePath);
+        try (InputStream inputStream = new FileInputStream(file)) {
+            read(inputStream, sink);
+        } catch (IOException e) {
+            throw new Exception("Failed to load XML bean definitions from " + xmlFilePath, e);
+        }
+    }
+    
+    private void read(InputStream inputStream, BeanDefinitionSink sink) throws Exception {
+        XMLStreamReader reader = null;
         try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(inputStream);
-            document.getDocumentElement().normalize();
-            
-            processBeanDefinitions(document);
-        } catch (ParserConfigurationException | SAXException | IOException e) {
+            reader = inputFactory.createXMLStreamReader(inputStream);
+            processBeanDefinitions(reader, sink);
+        } catch (XMLStreamException e) {
             throw new Exception("Error parsing XML bean definitions", e);
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
         }
     }
     
     /**
-     * Process bean definitions from the parsed XML document.
+     * Process bean definitions from the XML stream. Bean elements are read at any
+     * depth; property elements belong to the bean element they are a child of.
      * 
-     * @param document the parsed XML document
+     * @param reader the XML stream, positioned before the root element
+     * @param sink receives each bean definition when its element is closed
      */
-    private void processBeanDefinitions(Document document) throws BeanCreationException {
-        NodeList beanNodes = document.getElementsByTagName("bean");
+    private void processBeanDefinitions(XMLStreamReader reader, BeanDefinitionSink sink) 
+            throws XMLStreamException, BeanCreationException {
+        String defaultLazyInit = "";
+        
+        // Open bean elements, innermost first, with the depth of their element
+        Deque<BeanDefinition> beans = new ArrayDeque<>();
+        Deque<Integer> beanDepths = new ArrayDeque<>();
+        int depth = 0;
         
-        for (int i = 0; i < beanNodes.getLength(); i++) {
-            Node beanNode = beanNodes.item(i);
-            
-            if (beanNode.getNodeType() == Node.ELEMENT_NODE) {
-                Element beanElement = (Element) beanNode;
-                
-                String id = beanElement.getAttribute("id");
-                String className = beanElement.getAttribute("class");
-                String scope = beanElement.getAttribute("scope");
-                
-                BeanDefinition beanDefinition = new BeanDefinition();
-                beanDefinition.setId(id);
-                beanDefinition.setClassName(className);
-                if (scope != null && !scope.isEmpty()) {
-                    beanDefinition.setScope(scope);
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                String elementName = reader.getLocalName();
+                if (depth == 1) {
+                    defaultLazyInit = attribute(reader, "default-lazy-init");
                 }
-                
-                // Process property elements
-                NodeList propertyNodes = beanElement.getElementsByTagName("property");
-                for (int j = 0; j < propertyNodes.getLength(); j++) {
-                    Node propertyNode = propertyNodes.item(j);
-                    
-                    if (propertyNode.getNodeType() == Node.ELEMENT_NODE) {
-                        Element propertyElement = (Element) propertyNode;
-                        
-                        String name = propertyElement.getAttribute("name");
-                        String value = propertyElement.getAttribute("value");
-                        String ref = propertyElement.getAttribute("ref");
-                        
-                        if (ref != null && !ref.isEmpty()) {
-                            // This is a reference to another bean
-                            beanDefinition.addPropertyValue(new PropertyValue(name, ref, true));
-                        } else if (value != null && !value.isEmpty()) {
-                            // This is a value
-                            beanDefinition.addPropertyValue(new PropertyValue(name, value));
-                        }
-                    }
+                if ("bean".equals(elementName)) {
+                    beans.push(createBeanDefinition(reader, defaultLazyInit));
+                    beanDepths.push(depth);
+                } else if ("property".equals(elementName) && !beans.isEmpty() && beanDepths.peek() == depth - 1) {
+                    addPropertyValue(reader, beans.peek());
                 }
-                
-                registry.registerBeanDefinition(beanDefinition);
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (!beanDepths.isEmpty() && beanDepths.peek() == depth) {
+                    beanDepths.pop();
+                    sink.accept(beans.pop());
+                }
+                depth--;
             }
         }
     }
+    
+    private BeanDefinition createBeanDefinition(XMLStreamReader reader, String defaultLazyInit) {
+        BeanDefinition beanDefinition = new BeanDefinition();
+        beanDefinition.setId(attribute(reader, "id"));
+        beanDefinition.setClassName(attribute(reader, "class"));
+        String scope = attribute(reader, "scope");
+        if (!scope.isEmpty()) {
+            beanDefinition.setScope(scope);
+        }
+        
+        // "default" or no attribute follows the beans element, then the context
+        String lazyInit = attribute(reader, "lazy-init");
+        if (lazyInit.isEmpty() || "default".equals(lazyInit)) {
+            lazyInit = defaultLazyInit;
+        }
+        if ("true".equals(lazyInit) || "false".equals(lazyInit)) {
+            beanDefinition.setLazyInit(Boolean.valueOf(lazyInit));
+        }
+        return beanDefinition;
+    }
+    
+    private void addPropertyValue(XMLStreamReader reader, BeanDefinition beanDefinition) {
+        String name = attribute(reader, "name");
+        String value = attribute(reader, "value");
+        String ref = attribute(reader, "ref");
+        
+        if (!ref.isEmpty()) {
+            // This is a reference to another bean
+            beanDefinition.addPropertyValue(new PropertyValue(name, ref, true));
+        } else if (!value.isEmpty()) {
+            // This is a value
+            beanDefinition.addPropertyValue(new PropertyValue(name, value));
+        }
+    }
+    
+    /**
+     * Get an attribute of the current element, like {@code Element.getAttribute}.
+     * 
+     * @return the value, or an empty string if the attribute is not present
+     */
+    private static String attribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
+    }
+    
+    @FunctionalInterface
+    private interface BeanDefinitionSink {
+        void accept(BeanDefinition beanDefinition) throws BeanCreationException;
+    }
 }
@@ -37,13 +37,11 @@ public class AnnotationConfigExample {
             User newUser = userController.registerUser("alicesmith", "Alice Smith", "alice@example.com");
             System.out.println(" - Created: " + newUser);
             
-            // Get prototype-scoped notification service instances
+            // Get prototype-scoped notification service instances; registerUser
+            // already sent the welcome email through its own instance
             System.out.println("\nDemonstrating prototype scope:");
             NotificationService notification1 = context.getBean("notificationService", NotificationService.class);
-            notification1.sendWelcomeEmail(newUser);
-            
             NotificationService notification2 = context.getBean("notificationService", NotificationService.class);
-            notification2.sendWelcomeEmail(newUser);
             
             System.out.println("notification1 instance ID: " + notification1.getInstanceId());
             System.out.println("notification2 instance ID: " + notification2.getInstanceId());
@@ -3,6 +3,7 @@ package com.bellagnech.springlite.examples;
 import com.bellagnech.springlite.di.ApplicationContext;
 import com.bellagnech.springlite.di.XmlApplicationContext;
 import com.bellagnech.springlite.di.util.Logger;
+import com.bellagnech.springlite.examples.controller.UserController;
 import com.bellagnech.springlite.examples.model.User;
 import com.bellagnech.springlite.examples.service.NotificationService;
 import com.bellagnech.springlite.examples.service.UserService;
@@ -24,8 +25,9 @@ public class XmlConfigExample {
             ApplicationContext context = new XmlApplicationContext(
                     "src/main/resources/example-beans.xml");
             
-            // Get the user service from the context
+            // Get the user service and controller from the context
             UserService userService = context.getBean("userService", UserService.class);
+            UserController userController = context.getBean("userController", UserController.class);
             
             // Display existing users
             System.out.println("\nExisting users:");
@@ -35,17 +37,17 @@ public class XmlConfigExample {
             
             // Create a new user
             System.out.println("\nCreating a new user:");
-            User newUser = userService.createUser("bobsmith", "Bob Smith", "bob@example.com");
+            User newUser = userController.registerUser("bobsmith", "Bob Smith", "bob@example.com");
             System.out.println(" - Created: " + newUser);
             
-            // Get prototype-scoped notification service instances
+            // Get prototype-scoped notification service instances; registerUser
+            // already sent the welcome email through its own instance
             System.out.println("\nDemonstrating prototype scope:");
             NotificationService notification1 = context.getBean("notificationService", NotificationService.class);
-            notification1.sendWelcomeEmail(newUser);
-            
             NotificationService notification2 = context.getBean("notificationService", NotificationService.class);
-            notification2.sendWelcomeEmail(newUser);
             
+            System.out.println("notification1 instance ID: " + notification1.getInstanceId());
+            System.out.println("notification2 instance ID: " + notification2.getInstanceId());
             System.out.println("Same instance? " + (notification1 == notification2)); // Should be false
             
             System.out.println("\nXML Configuration Example completed successfully");
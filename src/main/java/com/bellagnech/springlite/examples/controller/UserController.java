@@ -1,5 +1,6 @@
 package com.bellagnech.springlite.examples.controller;
 
+import com.bellagnech.springlite.di.Provider;
 import com.bellagnech.springlite.di.annotations.Autowired;
 import com.bellagnech.springlite.di.annotations.Component;
 import com.bellagnech.springlite.examples.model.User;
@@ -8,7 +9,8 @@ import com.bellagnech.springlite.examples.service.UserService;
 
 /**
  * Controller for user-related operations.
- * Demonstrates field-based dependency injection.
+ * Demonstrates field-based dependency injection, and a {@link Provider}
+ * for a prototype-scoped dependency.
  */
 @Component
 public class UserController {
@@ -16,6 +18,9 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private Provider<NotificationService> notificationServiceProvider;
+    
     public User getUser(String username) {
         return userService.getUserByUsername(username);
     }
@@ -24,6 +29,9 @@ public class UserController {
         User user = userService.createUser(username, fullName, email);
         
         // Get a new instance of NotificationService (prototype bean)
+        NotificationService notificationService = notificationServiceProvider.get();
+        notificationService.sendWelcomeEmail(user);
+        
         return user;
     }
     
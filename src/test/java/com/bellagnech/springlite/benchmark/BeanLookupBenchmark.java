@@ -0,0 +1,58 @@
+package com.bellagnech.springlite.benchmark;
+
+import com.bellagnech.springlite.di.AnnotationApplicationContext;
+import com.bellagnech.springlite.di.BeanHandle;
+import com.bellagnech.springlite.di.util.Logger;
+import com.bellagnech.springlite.test.advanced.ServiceA;
+
+/**
+ * Single-threaded cost of looking up an existing singleton by id, by type
+ * and through a {@link BeanHandle}.
+ * <p>
+ * Run with: {@code java -cp target/classes:target/test-classes
+ * com.bellagnech.springlite.benchmark.BeanLookupBenchmark [iterations]}
+ */
+public class BeanLookupBenchmark {
+    
+    @FunctionalInterface
+    private interface Lookup {
+        Object get() throws Exception;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        
+        Logger.disable();
+        AnnotationApplicationContext context = new AnnotationApplicationContext(
+                "com.bellagnech.springlite.test.advanced");
+        BeanHandle<ServiceA> handle = context.handle("serviceA", ServiceA.class);
+        
+        Lookup byId = () -> context.getBean("serviceA");
+        Lookup byType = () -> context.getBean(ServiceA.class);
+        Lookup byHandle = handle::get;
+        
+        for (int round = 0; round < 3; round++) { // Report the last round, earlier ones warm up
+            double idNanos = measure(byId, iterations);
+            double typeNanos = measure(byType, iterations);
+            double handleNanos = measure(byHandle, iterations);
+            if (round == 2) {
+                System.out.printf("%-24s %8.2f ns/op%n", "getBean(String)", idNanos);
+                System.out.printf("%-24s %8.2f ns/op%n", "getBean(Class)", typeNanos);
+                System.out.printf("%-24s %8.2f ns/op%n", "BeanHandle.get()", handleNanos);
+            }
+        }
+    }
+    
+    private static double measure(Lookup lookup, int iterations) throws Exception {
+        Object sink = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = lookup.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == null) {
+            throw new IllegalStateException("No bean returned");
+        }
+        return (double) elapsed / iterations;
+    }
+}
@@ -0,0 +1,141 @@
+package com.bellagnech.springlite.benchmark;
+
+import com.bellagnech.springlite.di.AnnotationApplicationContext;
+import com.bellagnech.springlite.di.ApplicationContext;
+import com.bellagnech.springlite.di.TrainingRun;
+import com.bellagnech.springlite.di.XmlApplicationContext;
+import com.bellagnech.springlite.di.util.Logger;
+import com.bellagnech.springlite.examples.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Compares cold starts of the example contexts with and without an AppCDS
+ * archive. For each context, a training run with {@code -XX:ArchiveClassesAtExit}
+ * writes a dynamic archive, then fresh JVMs boot the context without and with
+ * {@code -XX:SharedArchiveFile}. Reported times are the wall-clock time of the
+ * whole process, JVM startup included.
+ * <p>
+ * CDS only archives classes loaded from jar files, so the directories of the
+ * class path are packaged into jars first. The XML context declares the example
+ * beans that do not need constructor injection.
+ * <p>
+ * Run with: {@code java -cp target/classes:target/test-classes
+ * com.bellagnech.springlite.benchmark.CdsStartupBenchmark [launches]}
+ */
+public class CdsStartupBenchmark {
+    
+    private static final String XML_CONFIG = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<beans>\n" +
+            "    <bean id=\"userRepository\" class=\"com.bellagnech.springlite.examples.repository.InMemoryUserRepository\"/>\n" +
+            "    <bean id=\"notificationService\" class=\"com.bellagnech.springlite.examples.service.NotificationService\" scope=\"prototype\"/>\n" +
+            "</beans>";
+    private static final String EXAMPLES_PACKAGE = "com.bellagnech.springlite.examples";
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("boot")) {
+            boot(args[1]);
+            return;
+        }
+        int launches = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        
+        Path archiveDir = Files.createTempDirectory("springlite-cds");
+        String classPath = jarClassPath(archiveDir);
+        System.out.printf("%-12s %14s %14s %10s%n", "context", "default (ms)", "archive (ms)", "speedup");
+        for (String context : new String[] {"xml", "annotation"}) {
+            Path archive = archiveDir.resolve(context + ".jsa");
+            int exitCode = launch(classPath, context, "-XX:ArchiveClassesAtExit=" + archive, "-D" + TrainingRun.TRAINING_PROPERTY + "=true");
+            if (exitCode != 0 || !Files.exists(archive)) {
+                System.out.printf("%-12s training run failed with exit code %d%n", context, exitCode);
+                continue;
+            }
+            
+            double withoutArchive = medianMillis(classPath, context, launches, "-Xshare:auto");
+            double withArchive = medianMillis(classPath, context, launches, "-XX:SharedArchiveFile=" + archive);
+            System.out.printf("%-12s %14.1f %14.1f %9.2fx%n", context, withoutArchive, withArchive, 
+                    withoutArchive / withArchive);
+        }
+    }
+    
+    private static void boot(String context) throws Exception {
+        Logger.disable();
+        ApplicationContext applicationContext = context.equals("xml") 
+                ? new XmlApplicationContext(new ByteArrayInputStream(XML_CONFIG.getBytes(StandardCharsets.UTF_8))) 
+                : new AnnotationApplicationContext(EXAMPLES_PACKAGE);
+        applicationContext.getBean(UserRepository.class);
+    }
+    
+    private static double medianMillis(String classPath, String context, int launches, String... jvmOptions) throws Exception {
+        double[] millis = new double[launches];
+        for (int i = 0; i < launches; i++) {
+            long start = System.nanoTime();
+            int exitCode = launch(classPath, context, jvmOptions);
+            millis[i] = (System.nanoTime() - start) / 1e6;
+            if (exitCode != 0) {
+                throw new IllegalStateException("Boot of the " + context + " context failed with exit code " + exitCode);
+            }
+        }
+        Arrays.sort(millis);
+        return millis[launches / 2];
+    }
+    
+    private static int launch(String classPath, String context, String... jvmOptions) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + "/bin/java");
+        command.addAll(Arrays.asList(jvmOptions));
+        command.add("-cp");
+        command.add(classPath);
+        command.add(CdsStartupBenchmark.class.getName());
+        command.add("boot");
+        command.add(context);
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        return process.waitFor();
+    }
+    
+    /**
+     * Package every directory of the class path into a jar, keeping jars as they are.
+     */
+    private static String jarClassPath(Path jarDir) throws IOException {
+        List<String> entries = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path path = Path.of(entry);
+            if (!Files.isDirectory(path)) {
+                entries.add(entry);
+                continue;
+            }
+            Path jar = jarDir.resolve("classpath-" + entries.size() + ".jar");
+            List<Path> files = new ArrayList<>();
+            try (Stream<Path> walk = Files.walk(path)) {
+                walk.filter(file -> !file.equals(path)).sorted().forEach(files::add);
+            }
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+                for (Path file : files) {
+                    // Directory entries too, package resources are looked up by the scanner
+                    String name = path.relativize(file).toString().replace(File.separatorChar, '/');
+                    boolean directory = Files.isDirectory(file);
+                    out.putNextEntry(new JarEntry(directory ? name + "/" : name));
+                    if (!directory) {
+                        Files.copy(file, out);
+                    }
+                    out.closeEntry();
+                }
+            }
+            entries.add(jar.toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+}
@@ -0,0 +1,108 @@
+package com.bellagnech.springlite.benchmark;
+
+import com.bellagnech.springlite.di.BeanDefinition;
+import com.bellagnech.springlite.di.DefaultBeanDefinitionRegistry;
+import com.bellagnech.springlite.di.annotation.AnnotationBeanDefinitionReader;
+import com.bellagnech.springlite.di.annotation.ComponentIndex;
+import com.bellagnech.springlite.di.util.Logger;
+
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares startup with classpath scanning and with a {@link ComponentIndex}:
+ * registering the components of every package of the project and resolving
+ * their classes. The index is written from a scan before measuring.
+ * Each mode runs in a forked JVM, so the first run is a real cold start.
+ * <p>
+ * Run with: {@code java -cp target/classes:target/test-classes
+ * com.bellagnech.springlite.benchmark.ComponentIndexBenchmark [iterations]}
+ */
+public class ComponentIndexBenchmark {
+    
+    private static final String BASE_PACKAGE = "com.bellagnech.springlite";
+    
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        
+        if (args.length > 2) {
+            runMode(args[1], Path.of(args[2]), iterations);
+            return;
+        }
+        
+        Logger.disable();
+        Path indexDir = writeIndex();
+        
+        System.out.printf("%-10s %10s %12s %14s%n", "mode", "beans", "cold (ms)", "warm (ms/op)");
+        for (String mode : new String[] {"scan", "index"}) {
+            String java = System.getProperty("java.home") + "/bin/java";
+            Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    ComponentIndexBenchmark.class.getName(), String.valueOf(iterations), mode, indexDir.toString())
+                    .inheritIO()
+                    .start();
+            process.waitFor();
+        }
+    }
+    
+    private static Path writeIndex() throws Exception {
+        System.setProperty(ComponentIndex.IGNORE_INDEX_PROPERTY, "true");
+        DefaultBeanDefinitionRegistry registry = new DefaultBeanDefinitionRegistry();
+        new AnnotationBeanDefinitionReader(registry).scan(BASE_PACKAGE);
+        System.clearProperty(ComponentIndex.IGNORE_INDEX_PROPERTY);
+        
+        List<ComponentIndex.Entry> entries = new ArrayList<>();
+        for (BeanDefinition bd : registry.getBeanDefinitions().values()) {
+            entries.add(new ComponentIndex.Entry(bd.getClassName(), bd.getId(), bd.getScope(), 
+                    bd.getLazyInit()));
+        }
+        
+        Path indexDir = Files.createTempDirectory("component-index");
+        Path indexFile = indexDir.resolve(ComponentIndex.INDEX_LOCATION);
+        Files.createDirectories(indexFile.getParent());
+        try (Writer writer = Files.newBufferedWriter(indexFile)) {
+            ComponentIndex.write(writer, entries);
+        }
+        return indexDir;
+    }
+    
+    private static void runMode(String mode, Path indexDir, int iterations) throws Exception {
+        Logger.disable();
+        ClassLoader classLoader;
+        if ("index".equals(mode)) {
+            classLoader = new URLClassLoader(new URL[] {indexDir.toUri().toURL()}, 
+                    ComponentIndexBenchmark.class.getClassLoader());
+        } else {
+            System.setProperty(ComponentIndex.IGNORE_INDEX_PROPERTY, "true");
+            classLoader = ComponentIndexBenchmark.class.getClassLoader();
+        }
+        
+        long start = System.nanoTime();
+        int beans = loadComponents(classLoader);
+        double coldMillis = (System.nanoTime() - start) / 1e6;
+        
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            loadComponents(classLoader);
+        }
+        double warmMillis = (System.nanoTime() - start) / 1e6 / iterations;
+        
+        System.out.printf("%-10s %10d %12.2f %14.3f%n", mode, beans, coldMillis, warmMillis);
+    }
+    
+    private static int loadComponents(ClassLoader classLoader) throws Exception {
+        DefaultBeanDefinitionRegistry registry = new DefaultBeanDefinitionRegistry();
+        AnnotationBeanDefinitionReader reader = new AnnotationBeanDefinitionReader(registry);
+        reader.setClassLoader(classLoader);
+        reader.scan(BASE_PACKAGE);
+        
+        for (BeanDefinition bd : registry.getBeanDefinitions().values()) {
+            bd.resolveBeanClass(classLoader);
+        }
+        return registry.getBeanDefinitions().size();
+    }
+}
@@ -0,0 +1,86 @@
+package com.bellagnech.springlite.benchmark;
+
+import com.bellagnech.springlite.di.BeanInstantiator;
+import com.bellagnech.springlite.di.InjectionPlan;
+import com.bellagnech.springlite.di.MethodHandleBeanInstantiator;
+import com.bellagnech.springlite.di.ReflectiveBeanInstantiator;
+import com.bellagnech.springlite.di.util.Logger;
+import com.bellagnech.springlite.examples.repository.InMemoryUserRepository;
+import com.bellagnech.springlite.examples.service.NotificationService;
+import com.bellagnech.springlite.examples.service.UserServiceImpl;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Compares the reflective and method handle instantiation strategies on the
+ * example beans: {@link NotificationService} (public no-arg constructor) and
+ * {@link UserServiceImpl} (autowired constructor with one argument).
+ * Both example constructors print to standard output, which is redirected to
+ * a null stream while measuring; the printing cost is the same for both strategies.
+ * Each strategy runs in a forked JVM, so call sites only ever see one strategy.
+ * <p>
+ * Run with: {@code java -cp target/classes:target/test-classes
+ * com.bellagnech.springlite.benchmark.InstantiationBenchmark [iterations]}
+ */
+public class InstantiationBenchmark {
+    
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        
+        if (args.length > 1) {
+            runStrategy(args[1], iterations);
+            return;
+        }
+        
+        // Measure each strategy in its own JVM so their profiles do not pollute each other
+        System.out.printf("%-30s %22s %22s%n", "strategy", "NotificationService", "UserServiceImpl");
+        for (String strategy : new String[] {"reflective", "methodhandle"}) {
+            String java = System.getProperty("java.home") + "/bin/java";
+            Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                    InstantiationBenchmark.class.getName(), String.valueOf(iterations), strategy)
+                    .inheritIO()
+                    .start();
+            process.waitFor();
+        }
+    }
+    
+    private static void runStrategy(String strategy, int iterations) throws Exception {
+        BeanInstantiator instantiator = "reflective".equals(strategy)
+                ? new ReflectiveBeanInstantiator()
+                : new MethodHandleBeanInstantiator();
+        
+        Logger.disable();
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        
+        InjectionPlan notificationPlan = InjectionPlan.forClass(NotificationService.class, instantiator);
+        InjectionPlan userServicePlan = InjectionPlan.forClass(UserServiceImpl.class, instantiator);
+        Object[] noArguments = new Object[0];
+        Object[] repositoryArgument = {new InMemoryUserRepository()};
+        
+        double notificationNanos = 0;
+        double userServiceNanos = 0;
+        for (int round = 0; round < 3; round++) { // Keep the last round, earlier ones warm up
+            notificationNanos = measure(notificationPlan, noArguments, iterations);
+            userServiceNanos = measure(userServicePlan, repositoryArgument, iterations);
+        }
+        
+        System.setOut(console);
+        System.out.printf("%-30s %17.1f ns/op %17.1f ns/op%n",
+                instantiator.getClass().getSimpleName(), notificationNanos, userServiceNanos);
+    }
+    
+    private static double measure(InjectionPlan plan, Object[] arguments, int iterations) throws Exception {
+        Object sink = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = plan.newInstance(arguments);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == null) {
+            throw new IllegalStateException("No instance created");
+        }
+        return (double) elapsed / iterations;
+    }
+}
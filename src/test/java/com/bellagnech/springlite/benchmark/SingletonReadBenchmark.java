@@ -0,0 +1,79 @@
+package com.bellagnech.springlite.benchmark;
+
+import com.bellagnech.springlite.di.AnnotationApplicationContext;
+import com.bellagnech.springlite.di.ApplicationContext;
+import com.bellagnech.springlite.di.util.Logger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention benchmark for singleton lookups.
+ * Runs getBean on an already created singleton from 1 to 64 threads and
+ * reports throughput and scaling relative to a single thread.
+ * Reads never take a lock, so throughput should grow close to linearly
+ * with the number of threads up to the number of available cores.
+ * <p>
+ * Run with: {@code java -cp target/classes:target/test-classes
+ * com.bellagnech.springlite.benchmark.SingletonReadBenchmark [millisPerRound]}
+ */
+public class SingletonReadBenchmark {
+    
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+    
+    public static void main(String[] args) throws Exception {
+        long millisPerRound = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        
+        Logger.disable();
+        ApplicationContext context = new AnnotationApplicationContext(
+                "com.bellagnech.springlite.test.advanced");
+        
+        // Warm up the lookup path before measuring
+        runRound(context, 4, millisPerRound);
+        
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("%8s %16s %10s%n", "threads", "ops/s", "scaling");
+        double baseline = 0;
+        for (int threads : THREAD_COUNTS) {
+            double opsPerSecond = runRound(context, threads, millisPerRound);
+            if (baseline == 0) {
+                baseline = opsPerSecond;
+            }
+            System.out.printf("%8d %16.0f %9.2fx%n", threads, opsPerSecond, opsPerSecond / baseline);
+        }
+    }
+    
+    private static double runRound(ApplicationContext context, int threads, long millis) throws Exception {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                long count = 0;
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        for (int j = 0; j < 1000; j++) {
+                            context.getBean("serviceA");
+                        }
+                        count += 1000;
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                operations.add(count);
+            });
+            workers[i].start();
+        }
+        
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+        return operations.sum() / seconds;
+    }
+}
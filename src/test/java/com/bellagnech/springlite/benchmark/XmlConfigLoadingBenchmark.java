@@ -0,0 +1,98 @@
+package com.bellagnech.springlite.benchmark;
+
+import com.bellagnech.springlite.di.XmlApplicationContext;
+import com.bellagnech.springlite.di.util.Logger;
+import com.bellagnech.springlite.di.xml.XmlBeanDefinitionReader;
+
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Refresh time of an XmlApplicationContext whose configuration is split across
+ * 1 to 64 files, with the files parsed one after another and in parallel.
+ * Beans are lazy, so the refresh is dominated by loading the definitions.
+ * <p>
+ * Run with: {@code java -cp target/classes:target/test-classes
+ * com.bellagnech.springlite.benchmark.XmlConfigLoadingBenchmark [beansPerFile] [iterations]}
+ */
+public class XmlConfigLoadingBenchmark {
+    
+    public static void main(String[] args) throws Exception {
+        int beansPerFile = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        
+        Logger.disable();
+        Path configDir = Files.createTempDirectory("xml-config");
+        
+        System.out.printf("%-6s %8s %16s %14s %9s%n", "files", "beans", "sequential (ms)", "parallel (ms)", "speedup");
+        for (int files = 1; files <= 64; files *= 2) {
+            String[] configLocations = writeConfig(configDir, files, beansPerFile);
+            
+            for (int round = 0; round < 2; round++) { // Report the last round, the first one warms up
+                double sequentialMillis = measure(() -> new SequentialXmlApplicationContext(configLocations), iterations);
+                double parallelMillis = measure(() -> new XmlApplicationContext(configLocations), iterations);
+                if (round == 1) {
+                    System.out.printf("%-6d %8d %16.2f %14.2f %8.2fx%n", files, files * beansPerFile, 
+                            sequentialMillis, parallelMillis, sequentialMillis / parallelMillis);
+                }
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ContextFactory {
+        XmlApplicationContext create() throws Exception;
+    }
+    
+    private static double measure(ContextFactory factory, int iterations) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (factory.create().getBeanDefinitionNames().length == 0) {
+                throw new IllegalStateException("No bean definitions loaded");
+            }
+        }
+        return (System.nanoTime() - start) / 1e6 / iterations;
+    }
+    
+    private static String[] writeConfig(Path configDir, int files, int beansPerFile) throws Exception {
+        String[] configLocations = new String[files];
+        for (int file = 0; file < files; file++) {
+            Path path = configDir.resolve("beans-" + files + "-" + file + ".xml");
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<beans default-lazy-init=\"true\">\n");
+                for (int bean = 0; bean < beansPerFile; bean++) {
+                    writer.write("    <bean id=\"bean" + file + "_" + bean 
+                            + "\" class=\"com.bellagnech.springlite.test.SimpleBean\">\n");
+                    writer.write("        <property name=\"message\" value=\"bean " + bean + "\" />\n");
+                    writer.write("    </bean>\n");
+                }
+                writer.write("</beans>\n");
+            }
+            configLocations[file] = path.toString();
+        }
+        return configLocations;
+    }
+    
+    /**
+     * Context loading its files one after another, as before parallel loading.
+     */
+    private static final class SequentialXmlApplicationContext extends XmlApplicationContext {
+        
+        private final String[] configLocations;
+        
+        SequentialXmlApplicationContext(String[] configLocations) throws Exception {
+            super(configLocations, false);
+            this.configLocations = configLocations;
+            refresh();
+        }
+        
+        @Override
+        protected void loadBeanDefinitions() throws Exception {
+            XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(this);
+            for (String configLocation : configLocations) {
+                reader.loadBeanDefinitions(configLocation);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.bellagnech.springlite.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.test.SimpleBean;
+import com.bellagnech.springlite.test.StaticInitBean;
+import com.bellagnech.springlite.test.annotation.SimpleService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class BeanClassResolutionTest {
+    
+    @Test
+    public void testBeanClassesAreResolvedWithoutInitialization() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans>\n" +
+                "    <bean id=\"staticInitBean\" class=\"com.bellagnech.springlite.test.StaticInitBean\" scope=\"prototype\"/>\n" +
+                "</beans>";
+        InputStream inputStream = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+        
+        XmlApplicationContext context = new XmlApplicationContext(inputStream);
+        
+        BeanDefinition beanDefinition = context.getBeanDefinition("staticInitBean");
+        assertEquals(StaticInitBean.class.getName(), beanDefinition.getBeanClass().getName());
+        assertFalse(StaticInitBean.Tracker.initialized);
+        
+        context.getBean("staticInitBean");
+        assertTrue(StaticInitBean.Tracker.initialized);
+    }
+    
+    @Test
+    public void testConfiguredClassLoaderIsUsed() throws Exception {
+        Set<String> requestedClasses = ConcurrentHashMap.newKeySet();
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public Class<?> loadClass(String name) throws ClassNotFoundException {
+                requestedClasses.add(name);
+                return super.loadClass(name);
+            }
+        };
+        
+        AnnotationApplicationContext context = new AnnotationApplicationContext(
+                new String[] {"com.bellagnech.springlite.test.annotation"}, false);
+        context.setBeanClassLoader(classLoader);
+        context.refresh();
+        
+        assertTrue(requestedClasses.contains(SimpleService.class.getName()));
+        assertSame(SimpleService.class, context.getBeanDefinition("simpleService").getBeanClass());
+    }
+    
+    @Test
+    public void testBeanClassFromNonDelegatingLoaderIsCreated() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans>\n" +
+                "    <bean id=\"simpleBean\" class=\"com.bellagnech.springlite.test.SimpleBean\">\n" +
+                "        <property name=\"message\" value=\"child-first\"/>\n" +
+                "    </bean>\n" +
+                "</beans>";
+        Path configFile = Files.createTempFile("child-first", ".xml");
+        Files.writeString(configFile, xml);
+        
+        // Loads the test fixtures itself instead of asking its parent first
+        URL testClasses = SimpleBean.class.getProtectionDomain().getCodeSource().getLocation();
+        String fixturePackage = SimpleBean.class.getPackageName() + ".";
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {testClasses}, getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (!name.startsWith(fixturePackage)) {
+                    return super.loadClass(name, resolve);
+                }
+                synchronized (getClassLoadingLock(name)) {
+                    Class<?> loadedClass = findLoadedClass(name);
+                    return loadedClass != null ? loadedClass : findClass(name);
+                }
+            }
+        }) {
+            XmlApplicationContext context = new XmlApplicationContext(new String[] {configFile.toString()}, false);
+            context.setBeanClassLoader(classLoader);
+            context.refresh();
+            
+            Object bean = context.getBean("simpleBean");
+            assertSame(classLoader, bean.getClass().getClassLoader());
+            assertNotSame(SimpleBean.class, bean.getClass());
+            assertEquals("child-first", bean.getClass().getMethod("getMessage").invoke(bean));
+        } finally {
+            Files.delete(configFile);
+        }
+    }
+    
+    @Test
+    public void testUnknownClassIsReportedOnRefresh() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans>\n" +
+                "    <bean id=\"missingBean\" class=\"com.bellagnech.springlite.test.DoesNotExist\"/>\n" +
+                "</beans>";
+        InputStream inputStream = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+        
+        BeanCreationException exception = assertThrows(BeanCreationException.class, () -> {
+            new XmlApplicationContext(inputStream);
+        });
+        
+        assertTrue(exception.getMessage().contains("Bean class not found"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.bellagnech.springlite.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.test.PrototypeBean;
+import com.bellagnech.springlite.test.SetterInjectionBean;
+import com.bellagnech.springlite.test.SimpleBean;
+import com.bellagnech.springlite.test.typed.GreetingService;
+import com.bellagnech.springlite.test.typed.QualifiedGreetingConsumer;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class BeanHandleTest {
+    
+    private static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<beans>\n" +
+            "    <bean id=\"simpleBean\" class=\"com.bellagnech.springlite.test.SimpleBean\"/>\n" +
+            "    <bean id=\"setterInjectionBean\" class=\"com.bellagnech.springlite.test.SetterInjectionBean\">\n" +
+            "        <property name=\"dependency\" ref=\"simpleBean\"/>\n" +
+            "    </bean>\n" +
+            "    <bean id=\"prototypeBean\" class=\"com.bellagnech.springlite.test.PrototypeBean\" scope=\"prototype\"/>\n" +
+            "</beans>";
+    
+    private XmlApplicationContext createXmlContext() throws Exception {
+        InputStream inputStream = new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8));
+        return new XmlApplicationContext(inputStream);
+    }
+    
+    @Test
+    public void testSingletonAndPrototypeHandles() throws Exception {
+        XmlApplicationContext context = createXmlContext();
+        
+        BeanHandle<SimpleBean> simpleBean = context.handle("simpleBean", SimpleBean.class);
+        assertEquals("simpleBean", simpleBean.getBeanName());
+        assertSame(context.getBean("simpleBean"), simpleBean.get());
+        assertSame(simpleBean.get(), simpleBean.get());
+        
+        BeanHandle<PrototypeBean> prototypeBean = context.handle("prototypeBean", PrototypeBean.class);
+        assertNotSame(prototypeBean.get(), prototypeBean.get());
+    }
+    
+    @Test
+    public void testHandleLookupErrors() throws Exception {
+        XmlApplicationContext context = createXmlContext();
+        
+        assertThrows(NoSuchBeanDefinitionException.class, () -> context.handle("missingBean", Object.class));
+        assertThrows(BeanCreationException.class, () -> context.handle("simpleBean", String.class));
+    }
+    
+    @Test
+    public void testHandleIsRenewedOnRefresh() throws Exception {
+        XmlApplicationContext context = createXmlContext();
+        BeanHandle<SimpleBean> simpleBean = context.handle("simpleBean", SimpleBean.class);
+        SimpleBean before = simpleBean.get();
+        
+        context.refresh();
+        
+        SimpleBean after = simpleBean.get();
+        assertNotSame(before, after);
+        assertSame(context.getBean("simpleBean"), after);
+    }
+    
+    @Test
+    public void testReferencesAreInjectedThroughHandles() throws Exception {
+        XmlApplicationContext context = createXmlContext();
+        SetterInjectionBean setterBean = context.getBean("setterInjectionBean", SetterInjectionBean.class);
+        assertSame(context.getBean("simpleBean"), setterBean.getDependency());
+        
+        AnnotationApplicationContext annotationContext = 
+                new AnnotationApplicationContext("com.bellagnech.springlite.test.typed");
+        InjectionPlan plan = annotationContext.resolveBeanReferences(
+                InjectionPlan.forClass(QualifiedGreetingConsumer.class));
+        InjectionPoint greetingService = plan.getFieldInjectionPoints().get(0);
+        assertTrue(greetingService.hasTarget());
+        assertEquals("englishGreetingService", greetingService.getTarget().getBeanName());
+        assertSame(annotationContext.getBean("englishGreetingService", GreetingService.class), 
+                greetingService.getTarget().get());
+        
+        QualifiedGreetingConsumer consumer = annotationContext.getBean(QualifiedGreetingConsumer.class);
+        assertEquals("Hello, Carol", consumer.greet("Carol"));
+    }
+}
@@ -0,0 +1,62 @@
+package com.bellagnech.springlite.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.test.typed.AbstractGreetingService;
+import com.bellagnech.springlite.test.typed.AmbiguousGreetingConsumer;
+import com.bellagnech.springlite.test.typed.GreetingConsumer;
+import com.bellagnech.springlite.test.typed.GreetingService;
+
+import java.util.List;
+
+public class BeanTypeIndexTest {
+    
+    private static final String TYPED_PACKAGE = "com.bellagnech.springlite.test.typed";
+    
+    @Test
+    public void testIndexCoversAllSupertypes() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(TYPED_PACKAGE);
+        BeanTypeIndex index = BeanTypeIndex.build(context.getBeanDefinitions());
+        
+        List<String> greetingServices = index.getCandidateNames(GreetingService.class);
+        assertEquals(2, greetingServices.size());
+        assertTrue(greetingServices.contains("englishGreetingService"));
+        assertTrue(greetingServices.contains("frenchGreetingService"));
+        assertEquals(greetingServices, index.getCandidateNames(AbstractGreetingService.class));
+        assertTrue(index.isAmbiguous(GreetingService.class));
+        
+        assertEquals(List.of("greetingConsumer"), index.getCandidateNames(GreetingConsumer.class));
+        assertEquals(4, index.getCandidateNames(Object.class).size());
+        assertTrue(index.getCandidateNames(Runnable.class).isEmpty());
+    }
+    
+    @Test
+    public void testAmbiguousDependencyIsResolvedByName() throws Exception {
+        ApplicationContext context = new AnnotationApplicationContext(TYPED_PACKAGE);
+        
+        GreetingConsumer consumer = context.getBean("greetingConsumer", GreetingConsumer.class);
+        assertEquals("Bonjour, Alice", consumer.greet("Alice"));
+    }
+    
+    @Test
+    public void testAmbiguousDependencyWithoutMatchingNameFails() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(TYPED_PACKAGE);
+        BeanDefinition beanDefinition = new BeanDefinition("ambiguousGreetingConsumer", 
+                AmbiguousGreetingConsumer.class.getName());
+        context.registerBeanDefinition(beanDefinition);
+        
+        BeanCreationException exception = assertThrows(BeanCreationException.class, () -> {
+            context.getBean("ambiguousGreetingConsumer");
+        });
+        
+        Throwable cause = exception;
+        while (cause != null && !(cause instanceof NoUniqueBeanDefinitionException)) {
+            cause = cause.getCause();
+        }
+        assertNotNull(cause, "Expected NoUniqueBeanDefinitionException as cause");
+        assertEquals(List.of("englishGreetingService", "frenchGreetingService"), 
+                ((NoUniqueBeanDefinitionException) cause).getBeanNamesFound().stream().sorted().toList());
+    }
+}
@@ -0,0 +1,122 @@
+package com.bellagnech.springlite.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.test.cycle.DeferredCycleA;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DependencyGraphTest {
+    
+    private static DependencyGraph graphOf(Map<String, List<String>> edges) {
+        return DependencyGraph.build(edges.keySet(), name -> edges.getOrDefault(name, Collections.emptyList()));
+    }
+    
+    @Test
+    public void testFindsEveryCycleInDependencyOrder() {
+        Map<String, List<String>> edges = new LinkedHashMap<>();
+        edges.put("a", List.of("b"));
+        edges.put("b", List.of("c"));
+        edges.put("c", List.of("a", "d"));
+        edges.put("d", List.of());
+        edges.put("self", List.of("self"));
+        edges.put("x", List.of("y"));
+        edges.put("y", List.of("x", "d"));
+        
+        List<List<String>> cycles = graphOf(edges).findCycles();
+        
+        assertEquals(3, cycles.size());
+        assertTrue(cycles.contains(List.of("a", "b", "c")));
+        assertTrue(cycles.contains(List.of("self")));
+        assertTrue(cycles.contains(List.of("x", "y")));
+    }
+    
+    @Test
+    public void testAcyclicGraphIsSortedDependenciesFirst() {
+        Map<String, List<String>> edges = new LinkedHashMap<>();
+        edges.put("controller", List.of("service", "repository"));
+        edges.put("service", List.of("repository"));
+        edges.put("repository", List.of());
+        
+        DependencyGraph graph = graphOf(edges);
+        assertTrue(graph.findCycles().isEmpty());
+        
+        int[] sorted = graph.sortTopologically();
+        List<String> order = new ArrayList<>();
+        for (int node : sorted) {
+            order.add(graph.getBeanName(node));
+        }
+        assertEquals(List.of("repository", "service", "controller"), order);
+        assertEquals(3, graph.getCriticalPathLength(sorted));
+    }
+    
+    @Test
+    public void testDeepChainDoesNotOverflowTheStack() {
+        Map<String, List<String>> edges = new HashMap<>();
+        int length = 100_000;
+        for (int i = 0; i < length; i++) {
+            edges.put("bean" + i, List.of("bean" + ((i + 1) % length)));
+        }
+        
+        List<List<String>> cycles = graphOf(edges).findCycles();
+        
+        assertEquals(1, cycles.size());
+        assertEquals(length, cycles.get(0).size());
+    }
+    
+    @Test
+    public void testCycleIsRejectedBeforeAnyInstanceIsCreated() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans>\n" +
+                "    <bean id=\"circularDependencyA\" class=\"com.bellagnech.springlite.test.lifecycle.CircularDependencyA\" scope=\"prototype\">\n" +
+                "        <property name=\"circularDependencyB\" ref=\"circularDependencyB\"/>\n" +
+                "    </bean>\n" +
+                "    <bean id=\"circularDependencyB\" class=\"com.bellagnech.springlite.test.lifecycle.CircularDependencyB\" scope=\"prototype\">\n" +
+                "        <property name=\"circularDependencyA\" ref=\"circularDependencyA\"/>\n" +
+                "    </bean>\n" +
+                "</beans>";
+        InputStream inputStream = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+        
+        CircularDependencyException exception = assertThrows(CircularDependencyException.class, () -> {
+            new XmlApplicationContext(inputStream);
+        });
+        
+        assertEquals(2, exception.getBeanChain().size());
+        assertTrue(exception.getMessage().contains("circularDependencyA -> circularDependencyB -> circularDependencyA")
+                || exception.getMessage().contains("circularDependencyB -> circularDependencyA -> circularDependencyB"));
+    }
+    
+    @Test
+    public void testProviderBreaksCycle() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext("com.bellagnech.springlite.test.cycle");
+        
+        DeferredCycleA deferredCycleA = context.getBean(DeferredCycleA.class);
+        assertSame(deferredCycleA, deferredCycleA.getDeferredCycleB().getDeferredCycleA());
+    }
+    
+    @Test
+    public void testLazyCycleIsDetectedOnCreation() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext("com.bellagnech.springlite.test.lazycycle");
+        
+        BeanCreationException exception = assertThrows(BeanCreationException.class, () -> {
+            context.getBean("lazyCycleA");
+        });
+        
+        Throwable cause = exception;
+        while (cause != null && !(cause instanceof CircularDependencyException)) {
+            cause = cause.getCause();
+        }
+        assertNotNull(cause);
+        assertTrue(cause.getMessage().contains("lazyCycleA"));
+    }
+}
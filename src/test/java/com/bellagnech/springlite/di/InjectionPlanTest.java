@@ -0,0 +1,50 @@
+package com.bellagnech.springlite.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.test.annotation.DependentBean;
+import com.bellagnech.springlite.test.annotation.FieldInjectionBean;
+import com.bellagnech.springlite.test.annotation.SetterInjectionBean;
+import com.bellagnech.springlite.test.annotation.SimpleService;
+
+public class InjectionPlanTest {
+    
+    @Test
+    public void testConstructorInjectionPlan() throws Exception {
+        InjectionPlan plan = InjectionPlan.forClass(DependentBean.class);
+        
+        assertEquals(DependentBean.class, plan.getConstructor().getDeclaringClass());
+        assertEquals(1, plan.getConstructorArguments().size());
+        InjectionPoint argument = plan.getConstructorArguments().get(0);
+        assertEquals(InjectionPoint.Kind.CONSTRUCTOR_PARAMETER, argument.getKind());
+        assertEquals(SimpleService.class, argument.getDependencyType());
+        assertFalse(argument.hasQualifier());
+        assertTrue(plan.getFieldInjectionPoints().isEmpty());
+        assertTrue(plan.getMethodInjectionPoints().isEmpty());
+    }
+    
+    @Test
+    public void testFieldAndSetterInjectionPlans() throws Exception {
+        InjectionPlan fieldPlan = InjectionPlan.forClass(FieldInjectionBean.class);
+        assertTrue(fieldPlan.getConstructorArguments().isEmpty());
+        assertEquals(1, fieldPlan.getFieldInjectionPoints().size());
+        assertEquals("simpleService", fieldPlan.getFieldInjectionPoints().get(0).getName());
+        assertEquals(SimpleService.class, fieldPlan.getFieldInjectionPoints().get(0).getDependencyType());
+        
+        InjectionPlan setterPlan = InjectionPlan.forClass(SetterInjectionBean.class);
+        assertEquals(1, setterPlan.getMethodInjectionPoints().size());
+        InjectionPoint setter = setterPlan.getMethodInjectionPoints().get(0);
+        assertEquals(InjectionPoint.Kind.METHOD, setter.getKind());
+        assertEquals("setSimpleService", setter.getName());
+        assertTrue(setter.isRequired());
+    }
+    
+    @Test
+    public void testPlanListsAreImmutable() throws Exception {
+        InjectionPlan plan = InjectionPlan.forClass(FieldInjectionBean.class);
+        
+        assertThrows(UnsupportedOperationException.class, () -> plan.getFieldInjectionPoints().clear());
+    }
+}
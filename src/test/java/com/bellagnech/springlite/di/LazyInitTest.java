@@ -0,0 +1,141 @@
+package com.bellagnech.springlite.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.test.lazy.AlwaysEagerBean;
+import com.bellagnech.springlite.test.lazy.EagerBean;
+import com.bellagnech.springlite.test.lazy.LazyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+public class LazyInitTest {
+    
+    private static final String LAZY_PACKAGE = "com.bellagnech.springlite.test.lazy";
+    
+    @Test
+    public void testLazySingletonIsCreatedOnFirstAccess() throws Exception {
+        int lazyBefore = LazyBean.instances.get();
+        int eagerBefore = EagerBean.instances.get();
+        
+        AnnotationApplicationContext context = new AnnotationApplicationContext(LAZY_PACKAGE);
+        assertEquals(lazyBefore, LazyBean.instances.get());
+        assertEquals(eagerBefore + 1, EagerBean.instances.get());
+        
+        LazyBean lazyBean = context.getBean(LazyBean.class);
+        assertSame(lazyBean, context.getBean("lazyBean"));
+        assertEquals(lazyBefore + 1, LazyBean.instances.get());
+    }
+    
+    @Test
+    public void testConcurrentFirstAccessCreatesOneInstance() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(LAZY_PACKAGE);
+        int lazyBefore = LazyBean.instances.get();
+        
+        Set<Object> instances = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[16];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                    instances.add(context.getBean("lazyBean"));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(1, instances.size());
+        assertEquals(lazyBefore + 1, LazyBean.instances.get());
+    }
+    
+    @Test
+    public void testDefaultLazyInitMode() throws Exception {
+        int eagerBefore = EagerBean.instances.get();
+        int alwaysEagerBefore = AlwaysEagerBean.instances.get();
+        
+        AnnotationApplicationContext context = new AnnotationApplicationContext(new String[] {LAZY_PACKAGE}, false);
+        context.setDefaultLazyInit(true);
+        context.refresh();
+        
+        assertEquals(eagerBefore, EagerBean.instances.get());
+        assertEquals(alwaysEagerBefore + 1, AlwaysEagerBean.instances.get());
+        
+        context.getBean("eagerBean");
+        assertEquals(eagerBefore + 1, EagerBean.instances.get());
+    }
+    
+    @Test
+    public void testXmlLazyInitAttributes() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans default-lazy-init=\"true\">\n" +
+                "    <bean id=\"lazyBean\" class=\"com.bellagnech.springlite.test.lazy.LazyBean\"/>\n" +
+                "    <bean id=\"eagerBean\" class=\"com.bellagnech.springlite.test.lazy.EagerBean\" lazy-init=\"false\"/>\n" +
+                "</beans>";
+        InputStream inputStream = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+        int lazyBefore = LazyBean.instances.get();
+        int eagerBefore = EagerBean.instances.get();
+        
+        XmlApplicationContext context = new XmlApplicationContext(inputStream);
+        
+        assertEquals(Boolean.TRUE, context.getBeanDefinition("lazyBean").getLazyInit());
+        assertEquals(lazyBefore, LazyBean.instances.get());
+        assertEquals(eagerBefore + 1, EagerBean.instances.get());
+        
+        context.getBean("lazyBean");
+        assertEquals(lazyBefore + 1, LazyBean.instances.get());
+    }
+    
+    @Test
+    public void testRefreshDoesNotComputePlansOfLazyBeans() throws Exception {
+        Set<Class<?>> boundClasses = ConcurrentHashMap.newKeySet();
+        BeanInstantiator recordingInstantiator = new MethodHandleBeanInstantiator() {
+            @Override
+            public ConstructorInvoker bindConstructor(Constructor<?> constructor) throws Exception {
+                boundClasses.add(constructor.getDeclaringClass());
+                return super.bindConstructor(constructor);
+            }
+        };
+        
+        AnnotationApplicationContext annotationContext = new AnnotationApplicationContext(new String[] {LAZY_PACKAGE}, false);
+        annotationContext.setBeanInstantiator(recordingInstantiator);
+        annotationContext.refresh();
+        assertTrue(boundClasses.contains(EagerBean.class));
+        assertFalse(boundClasses.contains(LazyBean.class));
+        annotationContext.getBean("lazyBean");
+        assertTrue(boundClasses.contains(LazyBean.class));
+        
+        boundClasses.clear();
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans>\n" +
+                "    <bean id=\"lazyBean\" class=\"com.bellagnech.springlite.test.lazy.LazyBean\" lazy-init=\"true\"/>\n" +
+                "    <bean id=\"eagerBean\" class=\"com.bellagnech.springlite.test.lazy.EagerBean\"/>\n" +
+                "</beans>";
+        Path configFile = Files.createTempFile("lazy-plans", ".xml");
+        Files.writeString(configFile, xml);
+        try {
+            XmlApplicationContext xmlContext = new XmlApplicationContext(new String[] {configFile.toString()}, false);
+            xmlContext.setBeanInstantiator(recordingInstantiator);
+            xmlContext.refresh();
+            assertTrue(boundClasses.contains(EagerBean.class));
+            assertFalse(boundClasses.contains(LazyBean.class));
+        } finally {
+            Files.delete(configFile);
+        }
+    }
+}
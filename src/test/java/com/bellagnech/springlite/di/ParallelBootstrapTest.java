@@ -0,0 +1,121 @@
+package com.bellagnech.springlite.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.test.bootstrap.BootstrapEvents;
+import com.bellagnech.springlite.test.bootstrap.DependentBean;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ParallelBootstrapTest {
+    
+    private static final String BOOTSTRAP_PACKAGE = "com.bellagnech.springlite.test.bootstrap";
+    
+    @Test
+    public void testIndependentBeansAreCreatedConcurrently() throws Exception {
+        BootstrapEvents.reset(new CountDownLatch(2));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            AnnotationApplicationContext context = new AnnotationApplicationContext(
+                    new String[] {BOOTSTRAP_PACKAGE}, false);
+            context.setBootstrapExecutor(executor);
+            context.refresh();
+            
+            assertTrue(BootstrapEvents.metConcurrently);
+            assertEquals("dependentBean", BootstrapEvents.created.get(2));
+            
+            DependentBean dependentBean = context.getBean(DependentBean.class);
+            assertSame(context.getBean("independentBeanA"), dependentBean.getIndependentBeanA());
+            assertSame(context.getBean("independentBeanB"), dependentBean.getIndependentBeanB());
+            
+            BootstrapReport report = context.getBootstrapReport();
+            assertTrue(report.isParallel());
+            assertEquals(3, report.getBeanCount());
+            assertEquals(2, report.getCriticalPathLength());
+            assertTrue(report.getMaxConcurrency() >= 2);
+            assertTrue(report.getThreadCount() >= 2);
+        } finally {
+            BootstrapEvents.reset(null);
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testSequentialBootstrapCreatesDependenciesFirst() throws Exception {
+        BootstrapEvents.reset(null);
+        AnnotationApplicationContext context = new AnnotationApplicationContext(BOOTSTRAP_PACKAGE);
+        
+        assertEquals(3, BootstrapEvents.created.size());
+        assertEquals("dependentBean", BootstrapEvents.created.get(2));
+        
+        BootstrapReport report = context.getBootstrapReport();
+        assertFalse(report.isParallel());
+        assertEquals(3, report.getBeanCount());
+        assertEquals(1, report.getMaxConcurrency());
+        assertEquals(1, report.getThreadCount());
+    }
+    
+    @Test
+    public void testFailureOnExecutorIsReported() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans>\n" +
+                "    <bean id=\"failingBean\" class=\"com.bellagnech.springlite.test.bootstrap.FailingBean\"/>\n" +
+                "    <bean id=\"simpleBean\" class=\"com.bellagnech.springlite.test.SimpleBean\"/>\n" +
+                "</beans>";
+        Path configFile = Files.createTempFile("failing-bootstrap", ".xml");
+        Files.writeString(configFile, xml);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            XmlApplicationContext context = new XmlApplicationContext(new String[] {configFile.toString()}, false);
+            context.setBootstrapExecutor(executor);
+            
+            BeanCreationException exception = assertThrows(BeanCreationException.class, context::refresh);
+            assertTrue(exception.getMessage().contains("failingBean"));
+        } finally {
+            executor.shutdown();
+            Files.delete(configFile);
+        }
+    }
+    
+    @Test
+    public void testCycleThroughLazySingletonIsRejectedOnExecutor() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans>\n" +
+                "    <bean id=\"a\" class=\"com.bellagnech.springlite.test.lifecycle.CircularDependencyA\">\n" +
+                "        <property name=\"circularDependencyB\" ref=\"l\"/>\n" +
+                "    </bean>\n" +
+                "    <bean id=\"e\" class=\"com.bellagnech.springlite.test.lifecycle.CircularDependencyA\">\n" +
+                "        <property name=\"circularDependencyB\" ref=\"l\"/>\n" +
+                "    </bean>\n" +
+                "    <bean id=\"l\" class=\"com.bellagnech.springlite.test.lifecycle.CircularDependencyB\" lazy-init=\"true\">\n" +
+                "        <property name=\"circularDependencyA\" ref=\"e\"/>\n" +
+                "    </bean>\n" +
+                "</beans>";
+        Path configFile = Files.createTempFile("lazy-cycle-bootstrap", ".xml");
+        Files.writeString(configFile, xml);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            XmlApplicationContext context = new XmlApplicationContext(new String[] {configFile.toString()}, false);
+            context.setBootstrapExecutor(executor);
+            
+            // The workers creating a and e wait on each other through the lazy bean
+            BeanCreationException exception = assertTimeoutPreemptively(Duration.ofSeconds(5), 
+                    () -> assertThrows(BeanCreationException.class, context::refresh));
+            Throwable cause = exception;
+            while (cause != null && !(cause instanceof CircularDependencyException)) {
+                cause = cause.getCause();
+            }
+            assertNotNull(cause, "Expected CircularDependencyException as cause");
+        } finally {
+            executor.shutdownNow();
+            Files.delete(configFile);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.bellagnech.springlite.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.test.provider.PrototypeBean;
+import com.bellagnech.springlite.test.provider.ProviderConsumer;
+import com.bellagnech.springlite.test.provider.XmlProviderConsumer;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class ProviderInjectionTest {
+    
+    private static final String PROVIDER_PACKAGE = "com.bellagnech.springlite.test.provider";
+    
+    @Test
+    public void testProviderCreatesPrototypeOnEachCall() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(PROVIDER_PACKAGE);
+        ProviderConsumer consumer = context.getBean(ProviderConsumer.class);
+        int before = PrototypeBean.instances.get();
+        
+        PrototypeBean first = consumer.getPrototypeProvider().get();
+        PrototypeBean second = consumer.getPrototypeProvider().get();
+        
+        assertNotSame(first, second);
+        assertEquals(before + 2, PrototypeBean.instances.get());
+    }
+    
+    @Test
+    public void testObjectFactoryCreatesPrototypeOnEachCall() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(PROVIDER_PACKAGE);
+        ProviderConsumer consumer = context.getBean(ProviderConsumer.class);
+        
+        PrototypeBean first = consumer.getPrototypeFactory().getObject();
+        assertNotSame(first, consumer.getPrototypeFactory().getObject());
+    }
+    
+    @Test
+    public void testOptionalIsResolvedOnInjection() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(PROVIDER_PACKAGE);
+        ProviderConsumer consumer = context.getBean(ProviderConsumer.class);
+        
+        assertTrue(consumer.getOptionalPrototype().isPresent());
+        assertFalse(consumer.getOptionalMissingService().isPresent());
+    }
+    
+    @Test
+    public void testMissingBeanFailsOnLookup() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(PROVIDER_PACKAGE);
+        ProviderConsumer consumer = context.getBean(ProviderConsumer.class);
+        
+        assertNotNull(consumer.getMissingServiceProvider());
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            consumer.getMissingServiceProvider().get();
+        });
+        assertTrue(exception.getMessage().contains("MissingService"));
+        
+        assertThrows(NoSuchBeanDefinitionException.class, () -> {
+            consumer.getMissingServiceFactory().getObject();
+        });
+    }
+    
+    @Test
+    public void testXmlReferenceInjectedAsProvider() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans>\n" +
+                "    <bean id=\"prototypeBean\" class=\"com.bellagnech.springlite.test.provider.PrototypeBean\" scope=\"prototype\"/>\n" +
+                "    <bean id=\"consumer\" class=\"com.bellagnech.springlite.test.provider.XmlProviderConsumer\">\n" +
+                "        <property name=\"prototypeProvider\" ref=\"prototypeBean\"/>\n" +
+                "        <property name=\"optionalPrototype\" ref=\"prototypeBean\"/>\n" +
+                "    </bean>\n" +
+                "</beans>";
+        InputStream inputStream = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+        
+        XmlApplicationContext context = new XmlApplicationContext(inputStream);
+        XmlProviderConsumer consumer = context.getBean("consumer", XmlProviderConsumer.class);
+        
+        assertNotSame(consumer.getPrototypeProvider().get(), consumer.getPrototypeProvider().get());
+        assertTrue(consumer.getOptionalPrototype().isPresent());
+    }
+}
@@ -0,0 +1,119 @@
+package com.bellagnech.springlite.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingletonRegistryTest {
+    
+    @Test
+    public void testConcurrentCreationCreatesSingleInstance() throws Exception {
+        SingletonRegistry registry = new SingletonRegistry();
+        AtomicInteger creations = new AtomicInteger();
+        int threads = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return registry.getSingleton("shared", () -> {
+                        creations.incrementAndGet();
+                        Thread.sleep(20); // Widen the race window
+                        return new Object();
+                    });
+                }));
+            }
+            start.countDown();
+            
+            // Every thread must observe the same instance, created exactly once
+            Object first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Object> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, creations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testCircularCreationIsTrackedPerThread() throws Exception {
+        SingletonRegistry registry = new SingletonRegistry();
+        registry.beforeCreation("beanA");
+        registry.beforeCreation("beanB");
+        
+        // Re-entering a bean on the same thread is a cycle, reported in creation order
+        CircularDependencyException exception = assertThrows(CircularDependencyException.class,
+                () -> registry.beforeCreation("beanA"));
+        assertTrue(exception.getMessage().contains("beanA -> beanB -> beanA"),
+                "Unexpected chain: " + exception.getMessage());
+        
+        // Another thread creating the same bean is not a cycle
+        Thread other = new Thread(() -> {
+            try {
+                registry.beforeCreation("beanA");
+                registry.afterCreation("beanA");
+            } catch (CircularDependencyException e) {
+                fail("Creation on another thread reported as circular: " + e.getMessage());
+            }
+        });
+        AtomicInteger failures = new AtomicInteger();
+        other.setUncaughtExceptionHandler((thread, error) -> failures.incrementAndGet());
+        other.start();
+        other.join();
+        assertEquals(0, failures.get());
+        
+        registry.afterCreation("beanB");
+        registry.afterCreation("beanA");
+    }
+    
+    @Test
+    public void testCrossThreadCycleIsReportedInsteadOfDeadlocking() throws Exception {
+        SingletonRegistry registry = new SingletonRegistry();
+        // Both threads hold their first creation lock before asking for the other one
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        
+        try {
+            Future<Object> first = executor.submit(() -> registry.getSingleton("beanA", () -> {
+                barrier.await(5, TimeUnit.SECONDS);
+                return registry.getSingleton("beanB", Object::new);
+            }));
+            Future<Object> second = executor.submit(() -> registry.getSingleton("beanB", () -> {
+                barrier.await(5, TimeUnit.SECONDS);
+                return registry.getSingleton("beanA", Object::new);
+            }));
+            
+            int cycles = 0;
+            for (Future<Object> result : List.of(first, second)) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof CircularDependencyException, 
+                            "Unexpected failure: " + e.getCause());
+                    String message = e.getCause().getMessage();
+                    assertTrue(message.contains("beanA -> beanB -> beanA") || message.contains("beanB -> beanA -> beanB"),
+                            "Unexpected chain: " + message);
+                    cycles++;
+                }
+            }
+            assertTrue(cycles >= 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bellagnech.springlite.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.test.lazy.LazyBean;
+
+import java.util.List;
+
+public class TrainingRunTest {
+    
+    @Test
+    public void testWarmUpCreatesLazySingletons() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext("com.bellagnech.springlite.test.lazy");
+        int lazyBefore = LazyBean.instances.get();
+        
+        int created = TrainingRun.warmUp(context);
+        
+        assertEquals(context.getBeanDefinitionNames().length, created);
+        assertEquals(lazyBefore + 1, LazyBean.instances.get());
+    }
+    
+    @Test
+    public void testRecordingOptionIsFound() {
+        assertEquals("-XX:ArchiveClassesAtExit=app.jsa", 
+                TrainingRun.findRecordingOption(List.of("-Xmx64m", "-XX:ArchiveClassesAtExit=app.jsa")));
+        assertEquals("-XX:DumpLoadedClassList=app.classlist", 
+                TrainingRun.findRecordingOption(List.of("-XX:DumpLoadedClassList=app.classlist")));
+        assertNull(TrainingRun.findRecordingOption(List.of("-XX:SharedArchiveFile=app.jsa")));
+    }
+    
+    @Test
+    public void testJvmWithoutRecordingOptionKeepsRunning() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext("com.bellagnech.springlite.test.lazy");
+        assertFalse(TrainingRun.train(context, List.of("-Xmx64m")));
+        assertTrue(TrainingRun.train(context, List.of("-XX:ArchiveClassesAtExit=app.jsa")));
+        
+        // The test JVM records no classes, so a refresh in training mode returns
+        System.setProperty(TrainingRun.TRAINING_PROPERTY, "true");
+        try {
+            AnnotationApplicationContext trained = new AnnotationApplicationContext("com.bellagnech.springlite.test.lazy");
+            assertNotNull(trained.getBean(LazyBean.class));
+        } finally {
+            System.clearProperty(TrainingRun.TRAINING_PROPERTY);
+        }
+    }
+}
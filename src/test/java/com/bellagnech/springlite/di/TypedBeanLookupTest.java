@@ -0,0 +1,84 @@
+package com.bellagnech.springlite.di;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.test.SimpleBean;
+import com.bellagnech.springlite.test.typed.EnglishGreetingService;
+import com.bellagnech.springlite.test.typed.GreetingConsumer;
+import com.bellagnech.springlite.test.typed.GreetingService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class TypedBeanLookupTest {
+    
+    @Test
+    public void testGetBeanByType() throws Exception {
+        ApplicationContext context = new AnnotationApplicationContext("com.bellagnech.springlite.test.typed");
+        
+        GreetingConsumer consumer = context.getBean(GreetingConsumer.class);
+        assertSame(context.getBean("greetingConsumer"), consumer);
+        assertEquals("Hello, Bob", context.getBean(EnglishGreetingService.class).greet("Bob"));
+        
+        NoUniqueBeanDefinitionException ambiguous = assertThrows(NoUniqueBeanDefinitionException.class, () -> {
+            context.getBean(GreetingService.class);
+        });
+        assertEquals(2, ambiguous.getBeanNamesFound().size());
+        
+        NoSuchBeanDefinitionException missing = assertThrows(NoSuchBeanDefinitionException.class, () -> {
+            context.getBean(Runnable.class);
+        });
+        assertEquals(Runnable.class, missing.getBeanType());
+        assertEquals("No qualifying bean of type 'java.lang.Runnable' available", missing.getMessage());
+    }
+    
+    @Test
+    public void testGetBeansOfType() throws Exception {
+        ApplicationContext context = new AnnotationApplicationContext("com.bellagnech.springlite.test.typed");
+        
+        Map<String, GreetingService> greetingServices = context.getBeansOfType(GreetingService.class);
+        assertEquals(2, greetingServices.size());
+        assertEquals("Hello, Bob", greetingServices.get("englishGreetingService").greet("Bob"));
+        assertEquals("Bonjour, Bob", greetingServices.get("frenchGreetingService").greet("Bob"));
+        assertTrue(context.getBeansOfType(Runnable.class).isEmpty());
+    }
+    
+    @Test
+    public void testBeanProvider() throws Exception {
+        ApplicationContext context = new AnnotationApplicationContext("com.bellagnech.springlite.test.typed");
+        
+        ObjectProvider<GreetingConsumer> consumerProvider = context.getBeanProvider(GreetingConsumer.class);
+        assertSame(context.getBean("greetingConsumer"), consumerProvider.getObject());
+        assertSame(consumerProvider.getObject(), consumerProvider.getIfUnique());
+        
+        ObjectProvider<GreetingService> greetingProvider = context.getBeanProvider(GreetingService.class);
+        assertNull(greetingProvider.getIfUnique());
+        assertThrows(NoUniqueBeanDefinitionException.class, greetingProvider::getIfAvailable);
+        
+        ObjectProvider<Runnable> missingProvider = context.getBeanProvider(Runnable.class);
+        assertNull(missingProvider.getIfAvailable());
+        assertThrows(NoSuchBeanDefinitionException.class, missingProvider::getObject);
+    }
+    
+    @Test
+    public void testTypedLookupInXmlContext() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans>\n" +
+                "    <bean id=\"firstBean\" class=\"com.bellagnech.springlite.test.SimpleBean\"/>\n" +
+                "    <bean id=\"secondBean\" class=\"com.bellagnech.springlite.test.SimpleBean\" scope=\"prototype\"/>\n" +
+                "</beans>";
+        InputStream inputStream = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+        ApplicationContext context = new XmlApplicationContext(inputStream);
+        
+        Map<String, SimpleBean> beans = context.getBeansOfType(SimpleBean.class);
+        assertEquals(List.of("firstBean", "secondBean"), List.copyOf(beans.keySet()));
+        assertSame(context.getBean("firstBean"), beans.get("firstBean"));
+        assertNotSame(beans.get("secondBean"), context.getBeansOfType(SimpleBean.class).get("secondBean"));
+        assertThrows(NoUniqueBeanDefinitionException.class, () -> context.getBean(SimpleBean.class));
+    }
+}
@@ -1,9 +1,21 @@
 package com.bellagnech.springlite.di;
 
+import com.bellagnech.springlite.di.util.LogAppender;
+import com.bellagnech.springlite.di.util.Logger;
 import com.bellagnech.springlite.test.*;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,4 +59,91 @@ public class XmlApplicationContextTest {
         assertEquals(1, prototype1.getInstanceNumber());
         assertEquals(2, prototype2.getInstanceNumber());
     }
+    
+    @Test
+    public void testConfigLocationsAreMergedInDeclarationOrder() throws Exception {
+        // Every file redefines the shared bean, the last definition wins
+        String[] configLocations = writeConfigLocations(8);
+        
+        List<String> warnings = Collections.synchronizedList(new ArrayList<>());
+        LogAppender previousAppender = Logger.setAppender(event -> {
+            if (event.getLevel() == Logger.Level.WARN) {
+                warnings.add(event.getMessage());
+            }
+        });
+        XmlApplicationContext context;
+        try {
+            context = new XmlApplicationContext(configLocations);
+        } finally {
+            Logger.setAppender(previousAppender);
+        }
+        
+        SimpleBean shared = (SimpleBean) context.getBean("shared");
+        assertEquals("file 7", shared.getMessage());
+        for (int i = 0; i < configLocations.length; i++) {
+            assertSame(shared, ((SetterInjectionBean) context.getBean("consumer" + i)).getDependency());
+        }
+        assertEquals(configLocations.length - 1, warnings.stream()
+                .filter(message -> message.equals("Overriding bean definition for bean 'shared'")).count());
+    }
+    
+    @Test
+    public void testConfigLocationsAreParsedOnBootstrapExecutor() throws Exception {
+        String[] configLocations = writeConfigLocations(3);
+        AtomicInteger tasks = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            XmlApplicationContext context = new XmlApplicationContext(configLocations, false);
+            context.setBootstrapExecutor(task -> {
+                tasks.incrementAndGet();
+                executor.execute(task);
+            });
+            context.refresh();
+            
+            // One task per file, then one per bean: the shared one and a consumer per file
+            assertEquals(configLocations.length + 1 + configLocations.length, tasks.get());
+            assertEquals("file 2", ((SimpleBean) context.getBean("shared")).getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testDefinitionRegisteredAgainAfterRefreshGetsItsOwnPlan() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans>\n" +
+                "    <bean id=\"message\" class=\"com.bellagnech.springlite.test.SimpleBean\" scope=\"prototype\">\n" +
+                "        <property name=\"message\" value=\"first\"/>\n" +
+                "    </bean>\n" +
+                "</beans>";
+        XmlApplicationContext context = new XmlApplicationContext(
+                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("first", ((SimpleBean) context.getBean("message")).getMessage());
+        
+        BeanDefinition replacement = new BeanDefinition("message", SimpleBean.class.getName(), 
+                BeanDefinition.SCOPE_PROTOTYPE);
+        replacement.addPropertyValue(new PropertyValue("message", "second"));
+        context.registerBeanDefinition(replacement);
+        
+        assertEquals("second", ((SimpleBean) context.getBean("message")).getMessage());
+    }
+    
+    private static String[] writeConfigLocations(int count) throws Exception {
+        Path configDir = Files.createTempDirectory("xml-config");
+        String[] configLocations = new String[count];
+        for (int i = 0; i < count; i++) {
+            Path file = configDir.resolve("beans-" + i + ".xml");
+            Files.writeString(file, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                    "<beans>\n" +
+                    "    <bean id=\"shared\" class=\"com.bellagnech.springlite.test.SimpleBean\">\n" +
+                    "        <property name=\"message\" value=\"file " + i + "\" />\n" +
+                    "    </bean>\n" +
+                    "    <bean id=\"consumer" + i + "\" class=\"com.bellagnech.springlite.test.SetterInjectionBean\">\n" +
+                    "        <property name=\"dependency\" ref=\"shared\" />\n" +
+                    "    </bean>\n" +
+                    "</beans>");
+            configLocations[i] = file.toString();
+        }
+        return configLocations;
+    }
 }
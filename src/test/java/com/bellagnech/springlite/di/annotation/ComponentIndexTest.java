@@ -0,0 +1,231 @@
+package com.bellagnech.springlite.di.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.di.AnnotationApplicationContext;
+import com.bellagnech.springlite.di.util.LogAppender;
+import com.bellagnech.springlite.di.util.Logger;
+import com.bellagnech.springlite.test.SimpleBean;
+import com.bellagnech.springlite.test.scan.NamedComponent;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+public class ComponentIndexTest {
+    
+    private static final String SCAN_PACKAGE = "com.bellagnech.springlite.test.scan";
+    
+    private static final String INDEXED_PACKAGE = "com.bellagnech.springlite.test.indexed";
+    
+    @Test
+    public void testIndexIsReadBack() throws Exception {
+        List<ComponentIndex.Entry> entries = List.of(
+                new ComponentIndex.Entry("com.example.B", "b", "prototype", null),
+                new ComponentIndex.Entry("com.example.A", "a", "singleton", Boolean.TRUE));
+        StringWriter writer = new StringWriter();
+        ComponentIndex.write(writer, entries);
+        
+        List<ComponentIndex.Entry> read = ComponentIndex.read(new StringReader(writer.toString()));
+        
+        assertEquals(2, read.size());
+        assertEquals("com.example.A", read.get(0).getClassName());
+        assertEquals(Boolean.TRUE, read.get(0).getLazyInit());
+        assertEquals("prototype", read.get(1).getScope());
+        assertNull(read.get(1).getLazyInit());
+    }
+    
+    @Test
+    public void testProcessorWritesIndex() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(compiler, "Tests must run on a JDK");
+        
+        Path sourceDir = Path.of("src/test/java", SCAN_PACKAGE.replace('.', '/'));
+        List<Path> sources = new ArrayList<>();
+        try (Stream<Path> files = Files.list(sourceDir)) {
+            files.filter(file -> file.toString().endsWith(".java")).forEach(sources::add);
+        }
+        Path outputDir = Files.createTempDirectory("component-index");
+        
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    List.of("-proc:only", "-d", outputDir.toString(), "-classpath", System.getProperty("java.class.path"),
+                            "-A" + ComponentIndexProcessor.INDEX_OPTION + "=true"),
+                    null, fileManager.getJavaFileObjectsFromPaths(sources));
+            task.setProcessors(List.of(new ComponentIndexProcessor()));
+            assertTrue(task.call());
+        }
+        
+        Path indexFile = outputDir.resolve(ComponentIndex.INDEX_LOCATION);
+        List<ComponentIndex.Entry> entries = ComponentIndex.read(Files.newBufferedReader(indexFile));
+        
+        assertEquals(2, entries.size());
+        assertEquals(NamedComponent.class.getName(), entries.get(0).getClassName());
+        assertEquals("namedComponent", entries.get(0).getBeanName());
+        assertEquals("prototype", entries.get(0).getScope());
+        assertEquals(SCAN_PACKAGE + ".StereotypedService", entries.get(1).getClassName());
+        assertEquals("stereotypedService", entries.get(1).getBeanName());
+        assertEquals("singleton", entries.get(1).getScope());
+    }
+    
+    @Test
+    public void testIndexReplacesScanning() throws Exception {
+        // The root ships its classes and an index listing only one of them
+        Path rootDir = Files.createTempDirectory("indexed-root");
+        compile(rootDir, "IndexedComponent", "UnlistedComponent");
+        try (Writer writer = Files.newBufferedWriter(Files.createDirectories(
+                rootDir.resolve("META-INF")).resolve("springlite.components"))) {
+            ComponentIndex.write(writer, List.of(new ComponentIndex.Entry(
+                    INDEXED_PACKAGE + ".IndexedComponent", "indexedComponent", "singleton", Boolean.TRUE)));
+        }
+        List<String> warnings = new ArrayList<>();
+        
+        LogAppender previousAppender = Logger.setAppender(event -> {
+            if (event.getLevel() == Logger.Level.WARN) {
+                warnings.add(event.getMessage());
+            }
+        });
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {rootDir.toUri().toURL()}, 
+                getClass().getClassLoader())) {
+            AnnotationApplicationContext context = new AnnotationApplicationContext(
+                    new String[] {INDEXED_PACKAGE}, false);
+            context.setBeanClassLoader(classLoader);
+            context.refresh();
+            
+            assertTrue(context.containsBean("indexedComponent"));
+            assertFalse(context.containsBean("unlistedComponent"));
+            assertEquals(Boolean.TRUE, context.getBeanDefinition("indexedComponent").getLazyInit());
+        } finally {
+            Logger.setAppender(previousAppender);
+        }
+        assertTrue(warnings.isEmpty(), "Unexpected warning: " + warnings);
+    }
+    
+    @Test
+    public void testRootWithoutIndexIsScanned() throws Exception {
+        // The package is split: the index root lists one of its components,
+        // the test classes root has both and no index
+        Path indexDir = writeIndex(new ComponentIndex.Entry(
+                NamedComponent.class.getName(), "indexedComponent", "singleton", Boolean.TRUE));
+        List<String> warnings = new ArrayList<>();
+        
+        LogAppender previousAppender = Logger.setAppender(event -> {
+            if (event.getLevel() == Logger.Level.WARN) {
+                warnings.add(event.getMessage());
+            }
+        });
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {indexDir.toUri().toURL()}, 
+                getClass().getClassLoader())) {
+            AnnotationApplicationContext context = new AnnotationApplicationContext(
+                    new String[] {SCAN_PACKAGE}, false);
+            context.setBeanClassLoader(classLoader);
+            context.refresh();
+            
+            assertTrue(context.containsBean("indexedComponent"));
+            assertTrue(context.containsBean("stereotypedService"));
+            assertFalse(context.containsBean("namedComponent"));
+            assertEquals(Boolean.TRUE, context.getBeanDefinition("indexedComponent").getLazyInit());
+            assertSame(NamedComponent.class, context.getBeanDefinition("indexedComponent").getBeanClass());
+        } finally {
+            Logger.setAppender(previousAppender);
+        }
+        assertTrue(warnings.stream().anyMatch(message -> message.contains(SCAN_PACKAGE)), 
+                "Missing warning: " + warnings);
+    }
+    
+    @Test
+    public void testPackageWithoutIndexedComponentIsScanned() throws Exception {
+        // The index comes from another module and covers none of the scanned package
+        Path indexDir = writeIndex(new ComponentIndex.Entry(
+                SimpleBean.class.getName(), "simpleBean", "singleton", null));
+        List<String> warnings = new ArrayList<>();
+        
+        LogAppender previousAppender = Logger.setAppender(event -> {
+            if (event.getLevel() == Logger.Level.WARN) {
+                warnings.add(event.getMessage());
+            }
+        });
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {indexDir.toUri().toURL()}, 
+                getClass().getClassLoader())) {
+            AnnotationApplicationContext context = new AnnotationApplicationContext(
+                    new String[] {SCAN_PACKAGE}, false);
+            context.setBeanClassLoader(classLoader);
+            context.refresh();
+            
+            assertTrue(context.containsBean("namedComponent"));
+            assertTrue(context.containsBean("stereotypedService"));
+            assertFalse(context.containsBean("simpleBean"));
+        } finally {
+            Logger.setAppender(previousAppender);
+        }
+        assertTrue(warnings.stream().anyMatch(message -> message.contains(SCAN_PACKAGE)), 
+                "Missing warning: " + warnings);
+    }
+    
+    @Test
+    public void testIndexCanBeIgnored() throws Exception {
+        Path indexDir = writeIndex(new ComponentIndex.Entry(
+                NamedComponent.class.getName(), "indexedComponent", "singleton", null));
+        
+        System.setProperty(ComponentIndex.IGNORE_INDEX_PROPERTY, "true");
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {indexDir.toUri().toURL()}, 
+                getClass().getClassLoader())) {
+            AnnotationApplicationContext context = new AnnotationApplicationContext(
+                    new String[] {SCAN_PACKAGE}, false);
+            context.setBeanClassLoader(classLoader);
+            context.refresh();
+            
+            assertFalse(context.containsBean("indexedComponent"));
+            assertTrue(context.containsBean("namedComponent"));
+            assertTrue(context.containsBean("stereotypedService"));
+        } finally {
+            System.clearProperty(ComponentIndex.IGNORE_INDEX_PROPERTY);
+        }
+    }
+    
+    private static Path writeIndex(ComponentIndex.Entry... entries) throws Exception {
+        Path indexDir = Files.createTempDirectory("component-index");
+        Path indexFile = indexDir.resolve(ComponentIndex.INDEX_LOCATION);
+        Files.createDirectories(indexFile.getParent());
+        try (Writer writer = Files.newBufferedWriter(indexFile)) {
+            ComponentIndex.write(writer, List.of(entries));
+        }
+        return indexDir;
+    }
+    
+    private static void compile(Path outputDir, String... componentNames) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(compiler, "Tests must run on a JDK");
+        
+        Path sourceDir = Files.createTempDirectory("indexed-sources");
+        List<Path> sources = new ArrayList<>();
+        for (String componentName : componentNames) {
+            Path source = sourceDir.resolve(componentName + ".java");
+            Files.writeString(source, "package " + INDEXED_PACKAGE + ";\n"
+                    + "@com.bellagnech.springlite.di.annotations.Component\n"
+                    + "public class " + componentName + " {}\n");
+            sources.add(source);
+        }
+        
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    List.of("-proc:none", "-d", outputDir.toString(), "-classpath", System.getProperty("java.class.path")),
+                    null, fileManager.getJavaFileObjectsFromPaths(sources));
+            assertTrue(task.call());
+        }
+    }
+}
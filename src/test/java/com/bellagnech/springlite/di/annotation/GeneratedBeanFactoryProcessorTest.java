@@ -0,0 +1,151 @@
+package com.bellagnech.springlite.di.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.di.GeneratedApplicationContext;
+import com.bellagnech.springlite.test.aot.AotController;
+import com.bellagnech.springlite.test.aot.AotPrototype;
+import com.bellagnech.springlite.test.aot.AotRepository;
+import com.bellagnech.springlite.test.aot.AotService;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+public class GeneratedBeanFactoryProcessorTest {
+    
+    private static final String AOT_PACKAGE = "com.bellagnech.springlite.test.aot";
+    
+    @Test
+    public void testGeneratedContextWiresBeans() throws Exception {
+        Path outputDir = Files.createTempDirectory("generated-beans");
+        List<JavaFileObject> sources = new ArrayList<>();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        
+        try (StandardJavaFileManager fileManager = fileManager()) {
+            Path sourceDir = Path.of("src/test/java", AOT_PACKAGE.replace('.', '/'));
+            List<Path> files = new ArrayList<>();
+            try (Stream<Path> list = Files.list(sourceDir)) {
+                list.filter(file -> file.toString().endsWith(".java")).forEach(files::add);
+            }
+            fileManager.getJavaFileObjectsFromPaths(files).forEach(sources::add);
+            assertTrue(compile(fileManager, sources, outputDir, diagnostics), diagnostics.getDiagnostics().toString());
+        }
+        
+        assertTrue(Files.exists(outputDir.resolve(AOT_PACKAGE.replace('.', '/') + "/AotController_BeanFactory.class")));
+        assertTrue(Files.exists(outputDir.resolve("META-INF/services/com.bellagnech.springlite.di.GeneratedBeans")));
+        
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {outputDir.toUri().toURL()}, getClass().getClassLoader())) {
+            GeneratedApplicationContext context = new GeneratedApplicationContext(classLoader);
+            
+            assertEquals(4, context.getBeanDefinitionNames().length);
+            AotController controller = (AotController) context.getBean("aotController");
+            AotService service = (AotService) context.getBean("aotService");
+            AotRepository repository = (AotRepository) context.getBean("aotRepository");
+            
+            assertSame(service, controller.service);
+            assertSame(repository, service.getRepository());
+            assertSame(repository, controller.getRepository());
+            assertFalse(controller.task.isPresent());
+            
+            AotPrototype first = controller.prototypes.get();
+            AotPrototype second = controller.prototypes.get();
+            assertNotNull(first);
+            assertNotSame(first, second);
+        }
+    }
+    
+    @Test
+    public void testNothingIsGeneratedByDefault() throws Exception {
+        Path outputDir = Files.createTempDirectory("generated-beans");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        
+        try (StandardJavaFileManager fileManager = fileManager()) {
+            List<JavaFileObject> sources = List.of(source("com.example.aot.Repository", 
+                    "package com.example.aot;\n" +
+                    "@com.bellagnech.springlite.di.annotations.Component\n" +
+                    "public class Repository {}\n"));
+            JavaCompiler.CompilationTask task = ToolProvider.getSystemJavaCompiler().getTask(null, fileManager, diagnostics,
+                    List.of("-d", outputDir.toString(), "-classpath", System.getProperty("java.class.path")),
+                    null, sources);
+            task.setProcessors(List.of(new GeneratedBeanFactoryProcessor()));
+            assertTrue(task.call());
+        }
+        
+        assertTrue(Files.exists(outputDir.resolve("com/example/aot/Repository.class")));
+        assertFalse(Files.exists(outputDir.resolve("com/example/aot/Repository_BeanFactory.class")));
+    }
+    
+    @Test
+    public void testPrivateFieldIsRejected() throws Exception {
+        Path outputDir = Files.createTempDirectory("generated-beans");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        
+        try (StandardJavaFileManager fileManager = fileManager()) {
+            List<JavaFileObject> sources = List.of(
+                    source("com.example.aot.Repository", 
+                            "package com.example.aot;\n" +
+                            "@com.bellagnech.springlite.di.annotations.Component\n" +
+                            "public class Repository {}\n"),
+                    source("com.example.aot.Service", 
+                            "package com.example.aot;\n" +
+                            "@com.bellagnech.springlite.di.annotations.Component\n" +
+                            "public class Service {\n" +
+                            "    @com.bellagnech.springlite.di.annotations.Autowired\n" +
+                            "    private Repository repository;\n" +
+                            "}\n"));
+            assertFalse(compile(fileManager, sources, outputDir, diagnostics));
+        }
+        
+        boolean reported = false;
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR 
+                    && diagnostic.getMessage(null).contains("not assignable by generated code")) {
+                reported = true;
+            }
+        }
+        assertTrue(reported, diagnostics.getDiagnostics().toString());
+    }
+    
+    private static StandardJavaFileManager fileManager() {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(compiler, "Tests must run on a JDK");
+        return compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+    }
+    
+    private static boolean compile(StandardJavaFileManager fileManager, List<JavaFileObject> sources, Path outputDir,
+            DiagnosticCollector<JavaFileObject> diagnostics) {
+        JavaCompiler.CompilationTask task = ToolProvider.getSystemJavaCompiler().getTask(null, fileManager, diagnostics,
+                List.of("-d", outputDir.toString(), "-classpath", System.getProperty("java.class.path"),
+                        "-A" + GeneratedBeanFactoryProcessor.AOT_OPTION + "=true"),
+                null, sources);
+        task.setProcessors(List.of(new ComponentIndexProcessor(), new GeneratedBeanFactoryProcessor()));
+        return task.call();
+    }
+    
+    private static JavaFileObject source(String className, String code) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
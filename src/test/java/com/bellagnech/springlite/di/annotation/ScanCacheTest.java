@@ -0,0 +1,99 @@
+package com.bellagnech.springlite.di.annotation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.di.AnnotationApplicationContext;
+import com.bellagnech.springlite.di.util.ClasspathScanner;
+import com.bellagnech.springlite.test.scan.NamedComponent;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+public class ScanCacheTest {
+    
+    private static final String SCAN_PACKAGE = "com.bellagnech.springlite.test.scan";
+    
+    @Test
+    public void testScanResultIsCached() throws Exception {
+        Path cacheFile = Files.createTempDirectory("scan-cache").resolve("components.cache");
+        
+        AnnotationApplicationContext context = new AnnotationApplicationContext(new String[] {SCAN_PACKAGE}, false);
+        context.setScanCacheFile(cacheFile);
+        context.refresh();
+        
+        assertTrue(Files.exists(cacheFile));
+        List<ComponentIndex.Entry> cached = new ScanCache(cacheFile).load(ClasspathScanner.fingerprint(null, SCAN_PACKAGE));
+        assertNotNull(cached);
+        assertEquals(2, cached.size());
+        assertEquals("namedComponent", cached.get(0).getBeanName());
+        assertEquals("prototype", cached.get(0).getScope());
+    }
+    
+    @Test
+    public void testMatchingCacheReplacesScanning() throws Exception {
+        Path cacheFile = Files.createTempDirectory("scan-cache").resolve("components.cache");
+        ScanCache scanCache = new ScanCache(cacheFile);
+        scanCache.store(ClasspathScanner.fingerprint(null, SCAN_PACKAGE), List.of(new ComponentIndex.Entry(
+                NamedComponent.class.getName(), "cachedComponent", "singleton", Boolean.TRUE)));
+        
+        AnnotationApplicationContext context = new AnnotationApplicationContext(new String[] {SCAN_PACKAGE}, false);
+        context.setScanCacheFile(cacheFile);
+        context.refresh();
+        
+        assertTrue(context.containsBean("cachedComponent"));
+        assertFalse(context.containsBean("stereotypedService"));
+        assertEquals(Boolean.TRUE, context.getBeanDefinition("cachedComponent").getLazyInit());
+    }
+    
+    @Test
+    public void testStaleCacheIsRescanned() throws Exception {
+        Path cacheFile = Files.createTempDirectory("scan-cache").resolve("components.cache");
+        ScanCache scanCache = new ScanCache(cacheFile);
+        scanCache.store(new byte[] {1, 2, 3}, List.of(new ComponentIndex.Entry(
+                NamedComponent.class.getName(), "cachedComponent", "singleton", null)));
+        
+        AnnotationApplicationContext context = new AnnotationApplicationContext(new String[] {SCAN_PACKAGE}, false);
+        context.setScanCacheFile(cacheFile);
+        context.refresh();
+        
+        assertFalse(context.containsBean("cachedComponent"));
+        assertTrue(context.containsBean("namedComponent"));
+        assertTrue(context.containsBean("stereotypedService"));
+        assertEquals(2, scanCache.load(ClasspathScanner.fingerprint(null, SCAN_PACKAGE)).size());
+    }
+    
+    @Test
+    public void testUnreadableCacheIsIgnored() throws Exception {
+        Path cacheFile = Files.createTempFile("scan-cache", ".cache");
+        Files.write(cacheFile, new byte[] {0x53, 0x4C, 0x53});
+        
+        assertNull(new ScanCache(cacheFile).load(new byte[] {1}));
+        assertNull(new ScanCache(cacheFile.resolveSibling("missing.cache")).load(new byte[] {1}));
+    }
+    
+    @Test
+    public void testFingerprintFollowsClassFiles() throws Exception {
+        Path root = Files.createTempDirectory("scan-root");
+        Path classFile = root.resolve("com/example/Component.class");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, new byte[] {1, 2, 3});
+        
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {root.toUri().toURL()}, null)) {
+            byte[] fingerprint = ClasspathScanner.fingerprint(classLoader, "com.example");
+            assertArrayEquals(fingerprint, ClasspathScanner.fingerprint(classLoader, "com.example"));
+            
+            Files.write(classFile, new byte[] {1, 2, 3, 4});
+            byte[] modified = ClasspathScanner.fingerprint(classLoader, "com.example");
+            assertFalse(Arrays.equals(fingerprint, modified));
+            
+            Files.write(classFile.resolveSibling("Other.class"), new byte[] {1});
+            assertFalse(Arrays.equals(modified, ClasspathScanner.fingerprint(classLoader, "com.example")));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.bellagnech.springlite.di.scope;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.di.AnnotationApplicationContext;
+import com.bellagnech.springlite.di.BeanCreationException;
+import com.bellagnech.springlite.di.BeanHandle;
+import com.bellagnech.springlite.di.ObjectFactory;
+import com.bellagnech.springlite.test.scoped.PooledBean;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PooledScopeTest {
+    
+    private AnnotationApplicationContext createContext(PooledScope pooledScope) throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(
+                new String[] {"com.bellagnech.springlite.test.scoped"}, false);
+        context.registerScope(PooledScope.SCOPE_NAME, pooledScope);
+        context.refresh();
+        return context;
+    }
+    
+    @Test
+    public void testReleasedInstanceIsResetAndReused() throws Exception {
+        PooledScope pooledScope = new PooledScope(0, 2);
+        AnnotationApplicationContext context = createContext(pooledScope);
+        
+        PooledBean first = context.getBean("pooledBean", PooledBean.class);
+        first.append("dirty");
+        PooledBean second = context.getBean("pooledBean", PooledBean.class);
+        assertNotSame(first, second);
+        
+        pooledScope.release(first);
+        assertEquals(1, first.getResets());
+        
+        PooledBean third = context.getBean("pooledBean", PooledBean.class);
+        assertSame(first, third);
+        assertEquals("clean", third.append("clean"));
+        
+        PooledScope.PoolMetrics metrics = pooledScope.getMetrics("pooledBean");
+        assertEquals(1, metrics.getHits());
+        assertEquals(2, metrics.getMisses());
+        assertEquals(0, metrics.getIdle());
+        assertTrue(metrics.getLookupNanos() > 0);
+    }
+    
+    @Test
+    public void testLeaseReleasesOnClose() throws Exception {
+        PooledScope pooledScope = new PooledScope(0, 1);
+        AnnotationApplicationContext context = createContext(pooledScope);
+        BeanHandle<PooledBean> handle = context.handle("pooledBean", PooledBean.class);
+        
+        PooledBean borrowed;
+        try (PooledScope.Lease<PooledBean> lease = pooledScope.lease(handle)) {
+            borrowed = lease.get();
+            borrowed.append("request");
+        }
+        assertEquals(1, pooledScope.getMetrics("pooledBean").getIdle());
+        
+        PooledScope.Lease<PooledBean> lease = pooledScope.lease(handle);
+        assertSame(borrowed, lease.get());
+        lease.close();
+        lease.close(); // No effect
+        assertThrows(IllegalStateException.class, lease::get);
+        assertEquals(1, pooledScope.getMetrics("pooledBean").getIdle());
+    }
+    
+    @Test
+    public void testPoolIsBoundedAndPrefilled() throws Exception {
+        PooledScope pooledScope = new PooledScope(2, 2);
+        AnnotationApplicationContext context = createContext(pooledScope);
+        int createdBefore = PooledBean.instances.get();
+        
+        PooledBean first = context.getBean("pooledBean", PooledBean.class);
+        assertEquals(createdBefore + 2, PooledBean.instances.get());
+        assertEquals(1, pooledScope.getMetrics("pooledBean").getHits());
+        
+        PooledBean second = context.getBean("pooledBean", PooledBean.class);
+        PooledBean third = context.getBean("pooledBean", PooledBean.class);
+        assertEquals(createdBefore + 3, PooledBean.instances.get());
+        
+        pooledScope.release(first);
+        pooledScope.release(second);
+        pooledScope.release(third);
+        PooledScope.PoolMetrics metrics = pooledScope.getMetrics("pooledBean");
+        assertEquals(2, metrics.getIdle());
+        assertEquals(1, metrics.getDiscards());
+    }
+    
+    @Test
+    public void testFailedPrefillIsRetried() throws Exception {
+        PooledScope pooledScope = new PooledScope(2, 2);
+        AtomicInteger created = new AtomicInteger();
+        ObjectFactory<Object> factory = () -> {
+            if (created.incrementAndGet() == 1) {
+                throw new BeanCreationException("pooledObject", "First creation fails");
+            }
+            return new Object();
+        };
+        
+        assertThrows(BeanCreationException.class, () -> pooledScope.get("pooledObject", factory));
+        
+        pooledScope.get("pooledObject", factory);
+        PooledScope.PoolMetrics metrics = pooledScope.getMetrics("pooledObject");
+        assertEquals(1, metrics.getHits());
+        assertEquals(1, metrics.getIdle());
+    }
+    
+    @Test
+    public void testDoubleReleaseIsIgnored() throws Exception {
+        PooledScope pooledScope = new PooledScope(0, 2);
+        AnnotationApplicationContext context = createContext(pooledScope);
+        
+        PooledBean first = context.getBean("pooledBean", PooledBean.class);
+        pooledScope.release(first);
+        pooledScope.release(first);
+        assertEquals(1, pooledScope.getMetrics("pooledBean").getIdle());
+        assertEquals(1, first.getResets());
+        
+        // Released again while another caller holds it: must not be handed out twice
+        PooledBean second = context.getBean("pooledBean", PooledBean.class);
+        assertSame(first, second);
+        pooledScope.release(first);
+        pooledScope.release("pooledBean", second);
+        PooledBean third = context.getBean("pooledBean", PooledBean.class);
+        PooledBean fourth = context.getBean("pooledBean", PooledBean.class);
+        assertNotSame(third, fourth);
+    }
+    
+    @Test
+    public void testInvalidPoolSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new PooledScope(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PooledScope(3, 2));
+        assertThrows(IllegalArgumentException.class, () -> new PooledScope(-1, 2));
+    }
+}
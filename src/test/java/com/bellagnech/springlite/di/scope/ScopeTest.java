@@ -0,0 +1,158 @@
+package com.bellagnech.springlite.di.scope;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.di.AnnotationApplicationContext;
+import com.bellagnech.springlite.di.BeanCreationException;
+import com.bellagnech.springlite.di.ObjectFactory;
+import com.bellagnech.springlite.di.XmlApplicationContext;
+import com.bellagnech.springlite.test.scoped.StripedBean;
+import com.bellagnech.springlite.test.scoped.ThreadScopedBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ScopeTest {
+    
+    private static final String SCOPED_PACKAGE = "com.bellagnech.springlite.test.scoped";
+    
+    @Test
+    public void testThreadScopeKeepsOneInstancePerThread() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(SCOPED_PACKAGE);
+        
+        ThreadScopedBean mainBean = context.getBean("threadScopedBean", ThreadScopedBean.class);
+        assertSame(mainBean, context.getBean("threadScopedBean"));
+        assertSame(mainBean, context.handle("threadScopedBean", ThreadScopedBean.class).get());
+        
+        Object[] otherBean = new Object[1];
+        Thread thread = new Thread(() -> {
+            try {
+                otherBean[0] = context.getBean("threadScopedBean");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        thread.join();
+        
+        assertNotNull(otherBean[0]);
+        assertNotSame(mainBean, otherBean[0]);
+    }
+    
+    @Test
+    public void testThreadScopeIsClearedOnRefresh() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(SCOPED_PACKAGE);
+        Object before = context.getBean("threadScopedBean");
+        
+        context.refresh();
+        
+        assertNotSame(before, context.getBean("threadScopedBean"));
+    }
+    
+    @Test
+    public void testStripedScopeBoundsInstances() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(
+                new String[] {SCOPED_PACKAGE}, false);
+        context.registerScope(StripedScope.SCOPE_NAME, new StripedScope(2));
+        context.refresh();
+        
+        Set<Object> instances = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[16];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    StripedBean bean = context.getBean("stripedBean", StripedBean.class);
+                    assertSame(bean, context.getBean("stripedBean"));
+                    instances.add(bean);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertFalse(instances.isEmpty());
+        assertTrue(instances.size() <= 2, "Expected at most 2 instances, got " + instances.size());
+    }
+    
+    @Test
+    public void testStripeCountIsRoundedToPowerOfTwo() {
+        assertEquals(1, new StripedScope(1).getStripeCount());
+        assertEquals(4, new StripedScope(3).getStripeCount());
+        assertEquals(8, new StripedScope(8).getStripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new StripedScope(0));
+    }
+    
+    @Test
+    public void testCustomScope() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans>\n" +
+                "    <bean id=\"simpleBean\" class=\"com.bellagnech.springlite.test.SimpleBean\" scope=\"counting\"/>\n" +
+                "</beans>";
+        AtomicInteger lookups = new AtomicInteger();
+        Map<String, Object> instances = new ConcurrentHashMap<>();
+        Scope countingScope = new Scope() {
+            @Override
+            public Object get(String beanName, ObjectFactory<?> objectFactory) throws BeanCreationException {
+                lookups.incrementAndGet();
+                Object instance = instances.get(beanName);
+                if (instance == null) {
+                    try {
+                        instance = objectFactory.getObject();
+                    } catch (Exception e) {
+                        throw new BeanCreationException(beanName, "Could not create instance", e);
+                    }
+                    instances.put(beanName, instance);
+                }
+                return instance;
+            }
+            
+            @Override
+            public Object remove(String beanName) {
+                return instances.remove(beanName);
+            }
+        };
+        
+        // Unknown until registered
+        InputStream inputStream = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+        BeanCreationException exception = assertThrows(BeanCreationException.class, () -> {
+            new XmlApplicationContext(inputStream);
+        });
+        assertTrue(exception.getMessage().contains("No scope registered for scope name 'counting'"));
+        
+        Path configFile = Files.createTempFile("counting-scope", ".xml");
+        Files.writeString(configFile, xml);
+        XmlApplicationContext context = new XmlApplicationContext(new String[] {configFile.toString()}, false);
+        context.registerScope("counting", countingScope);
+        context.refresh();
+        Files.delete(configFile);
+        
+        Object bean = context.getBean("simpleBean");
+        assertSame(bean, context.getBean("simpleBean"));
+        assertEquals(2, lookups.get());
+        
+        countingScope.remove("simpleBean");
+        assertNotSame(bean, context.getBean("simpleBean"));
+    }
+    
+    @Test
+    public void testBuiltInScopesCannotBeReplaced() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(new String[0], false);
+        
+        assertThrows(IllegalArgumentException.class, () -> context.registerScope("singleton", new ThreadScope()));
+        assertTrue(context.getRegisteredScopeNames().contains(ThreadScope.SCOPE_NAME));
+        assertTrue(context.getRegisteredScopeNames().contains(StripedScope.SCOPE_NAME));
+    }
+}
@@ -0,0 +1,192 @@
+package com.bellagnech.springlite.di.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.di.AnnotationApplicationContext;
+import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Scope;
+import com.bellagnech.springlite.test.scan.NamedComponent;
+import com.bellagnech.springlite.test.scan.StereotypedService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+
+public class ClasspathScannerTest {
+    
+    private static final String SCAN_PACKAGE = "com.bellagnech.springlite.test.scan";
+    
+    @Test
+    public void testClassMetadataIsReadFromClassFile() throws Exception {
+        ClassMetadata metadata = ClassMetadataReader.read(readClassFile(NamedComponent.class.getName()));
+        
+        assertEquals(NamedComponent.class.getName(), metadata.getClassName());
+        assertEquals(Object.class.getName(), metadata.getSuperClassName());
+        assertFalse(metadata.isInterface());
+        assertFalse(metadata.isAnnotation());
+        assertEquals(List.of(Component.class.getName(), Scope.class.getName()), metadata.getAnnotationTypes());
+        
+        ClassMetadata annotationMetadata = ClassMetadataReader.read(
+                readClassFile(SCAN_PACKAGE + ".Service"));
+        assertTrue(annotationMetadata.isAnnotation());
+        assertTrue(annotationMetadata.isInterface());
+        assertTrue(annotationMetadata.hasAnnotation(Component.class.getName()));
+    }
+    
+    @Test
+    public void testInvalidClassFileIsRejected() {
+        assertThrows(IOException.class, () -> ClassMetadataReader.read(new byte[] {1, 2, 3}));
+        
+        byte[] truncated = new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 61, 0, 5};
+        assertThrows(IOException.class, () -> ClassMetadataReader.read(truncated));
+    }
+    
+    @Test
+    public void testOnlyComponentsAreLoaded() throws Exception {
+        Set<String> requestedClasses = ConcurrentHashMap.newKeySet();
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public Class<?> loadClass(String name) throws ClassNotFoundException {
+                requestedClasses.add(name);
+                return super.loadClass(name);
+            }
+        };
+        
+        List<Class<?>> classes = ClasspathScanner.findAnnotatedClassesInPackage(
+                SCAN_PACKAGE, Component.class, classLoader);
+        
+        assertEquals(2, classes.size());
+        assertTrue(classes.contains(NamedComponent.class));
+        assertTrue(classes.contains(StereotypedService.class));
+        assertFalse(requestedClasses.contains(SCAN_PACKAGE + ".PlainClass"));
+        assertFalse(requestedClasses.contains(SCAN_PACKAGE + ".Service"));
+    }
+    
+    @Test
+    public void testMetaAnnotatedComponentsAreRegistered() throws Exception {
+        AnnotationApplicationContext context = new AnnotationApplicationContext(SCAN_PACKAGE);
+        
+        assertTrue(context.containsBean("namedComponent"));
+        assertTrue(context.containsBean("stereotypedService"));
+        assertFalse(context.containsBean("plainClass"));
+        assertEquals("prototype", context.getBeanDefinition("namedComponent").getScope());
+        assertNotNull(context.getBean("stereotypedService", StereotypedService.class));
+    }
+    
+    @Test
+    public void testPackagesAreScannedInParallelWithStableOrder() throws Exception {
+        String[] packages = {"com.bellagnech.springlite.test", SCAN_PACKAGE};
+        List<Class<?>> classes = ClasspathScanner.findAnnotatedClasses(Component.class, null, packages);
+        
+        // Overlapping packages do not produce duplicates, and classes are sorted by name
+        assertEquals(classes.size(), new HashSet<>(classes).size());
+        assertTrue(classes.contains(NamedComponent.class));
+        for (int i = 1; i < classes.size(); i++) {
+            assertTrue(classes.get(i - 1).getName().compareTo(classes.get(i).getName()) < 0);
+        }
+        
+        for (int i = 0; i < 5; i++) {
+            assertEquals(classes, ClasspathScanner.findAnnotatedClasses(Component.class, null, packages));
+        }
+    }
+    
+    @Test
+    public void testPackageInJarIsScanned() throws Exception {
+        Path jar = Files.createTempFile("scan", ".jar");
+        Files.write(jar, createJar(""));
+        
+        List<Class<?>> classes = scanFrom("jar:" + jar.toUri() + "!/" + SCAN_PACKAGE.replace('.', '/'));
+        
+        assertEquals(2, classes.size());
+        assertTrue(classes.contains(NamedComponent.class));
+        assertTrue(classes.contains(StereotypedService.class));
+    }
+    
+    @Test
+    public void testPackageInNestedJarIsScanned() throws Exception {
+        Path jar = Files.createTempFile("scan-outer", ".jar");
+        byte[] innerJar = createJar("");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            // Libraries of executable jars are stored uncompressed
+            JarEntry entry = new JarEntry("lib/inner.jar");
+            entry.setMethod(JarEntry.STORED);
+            entry.setSize(innerJar.length);
+            CRC32 crc = new CRC32();
+            crc.update(innerJar);
+            entry.setCrc(crc.getValue());
+            out.putNextEntry(entry);
+            out.write(innerJar);
+            out.closeEntry();
+        }
+        
+        String packagePath = SCAN_PACKAGE.replace('.', '/');
+        List<Class<?>> classes = scanFrom("jar:" + jar.toUri() + "!/lib/inner.jar!/" + packagePath);
+        assertEquals(2, classes.size());
+        
+        classes = scanFrom("jar:nested:" + jar.toAbsolutePath() + "/!lib/inner.jar!/" + packagePath);
+        assertEquals(2, classes.size());
+    }
+    
+    @Test
+    public void testPackageInNestedDirectoryIsScanned() throws Exception {
+        Path jar = Files.createTempFile("scan-boot", ".jar");
+        Files.write(jar, createJar("BOOT-INF/classes/"));
+        
+        List<Class<?>> classes = scanFrom("jar:" + jar.toUri() + "!/BOOT-INF/classes!/" 
+                + SCAN_PACKAGE.replace('.', '/'));
+        
+        assertEquals(2, classes.size());
+    }
+    
+    /**
+     * Scan the test package from the given location only. The classes are still
+     * loaded from the test class path.
+     */
+    private List<Class<?>> scanFrom(String packageUrl) throws Exception {
+        // The URL is never opened; nested: archives are handled by NestedUrlStreamHandlerProvider
+        URL url = URI.create(packageUrl).toURL();
+        ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) {
+                return Collections.enumeration(List.of(url));
+            }
+        };
+        return ClasspathScanner.findAnnotatedClassesInPackage(SCAN_PACKAGE, Component.class, classLoader);
+    }
+    
+    private static byte[] createJar(String prefix) throws IOException {
+        String[] classNames = {"NamedComponent", "StereotypedService", "PlainClass", "Service"};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JarOutputStream out = new JarOutputStream(bytes)) {
+            for (String simpleName : classNames) {
+                String className = SCAN_PACKAGE + "." + simpleName;
+                out.putNextEntry(new JarEntry(prefix + className.replace('.', '/') + ".class"));
+                out.write(readClassFile(className));
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static byte[] readClassFile(String className) throws IOException {
+        try (InputStream in = ClasspathScannerTest.class.getClassLoader()
+                .getResourceAsStream(className.replace('.', '/') + ".class")) {
+            return in.readAllBytes();
+        }
+    }
+}
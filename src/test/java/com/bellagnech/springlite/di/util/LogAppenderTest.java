@@ -0,0 +1,139 @@
+package com.bellagnech.springlite.di.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LogAppenderTest {
+    
+    @Test
+    public void testRingBufferIsBoundedAndOrdered() {
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        
+        assertEquals(Integer.valueOf(0), buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(Integer.valueOf(i), buffer.poll());
+        }
+        assertNull(buffer.poll());
+    }
+    
+    @Test
+    public void testCachedTimestampMatchesPattern() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+        long now = System.currentTimeMillis();
+        for (long time : new long[] {now, now + 1, now + 999, now + 1000, now + 86_400_007L, 5}) {
+            String expected = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault()).format(formatter);
+            assertEquals(expected, LogFormatter.formatTimestamp(time));
+        }
+    }
+    
+    @Test
+    public void testAsyncAppenderWritesEveryEvent() throws Exception {
+        Path logFile = Files.createTempFile("springlite", ".log");
+        AsyncFileAppender appender = new AsyncFileAppender(logFile, 64, AsyncFileAppender.OverflowPolicy.BLOCK);
+        int threadCount = 4;
+        int eventsPerThread = 1000;
+        
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < eventsPerThread; i++) {
+                    appender.append(new LogEvent(System.currentTimeMillis(), Logger.Level.INFO, 
+                            "LogAppenderTest", "event " + thread + "-" + i, null));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        appender.flush();
+        
+        List<String> lines = Files.readAllLines(logFile, StandardCharsets.UTF_8);
+        assertEquals(threadCount * eventsPerThread, lines.size());
+        Set<String> messages = new HashSet<>();
+        for (String line : lines) {
+            assertTrue(line.contains(" [INFO] LogAppenderTest - event "));
+            messages.add(line.substring(line.indexOf("event ")));
+        }
+        assertEquals(threadCount * eventsPerThread, messages.size());
+        assertEquals(0, appender.getDroppedCount());
+        
+        appender.close();
+        appender.append(new LogEvent(System.currentTimeMillis(), Logger.Level.INFO, "LogAppenderTest", "late", null));
+        assertEquals(1, appender.getDroppedCount());
+        Files.delete(logFile);
+    }
+    
+    @Test
+    public void testEventsRacingWithCloseAreWrittenOrDropped() throws Exception {
+        Path logFile = Files.createTempFile("springlite", ".log");
+        AsyncFileAppender appender = new AsyncFileAppender(logFile, 64, AsyncFileAppender.OverflowPolicy.BLOCK);
+        int threadCount = 4;
+        AtomicLong appended = new AtomicLong();
+        CountDownLatch started = new CountDownLatch(threadCount);
+        
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            threads[t] = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 100_000; i++) {
+                    appender.append(new LogEvent(System.currentTimeMillis(), Logger.Level.INFO, 
+                            "LogAppenderTest", "event " + i, null));
+                    appended.incrementAndGet();
+                }
+            });
+            threads[t].start();
+        }
+        started.await();
+        Thread.sleep(5);
+        appender.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        // Every event is either in the file or counted as dropped
+        List<String> lines = Files.readAllLines(logFile, StandardCharsets.UTF_8);
+        assertEquals(appended.get(), lines.size() + appender.getDroppedCount());
+        Files.delete(logFile);
+    }
+    
+    @Test
+    public void testLoggerUsesConfiguredAppender() throws Exception {
+        Path logFile = Files.createTempFile("springlite", ".log");
+        AsyncFileAppender appender = new AsyncFileAppender(logFile);
+        LogAppender previous = Logger.setAppender(appender);
+        try {
+            Logger.getLogger(LogAppenderTest.class).warn("written to file");
+            appender.flush();
+        } finally {
+            Logger.setAppender(previous);
+            appender.close();
+        }
+        
+        String content = Files.readString(logFile, StandardCharsets.UTF_8);
+        assertTrue(content.contains("[WARN] LogAppenderTest - written to file"));
+        Files.delete(logFile);
+    }
+}
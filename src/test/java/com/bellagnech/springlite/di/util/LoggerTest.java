@@ -0,0 +1,132 @@
+package com.bellagnech.springlite.di.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.di.AnnotationApplicationContext;
+import com.bellagnech.springlite.di.BeanHandle;
+import com.bellagnech.springlite.di.util.Logger.Level;
+import com.bellagnech.springlite.test.annotation.SimpleService;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoggerTest {
+    
+    private static class CapturingAppender implements LogAppender {
+        final List<LogEvent> events = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public void append(LogEvent event) {
+            events.add(event);
+        }
+    }
+    
+    @Test
+    public void testPlaceholdersAreReplacedInOrder() {
+        assertEquals("a 1 b 2", Logger.formatMessage("a {} b {}", 1, 2));
+        assertEquals("only x and {}", Logger.formatMessage("only {} and {}", "x"));
+        assertEquals("no placeholder", Logger.formatMessage("no placeholder", "x"));
+        assertEquals("null value", Logger.formatMessage("{} value", (Object) null));
+    }
+    
+    @Test
+    public void testLoggerLevelOverridesGlobalLevel() {
+        Level previousLevel = Logger.getLevel();
+        CapturingAppender appender = new CapturingAppender();
+        LogAppender previousAppender = Logger.setAppender(appender);
+        try {
+            Logger.setLevel(Level.INFO);
+            Logger.setLevel("LoggerTest", Level.DEBUG);
+            Logger logger = Logger.getLogger(LoggerTest.class);
+            Logger other = Logger.getLogger(CapturingAppender.class);
+            
+            assertTrue(logger.isDebugEnabled());
+            assertFalse(other.isDebugEnabled());
+            
+            logger.debug("visible {}", "debug");
+            other.debug("hidden {}", "debug");
+            assertEquals(1, appender.events.size());
+            assertEquals("visible debug", appender.events.get(0).getMessage());
+            
+            Logger.setLevel("LoggerTest", Level.ERROR);
+            logger.warn("hidden warning");
+            assertEquals(1, appender.events.size());
+            
+            Logger.setLevel("LoggerTest", null);
+            assertEquals(Level.INFO, logger.getEffectiveLevel());
+        } finally {
+            Logger.resetLevels();
+            Logger.setLevel(previousLevel);
+            Logger.setAppender(previousAppender);
+        }
+    }
+    
+    @Test
+    public void testSupplierIsOnlyCalledWhenEnabled() {
+        Level previousLevel = Logger.getLevel();
+        CapturingAppender appender = new CapturingAppender();
+        LogAppender previousAppender = Logger.setAppender(appender);
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            Logger.setLevel(Level.INFO);
+            Logger logger = Logger.getLogger(LoggerTest.class);
+            
+            logger.debug(() -> "debug " + calls.incrementAndGet());
+            assertEquals(0, calls.get());
+            
+            logger.info(() -> "info " + calls.incrementAndGet());
+            assertEquals(1, calls.get());
+            assertEquals("info 1", appender.events.get(0).getMessage());
+        } finally {
+            Logger.setLevel(previousLevel);
+            Logger.setAppender(previousAppender);
+        }
+    }
+    
+    @Test
+    public void testDisabledLoggingDoesNotAllocate() throws Exception {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return; // Allocation counters are not available on this JVM
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadBean.isThreadAllocatedMemorySupported() || !threadBean.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+        
+        Level previousLevel = Logger.getLevel();
+        Logger.setLevel(Level.INFO);
+        try {
+            AnnotationApplicationContext context = new AnnotationApplicationContext(
+                    "com.bellagnech.springlite.test.annotation");
+            BeanHandle<SimpleService> handle = context.handle("simpleService", SimpleService.class);
+            Logger logger = Logger.getLogger(LoggerTest.class);
+            String id = "simpleService";
+            int iterations = 100_000;
+            
+            // Warm up, so that class loading and lazy initialization are not measured
+            for (int i = 0; i < iterations; i++) {
+                logger.debug("Getting bean with id: {}", id);
+                context.getBean(id);
+                handle.get();
+            }
+            
+            long before = threadBean.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                logger.debug("Getting bean with id: {}", id);
+                logger.debug("Creating {} bean: {}", "singleton", id);
+                context.getBean(id);
+                handle.get();
+            }
+            long allocated = threadBean.getCurrentThreadAllocatedBytes() - before;
+            
+            // Any allocation per iteration would amount to megabytes
+            assertTrue(allocated < 4096, "Allocated " + allocated + " bytes");
+        } finally {
+            Logger.setLevel(previousLevel);
+        }
+    }
+}
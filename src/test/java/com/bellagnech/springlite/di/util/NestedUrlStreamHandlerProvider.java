@@ -0,0 +1,27 @@
+package com.bellagnech.springlite.di.util;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.net.spi.URLStreamHandlerProvider;
+
+/**
+ * Lets the tests create the {@code nested:} URLs of executable jars, as the launcher
+ * of such jars does. The URLs are only parsed by the scanner, never opened.
+ */
+public class NestedUrlStreamHandlerProvider extends URLStreamHandlerProvider {
+    
+    @Override
+    public URLStreamHandler createURLStreamHandler(String protocol) {
+        if (!"nested".equals(protocol)) {
+            return null;
+        }
+        return new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL url) throws IOException {
+                throw new IOException("Not supported");
+            }
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package com.bellagnech.springlite.di.xml;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.bellagnech.springlite.di.BeanDefinition;
+import com.bellagnech.springlite.di.DefaultBeanDefinitionRegistry;
+import com.bellagnech.springlite.di.PropertyValue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+public class CompiledBeanDefinitionsTest {
+    
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+    
+    @Test
+    public void testCompiledFileMatchesXml() throws Exception {
+        Path xmlFile = Files.createTempDirectory("compiled-beans").resolve("beans.xml");
+        Files.copy(Path.of("src/test/resources/beans.xml"), xmlFile);
+        
+        assertFalse(XmlBeanDefinitionCompiler.verify(xmlFile));
+        assertEquals(6, XmlBeanDefinitionCompiler.compile(xmlFile));
+        assertTrue(XmlBeanDefinitionCompiler.verify(xmlFile));
+        
+        List<BeanDefinition> compiled = CompiledBeanDefinitions.read(CompiledBeanDefinitions.compiledFileFor(xmlFile));
+        assertEquals("prototype", compiled.get(5).getScope());
+        PropertyValue dependency = compiled.get(2).getPropertyValues().get(0);
+        assertTrue(dependency.isRef());
+        assertEquals("simpleBean", dependency.getValue());
+        assertTrue(Files.size(CompiledBeanDefinitions.compiledFileFor(xmlFile)) < Files.size(xmlFile));
+    }
+    
+    @Test
+    public void testReferencesAcrossFilesAndRedefinitionsRoundTrip() throws Exception {
+        Path xmlFile = Files.createTempDirectory("compiled-beans").resolve("beans.xml");
+        Files.writeString(xmlFile, XML_HEADER +
+                "<beans default-lazy-init=\"true\">\n" +
+                "    <bean id=\"consumer\" class=\"com.bellagnech.springlite.test.SetterInjectionBean\" lazy-init=\"false\">\n" +
+                "        <property name=\"dependency\" ref=\"simpleBean\" />\n" +
+                "        <property name=\"other\" ref=\"definedInAnotherFile\" />\n" +
+                "    </bean>\n" +
+                "    <bean id=\"simpleBean\" class=\"com.bellagnech.springlite.test.SimpleBean\">\n" +
+                "        <property name=\"message\" value=\"first \u00e9t\u00e9\" />\n" +
+                "    </bean>\n" +
+                "    <bean id=\"simpleBean\" class=\"com.bellagnech.springlite.test.SimpleBean\" scope=\"thread\" />\n" +
+                "</beans>");
+        
+        XmlBeanDefinitionCompiler.compile(xmlFile);
+        assertTrue(XmlBeanDefinitionCompiler.verify(xmlFile));
+        
+        List<BeanDefinition> compiled = CompiledBeanDefinitions.read(CompiledBeanDefinitions.compiledFileFor(xmlFile));
+        assertEquals(3, compiled.size());
+        assertEquals(Boolean.FALSE, compiled.get(0).getLazyInit());
+        assertEquals("definedInAnotherFile", compiled.get(0).getPropertyValues().get(1).getValue());
+        assertEquals("first \u00e9t\u00e9", compiled.get(1).getPropertyValues().get(0).getValue());
+        assertEquals(Boolean.TRUE, compiled.get(2).getLazyInit());
+        assertEquals("thread", compiled.get(2).getScope());
+    }
+    
+    @Test
+    public void testCompiledFileIsReadWhileNewerThanXml() throws Exception {
+        Path xmlFile = Files.createTempDirectory("compiled-beans").resolve("beans.xml");
+        Files.writeString(xmlFile, XML_HEADER +
+                "<beans><bean id=\"compiledBean\" class=\"com.bellagnech.springlite.test.SimpleBean\" /></beans>");
+        XmlBeanDefinitionCompiler.compile(xmlFile);
+        Path compiledFile = CompiledBeanDefinitions.compiledFileFor(xmlFile);
+        
+        // Edited XML, but older than the compiled file
+        Files.writeString(xmlFile, XML_HEADER +
+                "<beans><bean id=\"editedBean\" class=\"com.bellagnech.springlite.test.SimpleBean\" /></beans>");
+        FileTime compiledTime = Files.getLastModifiedTime(compiledFile);
+        Files.setLastModifiedTime(xmlFile, FileTime.fromMillis(compiledTime.toMillis() - 60_000));
+        assertTrue(load(xmlFile).containsBeanDefinition("compiledBean"));
+        
+        Files.setLastModifiedTime(xmlFile, FileTime.fromMillis(compiledTime.toMillis() + 60_000));
+        DefaultBeanDefinitionRegistry registry = load(xmlFile);
+        assertTrue(registry.containsBeanDefinition("editedBean"));
+        assertFalse(registry.containsBeanDefinition("compiledBean"));
+    }
+    
+    @Test
+    public void testCorruptCompiledFileFallsBackToXml() throws Exception {
+        Path xmlFile = Files.createTempDirectory("compiled-beans").resolve("beans.xml");
+        Files.writeString(xmlFile, XML_HEADER +
+                "<beans><bean id=\"xmlBean\" class=\"com.bellagnech.springlite.test.SimpleBean\" /></beans>");
+        Path compiledFile = CompiledBeanDefinitions.compiledFileFor(xmlFile);
+        Files.write(compiledFile, new byte[] {0x53, 0x4C, 0x42});
+        Files.setLastModifiedTime(xmlFile, FileTime.fromMillis(Files.getLastModifiedTime(compiledFile).toMillis() - 60_000));
+        
+        assertTrue(load(xmlFile).containsBeanDefinition("xmlBean"));
+    }
+    
+    @Test
+    public void testNegativeCountIsReportedAsCorrupt() throws Exception {
+        Path xmlFile = Files.createTempDirectory("compiled-beans").resolve("beans.xml");
+        Files.writeString(xmlFile, XML_HEADER +
+                "<beans><bean id=\"xmlBean\" class=\"com.bellagnech.springlite.test.SimpleBean\" /></beans>");
+        Path compiledFile = CompiledBeanDefinitions.compiledFileFor(xmlFile);
+        CompiledBeanDefinitions.write(compiledFile, List.of());
+        
+        // Replace the string count with a varint decoding to -1
+        byte[] bytes = Files.readAllBytes(compiledFile);
+        byte[] corrupt = ByteBuffer.allocate(8 + 5).put(bytes, 0, 8)
+                .put(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F}).array();
+        Files.write(compiledFile, corrupt);
+        Files.setLastModifiedTime(xmlFile, FileTime.fromMillis(Files.getLastModifiedTime(compiledFile).toMillis() - 60_000));
+        
+        assertThrows(IOException.class, () -> CompiledBeanDefinitions.read(compiledFile));
+        assertTrue(load(xmlFile).containsBeanDefinition("xmlBean"));
+    }
+    
+    private static DefaultBeanDefinitionRegistry load(Path xmlFile) throws Exception {
+        DefaultBeanDefinitionRegistry registry = new DefaultBeanDefinitionRegistry();
+        new XmlBeanDefinitionReader(registry).loadBeanDefinitions(xmlFile.toString());
+        return registry;
+    }
+}
@@ -1,12 +1,19 @@
 package com.bellagnech.springlite.di.xml;
 
+import com.bellagnech.springlite.di.BeanCreationException;
 import com.bellagnech.springlite.di.BeanDefinition;
 import com.bellagnech.springlite.di.BeanDefinitionRegistry;
 import com.bellagnech.springlite.di.DefaultBeanDefinitionRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -48,4 +55,71 @@ public class XmlBeanDefinitionReaderTest {
                 registry.getBeanDefinition("simpleBean").getScope(), 
                 "Default scope should be singleton");
     }
+    
+    @Test
+    public void testPropertiesOfNestedElementsAreNotInherited() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<beans default-lazy-init=\"true\">\n" +
+                "    <bean id=\"outer\" class=\"com.bellagnech.springlite.test.SimpleBean\">\n" +
+                "        <property name=\"message\" value=\"outer\" />\n" +
+                "        <description>\n" +
+                "            <property name=\"ignored\" value=\"nested\" />\n" +
+                "        </description>\n" +
+                "    </bean>\n" +
+                "    <bean id=\"eager\" class=\"com.bellagnech.springlite.test.SimpleBean\" lazy-init=\"false\" />\n" +
+                "</beans>";
+        reader.loadBeanDefinitions(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        
+        BeanDefinition outer = registry.getBeanDefinition("outer");
+        assertEquals(1, outer.getPropertyValues().size());
+        assertEquals("message", outer.getPropertyValues().get(0).getName());
+        assertEquals(Boolean.TRUE, outer.getLazyInit());
+        assertEquals(Boolean.FALSE, registry.getBeanDefinition("eager").getLazyInit());
+    }
+    
+    @Test
+    public void testBeansAreRegisteredWhileStreaming() throws Exception {
+        int beanCount = 10000;
+        int[] chunksRead = new int[1];
+        List<Integer> chunksReadOnRegistration = new ArrayList<>();
+        
+        // Generate the document chunk by chunk, as a large file would be read
+        Enumeration<InputStream> chunks = new Enumeration<InputStream>() {
+            private int next = -1;
+            
+            @Override
+            public boolean hasMoreElements() {
+                return next <= beanCount;
+            }
+            
+            @Override
+            public InputStream nextElement() {
+                String chunk;
+                if (next < 0) {
+                    chunk = "<beans>";
+                } else if (next < beanCount) {
+                    chunk = "<bean id=\"bean" + next + "\" class=\"com.bellagnech.springlite.test.SimpleBean\">" +
+                            "<property name=\"message\" value=\"" + next + "\"/></bean>";
+                } else {
+                    chunk = "</beans>";
+                }
+                next++;
+                chunksRead[0]++;
+                return new ByteArrayInputStream(chunk.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        
+        XmlBeanDefinitionReader streamingReader = new XmlBeanDefinitionReader(new DefaultBeanDefinitionRegistry() {
+            @Override
+            public void registerBeanDefinition(BeanDefinition beanDefinition) throws BeanCreationException {
+                chunksReadOnRegistration.add(chunksRead[0]);
+                super.registerBeanDefinition(beanDefinition);
+            }
+        });
+        streamingReader.loadBeanDefinitions(new SequenceInputStream(chunks));
+        
+        assertEquals(beanCount, chunksReadOnRegistration.size());
+        assertTrue(chunksReadOnRegistration.get(0) < beanCount / 2, 
+                "First bean should be registered before most of the document is read");
+    }
 }
@@ -0,0 +1,16 @@
+package com.bellagnech.springlite.test;
+
+public class StaticInitBean {
+    
+    static {
+        Tracker.initialized = true;
+    }
+    
+    // Separate class, so that reading the flag does not initialize StaticInitBean itself
+    public static class Tracker {
+        public static volatile boolean initialized = false;
+    }
+    
+    public StaticInitBean() {
+    }
+}
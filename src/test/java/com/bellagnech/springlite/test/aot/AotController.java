@@ -0,0 +1,32 @@
+package com.bellagnech.springlite.test.aot;
+
+import com.bellagnech.springlite.di.Provider;
+import com.bellagnech.springlite.di.annotations.Autowired;
+import com.bellagnech.springlite.di.annotations.Component;
+
+import java.util.Optional;
+
+// Members are public: the generated factories are loaded by another class loader in the tests
+@Component
+public class AotController {
+    
+    @Autowired
+    public AotService service;
+    
+    @Autowired
+    public Provider<AotPrototype> prototypes;
+    
+    @Autowired
+    public Optional<Runnable> task;
+    
+    private AotRepository repository;
+    
+    @Autowired
+    public void setRepository(AotRepository repository) {
+        this.repository = repository;
+    }
+    
+    public AotRepository getRepository() {
+        return repository;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bellagnech.springlite.test.aot;
+
+import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Scope;
+
+@Component
+@Scope("prototype")
+public class AotPrototype {
+}
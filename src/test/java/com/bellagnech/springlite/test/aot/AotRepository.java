@@ -0,0 +1,11 @@
+package com.bellagnech.springlite.test.aot;
+
+import com.bellagnech.springlite.di.annotations.Component;
+
+@Component
+public class AotRepository {
+    
+    public String find() {
+        return "data";
+    }
+}
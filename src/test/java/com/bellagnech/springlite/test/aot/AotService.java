@@ -0,0 +1,19 @@
+package com.bellagnech.springlite.test.aot;
+
+import com.bellagnech.springlite.di.annotations.Autowired;
+import com.bellagnech.springlite.di.annotations.Component;
+
+@Component
+public class AotService {
+    
+    private final AotRepository repository;
+    
+    @Autowired
+    public AotService(AotRepository repository) {
+        this.repository = repository;
+    }
+    
+    public AotRepository getRepository() {
+        return repository;
+    }
+}
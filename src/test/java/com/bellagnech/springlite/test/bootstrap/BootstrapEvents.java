@@ -0,0 +1,48 @@
+package com.bellagnech.springlite.test.bootstrap;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the creation of the bootstrap fixtures. When a rendezvous is set,
+ * the independent beans wait for each other, which only succeeds if they are
+ * created concurrently.
+ */
+public final class BootstrapEvents {
+    
+    public static final List<String> created = new CopyOnWriteArrayList<>();
+    
+    public static volatile CountDownLatch rendezvous;
+    
+    public static volatile boolean metConcurrently;
+    
+    private BootstrapEvents() {
+    }
+    
+    public static void reset(CountDownLatch newRendezvous) {
+        created.clear();
+        rendezvous = newRendezvous;
+        metConcurrently = false;
+    }
+    
+    static void record(String beanName) {
+        created.add(beanName);
+    }
+    
+    static void awaitOthers() {
+        CountDownLatch latch = rendezvous;
+        if (latch == null) {
+            return;
+        }
+        latch.countDown();
+        try {
+            if (latch.await(5, TimeUnit.SECONDS)) {
+                metConcurrently = true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.bellagnech.springlite.test.bootstrap;
+
+import com.bellagnech.springlite.di.annotations.Autowired;
+import com.bellagnech.springlite.di.annotations.Component;
+
+@Component
+public class DependentBean {
+    
+    @Autowired
+    private IndependentBeanA independentBeanA;
+    
+    @Autowired
+    private IndependentBeanB independentBeanB;
+    
+    public DependentBean() {
+        BootstrapEvents.record("dependentBean");
+    }
+    
+    public IndependentBeanA getIndependentBeanA() {
+        return independentBeanA;
+    }
+    
+    public IndependentBeanB getIndependentBeanB() {
+        return independentBeanB;
+    }
+}
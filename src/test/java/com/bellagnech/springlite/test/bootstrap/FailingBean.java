@@ -0,0 +1,8 @@
+package com.bellagnech.springlite.test.bootstrap;
+
+public class FailingBean {
+    
+    public FailingBean() {
+        throw new IllegalStateException("Failing on purpose");
+    }
+}
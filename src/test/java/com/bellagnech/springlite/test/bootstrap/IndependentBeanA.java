@@ -0,0 +1,12 @@
+package com.bellagnech.springlite.test.bootstrap;
+
+import com.bellagnech.springlite.di.annotations.Component;
+
+@Component
+public class IndependentBeanA {
+    
+    public IndependentBeanA() {
+        BootstrapEvents.awaitOthers();
+        BootstrapEvents.record("independentBeanA");
+    }
+}
@@ -0,0 +1,12 @@
+package com.bellagnech.springlite.test.bootstrap;
+
+import com.bellagnech.springlite.di.annotations.Component;
+
+@Component
+public class IndependentBeanB {
+    
+    public IndependentBeanB() {
+        BootstrapEvents.awaitOthers();
+        BootstrapEvents.record("independentBeanB");
+    }
+}
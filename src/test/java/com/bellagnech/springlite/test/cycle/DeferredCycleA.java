@@ -0,0 +1,15 @@
+package com.bellagnech.springlite.test.cycle;
+
+import com.bellagnech.springlite.di.annotations.Autowired;
+import com.bellagnech.springlite.di.annotations.Component;
+
+@Component
+public class DeferredCycleA {
+    
+    @Autowired
+    private DeferredCycleB deferredCycleB;
+    
+    public DeferredCycleB getDeferredCycleB() {
+        return deferredCycleB;
+    }
+}
@@ -0,0 +1,19 @@
+package com.bellagnech.springlite.test.cycle;
+
+import com.bellagnech.springlite.di.Provider;
+import com.bellagnech.springlite.di.annotations.Autowired;
+import com.bellagnech.springlite.di.annotations.Component;
+
+/**
+ * Depends back on {@link DeferredCycleA} through a provider, which breaks the cycle.
+ */
+@Component
+public class DeferredCycleB {
+    
+    @Autowired
+    private Provider<DeferredCycleA> deferredCycleA;
+    
+    public DeferredCycleA getDeferredCycleA() {
+        return deferredCycleA.get();
+    }
+}
@@ -0,0 +1,17 @@
+package com.bellagnech.springlite.test.lazy;
+
+import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Lazy(false)
+public class AlwaysEagerBean {
+    
+    public static final AtomicInteger instances = new AtomicInteger();
+    
+    public AlwaysEagerBean() {
+        instances.incrementAndGet();
+    }
+}
@@ -0,0 +1,15 @@
+package com.bellagnech.springlite.test.lazy;
+
+import com.bellagnech.springlite.di.annotations.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class EagerBean {
+    
+    public static final AtomicInteger instances = new AtomicInteger();
+    
+    public EagerBean() {
+        instances.incrementAndGet();
+    }
+}
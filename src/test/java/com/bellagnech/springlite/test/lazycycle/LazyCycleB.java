@@ -0,0 +1,13 @@
+package com.bellagnech.springlite.test.lazycycle;
+
+import com.bellagnech.springlite.di.annotations.Autowired;
+import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Lazy;
+
+@Component
+@Lazy
+public class LazyCycleB {
+    
+    @Autowired
+    private LazyCycleA lazyCycleA;
+}
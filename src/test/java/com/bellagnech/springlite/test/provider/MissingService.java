@@ -0,0 +1,7 @@
+package com.bellagnech.springlite.test.provider;
+
+/**
+ * Service without any implementation, used to test unresolved dependencies.
+ */
+public interface MissingService {
+}
@@ -0,0 +1,17 @@
+package com.bellagnech.springlite.test.provider;
+
+import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Scope;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Scope("prototype")
+public class PrototypeBean {
+    
+    public static final AtomicInteger instances = new AtomicInteger();
+    
+    public PrototypeBean() {
+        instances.incrementAndGet();
+    }
+}
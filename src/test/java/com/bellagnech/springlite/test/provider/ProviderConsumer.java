@@ -0,0 +1,62 @@
+package com.bellagnech.springlite.test.provider;
+
+import com.bellagnech.springlite.di.ObjectFactory;
+import com.bellagnech.springlite.di.Provider;
+import com.bellagnech.springlite.di.annotations.Autowired;
+import com.bellagnech.springlite.di.annotations.Component;
+
+import java.util.Optional;
+
+@Component
+public class ProviderConsumer {
+    
+    private final Provider<PrototypeBean> prototypeProvider;
+    
+    @Autowired
+    private ObjectFactory<PrototypeBean> prototypeFactory;
+    
+    @Autowired
+    private Optional<PrototypeBean> optionalPrototype;
+    
+    @Autowired
+    private Optional<MissingService> optionalMissingService;
+    
+    @Autowired
+    private Provider<MissingService> missingServiceProvider;
+    
+    private ObjectFactory<MissingService> missingServiceFactory;
+    
+    @Autowired
+    public ProviderConsumer(Provider<PrototypeBean> prototypeProvider) {
+        this.prototypeProvider = prototypeProvider;
+    }
+    
+    @Autowired
+    public void setMissingServiceFactory(ObjectFactory<MissingService> missingServiceFactory) {
+        this.missingServiceFactory = missingServiceFactory;
+    }
+    
+    public Provider<PrototypeBean> getPrototypeProvider() {
+        return prototypeProvider;
+    }
+    
+    public ObjectFactory<PrototypeBean> getPrototypeFactory() {
+        return prototypeFactory;
+    }
+    
+    public Optional<PrototypeBean> getOptionalPrototype() {
+        return optionalPrototype;
+    }
+    
+    public Optional<MissingService> getOptionalMissingService() {
+        return optionalMissingService;
+    }
+    
+    public Provider<MissingService> getMissingServiceProvider() {
+        return missingServiceProvider;
+    }
+    
+    public ObjectFactory<MissingService> getMissingServiceFactory() {
+        return missingServiceFactory;
+    }
+}
@@ -0,0 +1,27 @@
+package com.bellagnech.springlite.test.provider;
+
+import com.bellagnech.springlite.di.Provider;
+
+import java.util.Optional;
+
+/**
+ * Consumer wired through XML property references.
+ */
+public class XmlProviderConsumer {
+    
+    private Provider<PrototypeBean> prototypeProvider;
+    
+    private Optional<PrototypeBean> optionalPrototype;
+    
+    public Provider<PrototypeBean> getPrototypeProvider() {
+        return prototypeProvider;
+    }
+    
+    public void setPrototypeProvider(Provider<PrototypeBean> prototypeProvider) {
+        this.prototypeProvider = prototypeProvider;
+    }
+    
+    public Optional<PrototypeBean> getOptionalPrototype() {
+        return optionalPrototype;
+    }
+}
@@ -0,0 +1,18 @@
+package com.bellagnech.springlite.test.scan;
+
+import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Scope;
+
+@Component("namedComponent")
+@Scope("prototype")
+public class NamedComponent {
+    
+    public static final long BIG_CONSTANT = 1L << 40;
+    public static final double PI = 3.14159;
+    
+    private final String greeting = "hello";
+    
+    public String getGreeting() {
+        return greeting;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bellagnech.springlite.test.scan;
+
+@Deprecated
+public class PlainClass {
+    
+    public static volatile boolean initialized = false;
+    
+    static {
+        initialized = true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.bellagnech.springlite.test.scan;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.bellagnech.springlite.di.annotations.Component;
+
+/**
+ * Stereotype annotation marking its classes as components.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Component
+public @interface Service {
+}
@@ -0,0 +1,8 @@
+package com.bellagnech.springlite.test.scan;
+
+@Service
+public class StereotypedService {
+    
+    public StereotypedService() {
+    }
+}
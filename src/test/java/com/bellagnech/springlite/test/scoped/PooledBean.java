@@ -0,0 +1,35 @@
+package com.bellagnech.springlite.test.scoped;
+
+import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Reset;
+import com.bellagnech.springlite.di.annotations.Scope;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Scope("pooled")
+public class PooledBean {
+    
+    public static final AtomicInteger instances = new AtomicInteger();
+    
+    private final StringBuilder buffer = new StringBuilder();
+    private int resets;
+    
+    public PooledBean() {
+        instances.incrementAndGet();
+    }
+    
+    public String append(String value) {
+        return buffer.append(value).toString();
+    }
+    
+    public int getResets() {
+        return resets;
+    }
+    
+    @Reset
+    void reset() {
+        buffer.setLength(0);
+        resets++;
+    }
+}
@@ -0,0 +1,15 @@
+package com.bellagnech.springlite.test.scoped;
+
+import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Scope;
+
+@Component
+@Scope("striped")
+public class StripedBean {
+    
+    private long counter;
+    
+    public synchronized long increment() {
+        return ++counter;
+    }
+}
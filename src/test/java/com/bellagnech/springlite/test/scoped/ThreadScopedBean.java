@@ -0,0 +1,15 @@
+package com.bellagnech.springlite.test.scoped;
+
+import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Scope;
+
+@Component
+@Scope("thread")
+public class ThreadScopedBean {
+    
+    private final StringBuilder buffer = new StringBuilder(); // Not thread-safe
+    
+    public String append(String value) {
+        return buffer.append(value).toString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.bellagnech.springlite.test.typed;
+
+public abstract class AbstractGreetingService implements GreetingService {
+    
+    @Override
+    public String greet(String name) {
+        return getGreeting() + ", " + name;
+    }
+    
+    protected abstract String getGreeting();
+}
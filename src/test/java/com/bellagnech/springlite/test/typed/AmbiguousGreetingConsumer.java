@@ -0,0 +1,14 @@
+package com.bellagnech.springlite.test.typed;
+
+import com.bellagnech.springlite.di.annotations.Autowired;
+
+// Not a component: registered manually, as its dependency cannot be resolved
+public class AmbiguousGreetingConsumer {
+    
+    @Autowired
+    private GreetingService greetingService;
+    
+    public String greet(String name) {
+        return greetingService.greet(name);
+    }
+}
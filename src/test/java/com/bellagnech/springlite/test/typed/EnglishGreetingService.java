@@ -0,0 +1,12 @@
+package com.bellagnech.springlite.test.typed;
+
+import com.bellagnech.springlite.di.annotations.Component;
+
+@Component
+public class EnglishGreetingService extends AbstractGreetingService {
+    
+    @Override
+    protected String getGreeting() {
+        return "Hello";
+    }
+}
@@ -0,0 +1,16 @@
+package com.bellagnech.springlite.test.typed;
+
+import com.bellagnech.springlite.di.annotations.Autowired;
+import com.bellagnech.springlite.di.annotations.Component;
+
+@Component
+public class GreetingConsumer {
+    
+    // Two beans implement GreetingService, the field name selects one of them
+    @Autowired
+    private GreetingService frenchGreetingService;
+    
+    public String greet(String name) {
+        return frenchGreetingService.greet(name);
+    }
+}
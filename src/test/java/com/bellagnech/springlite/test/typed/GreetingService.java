@@ -0,0 +1,6 @@
+package com.bellagnech.springlite.test.typed;
+
+public interface GreetingService {
+    
+    String greet(String name);
+}
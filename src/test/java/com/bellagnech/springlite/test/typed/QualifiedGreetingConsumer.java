@@ -0,0 +1,17 @@
+package com.bellagnech.springlite.test.typed;
+
+import com.bellagnech.springlite.di.annotations.Autowired;
+import com.bellagnech.springlite.di.annotations.Component;
+import com.bellagnech.springlite.di.annotations.Qualifier;
+
+@Component
+public class QualifiedGreetingConsumer {
+    
+    @Autowired
+    @Qualifier("englishGreetingService")
+    private GreetingService greetingService;
+    
+    public String greet(String name) {
+        return greetingService.greet(name);
+    }
+}